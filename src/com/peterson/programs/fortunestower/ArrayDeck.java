@@ -0,0 +1,261 @@
+package com.peterson.programs.fortunestower;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+/**
+ * A Deck kept in primitive arrays that can be reused between games.
+ * The deck is an array of card codes, made once through makeKnight()
+ * and makeNumber(int value), and after that the deck only moves ints around;
+ * draw() hands out the shared Card for a code.
+ * The deck is never shuffled up front; instead every draw picks
+ * a random card out of the ones left and swaps it out of the way,
+ * which is a Fisher-Yates shuffle done one step at a time.
+ * A game that ends early never pays to shuffle the cards it didn't use.
+ * Calling reset() puts every card back without making anything new.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class ArrayDeck extends Deck
+{
+    private final int[] codes;
+
+    //order[0, remaining) are the cards left, order[remaining, length) have been drawn
+    private final int[] order;
+    private int remaining;
+
+    private RandomGenerator random;
+    //the deck's own Random that reset(long) reseeds, made the first time it is needed;
+    //never a generator passed in, which other decks may be drawing from too
+    private Random seeded;
+
+    /**
+     * Creates a Deck.
+     * The Deck will have numCards cards,
+     * four of which will be knight cards while the remaining
+     * numCards - 4 will be number cards between 1 and 7.
+     *
+     * @param numCards the number of cards in the deck.
+     */
+    public ArrayDeck(int numCards)
+    {
+        this(numCards, new Random());
+    }
+
+    /**
+     * Creates a Deck that always deals the same cards for a seed.
+     * This is the same as reset(seed) on any ArrayDeck of the same size.
+     *
+     * @param numCards the number of cards in the deck.
+     * @param seed the seed of the draws
+     */
+    public ArrayDeck(int numCards, long seed)
+    {
+        this(numCards, new Random(seed));
+        //made here, so the deck can reseed it without touching anyone else's
+        seeded = (Random) random;
+    }
+
+    /**
+     * Creates a Deck that draws with the given source of randomness,
+     * such as a stream of RandomStreams.
+     *
+     * @param numCards the number of cards in the deck.
+     * @param random the randomness used to pick each card that is drawn
+     */
+    public ArrayDeck(int numCards, RandomGenerator random)
+    {
+        this(numCards, RuleSet.STANDARD, random);
+    }
+
+    /**
+     * Creates a Deck of the cards of a variant, which is a shoe
+     * of numCards for each of the rules' decks.
+     *
+     * @param numCards the number of cards in each deck of the shoe.
+     * @param rules the rules that decide the knights and values of the cards, and the number of decks
+     * @param random the randomness used to pick each card that is drawn
+     * @throws IllegalArgumentException if the shoe has fewer cards than a game of the rules can deal
+     */
+    public ArrayDeck(int numCards, RuleSet rules, RandomGenerator random)
+    {
+        super();
+        long shoe = (long) numCards * rules.getDecks();
+        if (shoe < rules.getCardsNeeded())
+            throw new IllegalArgumentException("A game of " + rules + " can deal "
+                    + rules.getCardsNeeded() + " cards, more than " + shoe);
+        this.random = random;
+
+        Card[] cards = createCards(numCards, rules);
+        codes = new int[cards.length];
+        order = new int[cards.length];
+        for (int i = 0; i < cards.length; i++)
+        {
+            codes[i] = cards[i].getValue();
+            order[i] = i;
+        }
+        remaining = cards.length;
+    }
+
+    /*
+        Picks a random card out of the ones left and moves it
+        to the drawn part of the order, returning its index.
+     */
+    private int pick()
+    {
+        if (remaining == 0)
+            throw new NoSuchElementException("The deck is empty");
+
+        int j = random.nextInt(remaining);
+        remaining--;
+        int picked = order[j];
+        order[j] = order[remaining];
+        order[remaining] = picked;
+        return picked;
+    }
+
+    @Override
+    public Card draw()
+    {
+        return Card.valueOf(codes[pick()]);
+    }
+
+    @Override
+    public int drawCode()
+    {
+        return codes[pick()];
+    }
+
+    @Override
+    public boolean hasMoreCards()
+    {
+        return remaining != 0;
+    }
+
+    /**
+     * Gets the number of cards left in the deck.
+     * @return the number of cards that can still be drawn
+     */
+    public int size()
+    {
+        return remaining;
+    }
+
+    /**
+     * Puts every drawn card back into the deck.
+     * Nothing is shuffled here, the next draws do that.
+     */
+    public void reset()
+    {
+        remaining = order.length;
+    }
+
+    /**
+     * Puts every drawn card back into the deck in the order it was made,
+     * and reseeds the deck's Random, so the deck deals exactly what
+     * a new ArrayDeck made with the seed would.
+     * A deck drawing from a generator it was given goes back to drawing
+     * from a Random of its own; the generator it was given is left alone.
+     * @param seed the seed of the draws
+     */
+    public void reset(long seed)
+    {
+        restoreOrder();
+        if (seeded == null)
+            seeded = new Random(seed);
+        else
+            seeded.setSeed(seed);
+        random = seeded;
+    }
+
+    /**
+     * Puts every drawn card back into the deck in the order it was made,
+     * and draws from a generator from now on, so the deck deals exactly
+     * what a new ArrayDeck made with a generator in the same state would.
+     * @param random the randomness used to pick each card that is drawn
+     */
+    public void reset(RandomGenerator random)
+    {
+        restoreOrder();
+        this.random = random;
+    }
+
+    /*
+        Puts every card back, in the order they were made.
+     */
+    private void restoreOrder()
+    {
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        remaining = order.length;
+    }
+
+    /**
+     * Gets the number of cards drawn since the deck was made or reset.
+     * @return the number of cards drawn
+     */
+    public int drawnCount()
+    {
+        return order.length - remaining;
+    }
+
+    /**
+     * Gets the code, which is the value, of a card that has been drawn.
+     * @param index which card, 0 being the first card drawn
+     * @return the code of the card
+     * @throws IndexOutOfBoundsException if that many cards haven't been drawn
+     */
+    public int drawnCode(int index)
+    {
+        if (index < 0 || index >= drawnCount())
+            throw new IndexOutOfBoundsException("Only " + drawnCount() + " cards have been drawn");
+        //drawn cards are swapped to the end, the first one to the very end
+        return codes[order[order.length - 1 - index]];
+    }
+
+    /*
+        The code of the card at a place in the order, for GameStateCodec.
+        The cards left come first, and the first card drawn is at the very end.
+     */
+    int orderedCode(int position)
+    {
+        return codes[order[position]];
+    }
+
+    /*
+        Puts the cards in the order of their codes, for GameStateCodec.
+        Cards with the same code can't be told apart, so the n-th card of a code
+        in the order is the n-th card of that code made. The codes must be the
+        cards of the deck, each one once.
+     */
+    void arrange(int[] orderedCodes, int remaining)
+    {
+        for (int code = Card.MIN_VALUE; code <= Card.MAX_VALUE; code++)
+        {
+            int card = 0;
+            for (int i = 0; i < orderedCodes.length; i++)
+            {
+                if (orderedCodes[i] != code)
+                    continue;
+                while (codes[card] != code)
+                    card++;
+                order[i] = card++;
+            }
+        }
+        this.remaining = remaining;
+    }
+
+    public String toString()
+    {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < remaining; i++)
+        {
+            b.append(Card.valueOf(codes[order[i]]));
+            b.append("\n");
+        }
+
+        return b.toString();
+    }
+}
@@ -17,6 +17,7 @@ package com.peterson.programs.fortunestower;
  * the game continues until another is found or all 8 rows are filled. If all
  * 8 rows are filled and the Gate card is not used, the Jackpot condition is met and
  * the total value of the rows are added together for the grand total.
+ * The number of levels, the cards and the gate cards can be changed with a RuleSet.
  * @author Peterson, Ryan
  *         Created 8/6/2014
  */
@@ -44,7 +45,8 @@ public interface Board
     /**
      * Gets the value of the Row.
      * The value is equal to the face sum of every
-     * card in the row, with knights getting a value of 7.
+     * card in the row, with knights getting the value of the board's
+     * rule set, which is 0 in the standard game.
      * @param rowNum the row number, greater than 0 and less than 8
      * @return the value of the row, or -1 if the row hasn't been
      * dealt or if rowNum is out bounds
@@ -111,4 +113,51 @@ public interface Board
      * @return the last row of Cards dealt.
      */
     Card[] getLastRow();
+
+    /**
+     * Determines if the card at a place on the board is face up.
+     * Cards are shared and can't be flipped, so the board keeps
+     * which of its cards are face up.
+     * @param row the row of the card
+     * @param col the column of the card, from 0 to row
+     * @return true if there is a card there and it is face up
+     */
+    boolean isFaceUp(int row, int col);
+
+    /**
+     * Gets the row of the card where the last misfortune was found.
+     * This is where trySave() puts the gate card.
+     * @return the row of the first misfortune found by the last call to
+     * misFortune() that found one, or -1 if none has been found
+     */
+    int getMisfortuneRow();
+
+    /**
+     * Gets the column of the card where the last misfortune was found.
+     * @see #getMisfortuneRow()
+     * @return the column of the first misfortune found by the last call to
+     * misFortune() that found one, or -1 if none has been found
+     */
+    int getMisfortuneCol();
+
+    /**
+     * Gets the number of gate cards that have not been used.
+     * Each gate card can make one save; when none are left a misfortune ends the game.
+     * @return the number of gate cards left
+     */
+    int getGatesLeft();
+
+    /**
+     * Gets the rules the board is played by.
+     * @return the rule set of the board
+     */
+    RuleSet getRules();
+
+    /**
+     * Takes every card off the board and deals the first two rows again
+     * from the same deck, leaving the board as it was when it was made.
+     * Reset the deck first, so there are cards to deal.
+     * A board that is reset can play any number of games without being made again.
+     */
+    void reset();
 }
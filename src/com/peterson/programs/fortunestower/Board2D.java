@@ -1,7 +1,16 @@
 package com.peterson.programs.fortunestower;
 
+import com.peterson.programs.fortunestower.metrics.EngineEvents;
+
+import java.util.Arrays;
+
 /**
  * A 2-Dimensional array implementation of Board.
+ * Which cards are face up is kept in a mask, one bit per place
+ * on the board, numbered row by row from the gate card.
+ * The board can be played by the rules of any RuleSet; the gate cards
+ * after the first wait off the board, and each takes the gate's place
+ * when the one before it is used.
  *
  * @author Peterson, Ryan
  *         Created 7/22/2014
@@ -9,8 +18,13 @@ package com.peterson.programs.fortunestower;
 public class Board2D implements Board
 {
     protected Card[][] board;
+    private long faceUp;
     private Deck deck;
 
+    private final RuleSet rules;
+    private final Card[] gates;
+    private int gatesUsed;
+
     //Pointer to the next row to deal into
     private int nextRow;
 
@@ -23,10 +37,15 @@ public class Board2D implements Board
     private int potentialMisfortuneCol;
 
     /**
-     * The number of levels in the tower.
+     * The number of levels in the tower of the standard game.
      */
     public static final int LAST_LEVEL = 8;
 
+    /**
+     * The most levels a Board2D can have, so every place fits in the face up mask.
+     */
+    public static final int MAX_LEVELS = 10;
+
     /**
      * Constructs the Game board.
      * The game board will use the reference of
@@ -36,29 +55,73 @@ public class Board2D implements Board
      */
     public Board2D(Deck deckRef)
     {
-        board = new Card[LAST_LEVEL][];
+        this(deckRef, RuleSet.STANDARD);
+    }
+
+    /**
+     * Constructs the Game board of a variant.
+     *
+     * @param deckRef the reference to the deck to use in the game
+     * @param rules the rules of the variant
+     * @throws IllegalArgumentException if the rules have more than MAX_LEVELS levels
+     */
+    public Board2D(Deck deckRef, RuleSet rules)
+    {
+        if (rules.getLevels() > MAX_LEVELS)
+            throw new IllegalArgumentException("A Board2D has at most " + MAX_LEVELS + " levels");
+        this.rules = rules;
+        gates = new Card[rules.getGateCards()];
+        board = new Card[rules.getLevels()][];
         for (int i = 0; i < board.length; i++)
         {
             board[i] = new Card[i + 1];
         }
 
-        /*
-            The board starts out with 3 cards.
-            The one on the first row is face down,
-            and the other two on the second row is face up.
-         */
         deck = deckRef;
-        board[0][0] = deck.draw();
+        dealFirstRows();
+    }
+
+    /*
+        The board starts out with 3 cards.
+        The one on the first row is face down,
+        and the other two on the second row is face up.
+        Any other gate cards are dealt after the first, face down.
+     */
+    private void dealFirstRows()
+    {
+        for (int i = 0; i < gates.length; i++)
+            gates[i] = deck.draw();
+        gatesUsed = 0;
+        board[0][0] = gates[0];
         board[1][0] = deck.draw();
         board[1][1] = deck.draw();
-        board[1][0].flip();
-        board[1][1].flip();
+        faceUp = bit(1, 0) | bit(1, 1);
         nextRow = 2;
 
         potentialMisfortuneCol = -1;
         potentialMisfortuneRow = -1;
     }
 
+    /**
+     * Takes every card off the board and deals the first two rows again.
+     * The rows are emptied in place, so nothing is allocated.
+     */
+    @Override
+    public void reset()
+    {
+        for (int i = 2; i < board.length; i++)
+            Arrays.fill(board[i], null);
+        dealFirstRows();
+    }
+
+    /*
+        The bit of a place on the board in the face up mask.
+     */
+    private static long bit(int row, int col)
+    {
+        return 1L << (row * (row + 1) / 2 + col);
+    }
+
     public String toString()
     {
         StringBuilder b = new StringBuilder();
@@ -88,13 +151,17 @@ public class Board2D implements Board
      */
     public void nextRow()
     {
+        long start = EngineEvents.dealStarted();
         for (int i = 0; i < board[nextRow].length; i++)
         {
             board[nextRow][i] = deck.draw();
-            board[nextRow][i].flip();
+            faceUp |= bit(nextRow, i);
         }
 
         nextRow++;
+        //the row value is only worked out when something is listening
+        if (start != 0)
+            EngineEvents.rowDealt(start, nextRow - 1, rowValue(nextRow - 1));
     }
 
     /**
@@ -110,7 +177,7 @@ public class Board2D implements Board
             Last row will be 7, therefore the next
             row is 8.
          */
-        return nextRow == LAST_LEVEL;
+        return nextRow == board.length;
     }
 
     /**
@@ -121,13 +188,13 @@ public class Board2D implements Board
     {
         //cant flip nothing...
         if (board[0][0] != null)
-            board[0][0].flip();
+            faceUp ^= 1L;
     }
 
     /**
      * Gets the value of the Row.
      * The value is equal to the face sum of every
-     * card in the row, with knights getting a value of 7.
+     * card in the row, with knights getting the value of the rule set.
      *
      * @param rowNum the row number, greater than 0 and less than 8
      * @return the value of the row, or -1 if the row hasn't been
@@ -135,13 +202,13 @@ public class Board2D implements Board
      */
     public int rowValue(int rowNum)
     {
-        if (rowNum >= 0 && rowNum < LAST_LEVEL)
+        if (rowNum >= 0 && rowNum < board.length)
         {
             if (board[rowNum][0] != null)
             {
                 int value = 0;
                 for (int i = 0; i < board[rowNum].length; i++)
-                    value += board[rowNum][i].getValue();
+                    value += rules.value(board[rowNum][i].getCode());
                 return value;
             }
             else
@@ -237,9 +304,18 @@ public class Board2D implements Board
         if (board[0][0] != null)
         {
             Card temp = board[0][0];
-            temp.flip();
-            board[0][0] = null;
+            long target = bit(potentialMisfortuneRow, potentialMisfortuneCol);
+            //the gate card is turned over as it is moved
+            if ((faceUp & 1L) == 0)
+                faceUp |= target;
+            else
+                faceUp &= ~target;
+            faceUp &= ~1L;
             board[potentialMisfortuneRow][potentialMisfortuneCol] = temp;
+
+            //the next gate card, if there is one, takes the place of the one used
+            gatesUsed++;
+            board[0][0] = gatesUsed < gates.length ? gates[gatesUsed] : null;
         }
     }
 
@@ -262,13 +338,13 @@ public class Board2D implements Board
     /**
      * Determines if the board has hit a jackpot.
      * A jackpot condition occurs if the board is complete and no
-     * misfortune occurs.
+     * misfortune occurs, so no gate card has been used.
      *
      * @return true if the jackpot condition mentioned is met
      */
     public boolean hitJackpot()
     {
-        return (isComplete() && (board[0][0] != null));
+        return (isComplete() && (gatesUsed == 0));
     }
 
     /**
@@ -284,10 +360,11 @@ public class Board2D implements Board
         if (!hitJackpot())
             return 0;
 
+        //the gate card is still on row 0, since it hasn't been used
         int value = 0;
         for (int i = 0; i < board.length; i++)
         {
-            value += rowValue(i + 1);
+            value += rowValue(i);
         }
 
         return value;
@@ -304,7 +381,7 @@ public class Board2D implements Board
      */
     public Card[] getCardsInRow(int rowNumber)
     {
-        if (rowNumber >= 0 && rowNumber < LAST_LEVEL)
+        if (rowNumber >= 0 && rowNumber < board.length)
             return board[rowNumber];
         else
             return null;
@@ -319,4 +396,90 @@ public class Board2D implements Board
     {
         return getCardsInRow(nextRow - 1);
     }
+
+    @Override
+    public boolean isFaceUp(int row, int col)
+    {
+        if (row < 0 || row >= board.length || col < 0 || col > row || board[row][col] == null)
+            return false;
+        return (faceUp & bit(row, col)) != 0;
+    }
+
+    @Override
+    public int getGatesLeft()
+    {
+        return gates.length - gatesUsed;
+    }
+
+    @Override
+    public RuleSet getRules()
+    {
+        return rules;
+    }
+
+    /**
+     * Gets the row of the card where the last misfortune was found.
+     *
+     * @return the row of the misfortune, or -1 if none has been found.
+     */
+    public int getMisfortuneRow()
+    {
+        return potentialMisfortuneRow;
+    }
+
+    /**
+     * Gets the column of the card where the last misfortune was found.
+     *
+     * @return the column of the misfortune, or -1 if none has been found.
+     */
+    public int getMisfortuneCol()
+    {
+        return potentialMisfortuneCol;
+    }
+
+    /*
+        The rest is for GameStateCodec, which writes down everything
+        a game is and puts it back on a board.
+     */
+    Deck getDeck()
+    {
+        return deck;
+    }
+
+    long getFaceUpMask()
+    {
+        return faceUp;
+    }
+
+    int getGateCode(int index)
+    {
+        return gates[index].getCode();
+    }
+
+    /*
+        Puts a card in a place below the gate's, or takes it off for a code below 0.
+     */
+    void restoreCard(int row, int col, int code)
+    {
+        board[row][col] = code < 0 ? null : Card.valueOf(code);
+    }
+
+    void restoreGate(int index, int code)
+    {
+        gates[index] = Card.valueOf(code);
+    }
+
+    /*
+        Puts back everything but the cards, once they are in place.
+        The gate's place holds the next gate card that hasn't been used.
+     */
+    void restoreState(int nextRow, long faceUp, int gatesUsed, int misfortuneRow, int misfortuneCol)
+    {
+        this.nextRow = nextRow;
+        this.faceUp = faceUp;
+        this.gatesUsed = gatesUsed;
+        board[0][0] = gatesUsed < gates.length ? gates[gatesUsed] : null;
+        potentialMisfortuneRow = misfortuneRow;
+        potentialMisfortuneCol = misfortuneCol;
+    }
 }
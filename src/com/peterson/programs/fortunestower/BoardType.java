@@ -0,0 +1,94 @@
+package com.peterson.programs.fortunestower;
+
+/**
+ * The implementations of Board that a game can be played on.
+ * Every type deals from the deck passed to create(Deck) and
+ * plays by the same rules; they only differ in how the tower is stored.
+ * create(Deck, RuleSet) makes a board of a variant, for the types that can play it.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public enum BoardType
+{
+    /**
+     * The ragged 2-D array of Cards, Board2D.
+     */
+    BOARD_2D
+    {
+        @Override
+        public Board create(Deck deck, RuleSet rules)
+        {
+            return new Board2D(deck, rules);
+        }
+    },
+
+    /**
+     * The linked nodes of TreeBoard.
+     */
+    TREE
+    {
+        @Override
+        @SuppressWarnings("deprecation")
+        public Board create(Deck deck, RuleSet rules)
+        {
+            if (!rules.isStandard())
+                throw new IllegalArgumentException("A TreeBoard only plays the standard rules");
+            return new TreeBoard(deck);
+        }
+    },
+
+    /**
+     * The bit-packed card codes of PackedBoard.
+     */
+    PACKED
+    {
+        @Override
+        public Board create(Deck deck, RuleSet rules)
+        {
+            return new PackedBoard(deck, rules);
+        }
+    },
+
+    /**
+     * The flat card codes and cached row values of TallBoard, for towers of hundreds of levels.
+     */
+    TALL
+    {
+        @Override
+        public Board create(Deck deck, RuleSet rules)
+        {
+            return new TallBoard(deck, rules);
+        }
+    },
+
+    /**
+     * The immutable, structurally shared snapshots of PersistentBoard, which can be undone and branched.
+     */
+    PERSISTENT
+    {
+        @Override
+        public Board create(Deck deck, RuleSet rules)
+        {
+            return new PersistentBoard(deck, rules);
+        }
+    };
+
+    /**
+     * Constructs a board of this type, dealing the first two rows.
+     * @param deck the deck the board will draw cards from
+     * @return a new board
+     */
+    public Board create(Deck deck)
+    {
+        return create(deck, RuleSet.STANDARD);
+    }
+
+    /**
+     * Constructs a board of this type for a variant, dealing the first two rows.
+     * @param deck the deck the board will draw cards from, made for the same rules
+     * @param rules the rules of the variant
+     * @return a new board
+     * @throws IllegalArgumentException if this type of board can't play by the rules
+     */
+    public abstract Board create(Deck deck, RuleSet rules);
+}
@@ -4,16 +4,19 @@ package com.peterson.programs.fortunestower;
  * A card for a game of Fortune's Tower.
  * Every card has a Face, which is either normal
  * or a knight, as well as a value between 1 and 7, or
- * 0 for a knight.
- * A card can also alturnate between flipped and face down.
+ * 0 for a knight. There is also the back of a card, for
+ * showing a card that is face down.
+ * Cards can't be changed, so there are only nine of them;
+ * get them with valueOf(int) and BACK, and share them freely.
+ * Whether a card is face up is up to the Board it is on.
  * @author Peterson, Ryan
  *         Created 7/22/2014
  */
-public class Card implements Comparable<Card>
+public final class Card implements Comparable<Card>
 {
-    private Face face;
-    private int number;
-    private boolean faceUp;
+    private final Face face;
+    private final int number;
+    private final int code;
 
     /**
      * The minimum value of a card, which is a Knight
@@ -26,34 +29,78 @@ public class Card implements Comparable<Card>
     public static final int MAX_VALUE = 7;
 
     /**
-     * Creates a Card.
-     * The value of the face as well as
-     * a face must be passed.
-     * @param value the value of the card
-     * @param f the face of the Card
+     * The code of the back of a card, one past the code of every card with a value.
      */
-    public Card(int value, Face f)
+    public static final int BACK_CODE = MAX_VALUE + 1;
+
+    private static final Card[] CARDS = new Card[BACK_CODE + 1];
+
+    static
+    {
+        CARDS[0] = new Card(0, Face.KNIGHT, 0);
+        for(int i = 1; i <= MAX_VALUE; i++)
+            CARDS[i] = new Card(i, Face.NORMAL, i);
+        CARDS[BACK_CODE] = new Card(0, Face.BACK, BACK_CODE);
+    }
+
+    /**
+     * The knight, with a value of 0.
+     */
+    public static final Card KNIGHT = CARDS[0];
+
+    /**
+     * The back of a card, with a value of 0.
+     * It is never dealt; it stands in for a card that is face down.
+     */
+    public static final Card BACK = CARDS[BACK_CODE];
+
+    private Card(int value, Face f, int code)
     {
         face = f;
         number = value;
-        faceUp = false;
+        this.code = code;
+    }
+
+    /**
+     * Gets the card with a value.
+     * @param value 0 for a knight, or 1 to 7
+     * @return the one card with that value
+     * @throws IllegalArgumentException if the value is not between 0 and 7
+     */
+    public static Card valueOf(int value)
+    {
+        if(value < MIN_VALUE || value > MAX_VALUE)
+            throw new IllegalArgumentException("No card has a value of " + value);
+        return CARDS[value];
+    }
+
+    /**
+     * Gets a card from its code.
+     * @param code the value of the card, or BACK_CODE for the back
+     * @return the one card with that code
+     * @throws IllegalArgumentException if the code is not between 0 and BACK_CODE
+     */
+    public static Card fromCode(int code)
+    {
+        if(code < 0 || code > BACK_CODE)
+            throw new IllegalArgumentException("No card has a code of " + code);
+        return CARDS[code];
     }
 
     public String toString()
     {
-        StringBuilder b = new StringBuilder();
         if(face == Face.KNIGHT)
-            b.append("Knight");
-        else
-            b.append(number);
-        return b.toString();
+            return "Knight";
+        if(face == Face.BACK)
+            return "?";
+        return String.valueOf(number);
     }
 
     /**
      * Gets the face value of the Card.
      * If the card is a normal card, the value
      * 1-7 is returned.
-     * If its a knight, 0 is returned.
+     * If its a knight or the back, 0 is returned.
      * @return the value of the card
      */
     public int getValue()
@@ -62,72 +109,60 @@ public class Card implements Comparable<Card>
     }
 
     /**
-     * Determines if the card is a knight.
-     * @return true if the card is a Knight card, false if not
+     * Gets the code of the card, which is its value,
+     * or BACK_CODE for the back of a card.
+     * @return the code of the card
      */
-    public boolean isKnight()
+    public int getCode()
     {
-        return face == Face.KNIGHT;
+        return code;
     }
 
     /**
-     * Alternates the card between
-     * face up and face down.
+     * Determines if the card is a knight.
+     * @return true if the card is a Knight card, false if not
      */
-    public void flip()
+    public boolean isKnight()
     {
-        faceUp = !faceUp;
+        return face == Face.KNIGHT;
     }
 
     /**
-     * Determines if the card is face up
-     * @return true if the card is face up.
+     * Determines if the card is the back of a card.
+     * @return true if this is BACK
      */
-    public boolean isFaceUp()
+    public boolean isBack()
     {
-        return faceUp;
+        return face == Face.BACK;
     }
 
     /**
-     * Compares two Cards.
-     * This will compare based on the face value.
-     * If one of the cards is a Knight, -1 is returned.
+     * Compares two Cards by their codes, so the
+     * knight comes first, then 1 to 7, then the back.
      * @param other the Card to compare to
-     * @return -1, 0, or 1 based on the comparision.
+     * @return a negative number, 0, or a positive number as this card
+     *         comes before, is the same as, or comes after the other
+     * @throws NullPointerException if other is null
      */
     public int compareTo(Card other)
     {
-        if(other == null)
-            return Integer.MIN_VALUE;
-
-        if(this.face == Face.KNIGHT
-            || other.face == Face.KNIGHT)
-            return -1;
-
-        if(this.number == other.number)
-            return 0;
-
-        if(this.number < other.number)
-            return -1;
-
-        return 1;
+        return Integer.compare(code, other.code);
     }
 
-
     /**
-     * Determines if the cards have the same value.
-     * @param other the Card to compare to
+     * Determines if the cards are the same.
+     * Two knights are equal, as are two number cards of the same value,
+     * but a knight never equals a number card.
+     * @param other the object to compare to
      * @return true if this card equals other card
      */
-    public boolean equals(Card other)
+    public boolean equals(Object other)
+    {
+        return other instanceof Card && ((Card) other).code == code;
+    }
+
+    public int hashCode()
     {
-        if(this.face == Face.KNIGHT)
-        {
-            if(other.face == Face.KNIGHT)
-                return true;
-            else
-                return false;
-        }
-        return compareTo(other) == 0;
+        return code;
     }
 }
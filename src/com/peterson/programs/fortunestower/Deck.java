@@ -1,19 +1,19 @@
 package com.peterson.programs.fortunestower;
 
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * An Abstract Deck.
  * Provides minimal implementation to handle
  * adding cards to the deck as well as
  * getting the top card in the deck.
- * Children of this class must implement two methods,
- * makeKnight() and makeNumber(int value).
- * This is done so that Cards can have specific implementations,
- * adding things such as Images to the card, which would be
- * hard with a base Deck class.
+ * The cards are the shared values from Card.valueOf(int), so
+ * a deck is only the order of its cards; anything else about a
+ * card, such as its image, is looked up from its value.
  * @author Peterson, Ryan
  *         Created 7/22/2014
  */
@@ -45,55 +45,102 @@ public abstract class Deck
      */
     public Deck(int numCards)
     {
-        deck = new LinkedList<>();
-        createDeck(numCards);
-        Collections.shuffle(deck);
+        this(numCards, new Random());
     }
 
-    /*
-        Constructs the deck.
-        The first four cards are knight cards, while
-        (numberCards - 4) are number cards with
-        values between 1 and 7.
-        The abstract protected methods of this class are called,
-        and upon implementation of child classes must construct
-        the card to be added properly; the base Card class will
-        have the cards just be a face and value, while a potential
-        Swing class will have an image associated with the card as well.
+    /**
+     * Creates a Deck shuffled with the given source of randomness.
+     * Two decks shuffled with generators made from the same seed
+     * have their cards in the same order, so a game can be played again.
+     * The shuffle is the same one Collections.shuffle does, so a
+     * Random deals what it always has for a seed.
+     * @param numCards the number of cards in the deck.
+     * @param random the randomness used to shuffle the deck
      */
-    private void createDeck(int numberCards)
+    public Deck(int numCards, RandomGenerator random)
     {
-        for(int i = 0; i < 4; i++)
+        Card[] cards = createCards(numCards);
+        for(int i = cards.length; i > 1; i--)
         {
-            deck.add(makeKnight());
+            int j = random.nextInt(i);
+            Card c = cards[i - 1];
+            cards[i - 1] = cards[j];
+            cards[j] = c;
         }
+        deck = new LinkedList<>(Arrays.asList(cards));
+    }
+
+    /**
+     * Creates a Deck without building the list of cards.
+     * This is for subclasses that keep their cards in their own
+     * structure; they must override draw(), hasMoreCards() and toString(),
+     * and can use createCards(int) to make the cards.
+     */
+    protected Deck()
+    {
+        deck = null;
+    }
 
-        numberCards -= 4;
+    /**
+     * Constructs the cards of the deck, in order.
+     * The first four cards are knight cards, while
+     * (numberCards - 4) are number cards with
+     * values between 1 and 7.
+     * Each card comes from makeKnight() or makeNumber(int value).
+     * @param numberCards the number of cards in the deck
+     * @return the unshuffled cards
+     */
+    protected Card[] createCards(int numberCards)
+    {
+        return createCards(numberCards, RuleSet.STANDARD);
+    }
 
-        for(int i = 0; i < numberCards; i++)
+    /**
+     * Constructs the cards of the shoe of a variant, in order.
+     * In each deck of the shoe, the first cards are the rule set's knights,
+     * and the rest are number cards of 1 to its highest value over and over.
+     * @param numberCards the number of cards in each deck
+     * @param rules the rules of the variant
+     * @return the unshuffled cards, numberCards for each deck in the shoe
+     */
+    protected Card[] createCards(int numberCards, RuleSet rules)
+    {
+        Card[] cards = new Card[numberCards * rules.getDecks()];
+        int knights = Math.min(rules.getKnights(), numberCards);
+        for(int d = 0; d < cards.length; d += numberCards)
         {
-            deck.add(makeNumber((i % Card.MAX_VALUE) + 1));
+            for(int i = 0; i < knights; i++)
+            {
+                cards[d + i] = makeKnight();
+            }
+
+            for(int i = knights; i < numberCards; i++)
+            {
+                cards[d + i] = makeNumber(((i - knights) % rules.getMaxValue()) + 1);
+            }
         }
+
+        return cards;
     }
 
     /**
-     * Abstract method to fulfill the contract of making
-     * a Knight card. Subclasses must implement this, and
-     * will handle the details of creating the Card
-     * @return card a single Knight card
+     * Gets a Knight card for the deck.
+     * @return card the Knight card
      */
-    protected abstract Card makeKnight();
+    protected Card makeKnight()
+    {
+        return Card.KNIGHT;
+    }
 
     /**
-     * Abstract method to fulfill the contract of making a
-     * number card. Subclasses will implement this, which
-     * will handle the specifics of making a single
-     * number card, which may have more fields, such
-     * as an image
+     * Gets a number card for the deck.
      * @param value the value of the card
-     * @return card a single Number card
+     * @return card the Number card with that value
      */
-    protected abstract Card makeNumber(int value);
+    protected Card makeNumber(int value)
+    {
+        return Card.valueOf(value);
+    }
 
     /**
      * Removes the card on top of the Deck.
@@ -109,6 +156,19 @@ public abstract class Deck
         return deck.remove(deck.size() - 1);
     }
 
+    /**
+     * Removes the card on top of the Deck, returning only its code.
+     * The code of a card is its value; 0 for a knight and 1-7 for a number card.
+     * Decks that keep their cards as codes can override this to skip
+     * touching the Card itself.
+     * @return the code of the card on top of the deck.
+     * @throws java.util.NoSuchElementException if the deck is empty
+     */
+    public int drawCode()
+    {
+        return draw().getValue();
+    }
+
     /**
      * Tests to see if the deck has more cards.
      * @return true if the deck is not empty, false otherwise.
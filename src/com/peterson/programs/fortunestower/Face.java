@@ -2,10 +2,11 @@ package com.peterson.programs.fortunestower;
 
 /**
  * Enum of the types of face the cards can have.
- * There are only two, Normal and Knight.
+ * There are Normal and Knight, and the Back of
+ * a card that stands in for a card that is face down.
  * @author Peterson, Ryan
  */
 public enum Face
 {
-    NORMAL, KNIGHT
+    NORMAL, KNIGHT, BACK
 }
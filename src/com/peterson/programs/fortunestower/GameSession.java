@@ -0,0 +1,169 @@
+package com.peterson.programs.fortunestower;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A deck and the board dealt from it, kept together so one
+ * session can play any number of games.
+ * Starting a new game resets the deck and the board instead of
+ * making new ones, so with Board2D or PackedBoard a session
+ * allocates nothing from one game to the next.
+ * A session is not thread safe; SessionPool hands them out to threads.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class GameSession
+{
+    private final ArrayDeck deck;
+    private final Board board;
+    private final BoardType boardType;
+
+    //true until the board dealt when the session was made has been played
+    private boolean fresh;
+    private long games;
+
+    /**
+     * Creates a session with a new ArrayDeck.
+     * @param deckSize the number of cards in the deck. Use the constants from the Deck class
+     *                 for the standard sizes.
+     * @param boardType the kind of board to play on
+     */
+    public GameSession(int deckSize, BoardType boardType)
+    {
+        this(new ArrayDeck(deckSize), boardType);
+    }
+
+    /**
+     * Creates a session with a new ArrayDeck that draws from a generator,
+     * such as a stream of RandomStreams, so each table has its own.
+     * @param deckSize the number of cards in the deck. Use the constants from the Deck class
+     *                 for the standard sizes.
+     * @param boardType the kind of board to play on
+     * @param random the randomness used to pick each card that is drawn
+     */
+    public GameSession(int deckSize, BoardType boardType, RandomGenerator random)
+    {
+        this(new ArrayDeck(deckSize, random), boardType);
+    }
+
+    /**
+     * Creates a session of a variant, with a new ArrayDeck of its cards.
+     * @param deckSize the number of cards in the deck
+     * @param boardType the kind of board to play on
+     * @param rules the rules of the variant
+     * @param random the randomness used to pick each card that is drawn
+     */
+    public GameSession(int deckSize, BoardType boardType, RuleSet rules, RandomGenerator random)
+    {
+        this(new ArrayDeck(deckSize, rules, random), boardType, rules);
+    }
+
+    /**
+     * Creates a session that plays with the given deck, such as a GameDeck.
+     * @param deck the deck to deal every game from
+     * @param boardType the kind of board to play on
+     */
+    public GameSession(ArrayDeck deck, BoardType boardType)
+    {
+        this(deck, boardType, RuleSet.STANDARD);
+    }
+
+    /**
+     * Creates a session of a variant that plays with the given deck.
+     * @param deck the deck to deal every game from, made for the same rules
+     * @param boardType the kind of board to play on
+     * @param rules the rules of the variant
+     */
+    public GameSession(ArrayDeck deck, BoardType boardType, RuleSet rules)
+    {
+        this.deck = deck;
+        this.boardType = boardType;
+        board = boardType.create(deck, rules);
+        fresh = true;
+    }
+
+    /**
+     * Starts a game, with the first two rows dealt.
+     * The first game uses the board dealt when the session was made.
+     * @return the board of the new game, which is the same board every time
+     */
+    public Board newGame()
+    {
+        if (!fresh)
+        {
+            deck.reset();
+            board.reset();
+        }
+        fresh = false;
+        games++;
+        return board;
+    }
+
+    /**
+     * Starts a game that deals the same cards every time for a seed.
+     * @param seed the seed of the draws
+     * @return the board of the new game, which is the same board every time
+     */
+    public Board newGame(long seed)
+    {
+        deck.reset(seed);
+        board.reset();
+        fresh = false;
+        games++;
+        return board;
+    }
+
+    /**
+     * Starts a game dealt from a generator, which the deck keeps
+     * drawing from for the games after it.
+     * @param random the randomness used to pick each card that is drawn
+     * @return the board of the new game, which is the same board every time
+     */
+    public Board newGame(RandomGenerator random)
+    {
+        deck.reset(random);
+        board.reset();
+        fresh = false;
+        games++;
+        return board;
+    }
+
+    public Board getBoard()
+    {
+        return board;
+    }
+
+    public ArrayDeck getDeck()
+    {
+        return deck;
+    }
+
+    public BoardType getBoardType()
+    {
+        return boardType;
+    }
+
+    public RuleSet getRules()
+    {
+        return board.getRules();
+    }
+
+    /**
+     * Gets the number of cards the deck was made with.
+     * @return the size of a full deck, or of each deck of a shoe
+     */
+    public int getDeckSize()
+    {
+        return (deck.size() + deck.drawnCount()) / board.getRules().getDecks();
+    }
+
+    /**
+     * Gets the number of games started.
+     * @return the number of calls to newGame
+     */
+    public long getGames()
+    {
+        return games;
+    }
+}
@@ -0,0 +1,315 @@
+package com.peterson.programs.fortunestower;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes a game in progress on a Board2D, and the ArrayDeck it deals from,
+ * into a record of a fixed size, and puts it back, so a game can be checkpointed
+ * and carried on later or somewhere else.
+ * A record holds everything the board and deck are: every card on the board,
+ * which are face up, the gate cards and how many are used, the next row, where the
+ * last misfortune was found and every card of the deck in its order. Each card is
+ * its code in 4 bits, so a game of the standard rules with a diamond deck is 66 bytes.
+ * A record of a codec's rules and deck size is laid out as:
+ *   byte 0       the version of the layout, VERSION
+ *   byte 1       the number of levels
+ *   byte 2       the number of gate cards
+ *   byte 3       the number of gate cards used
+ *   byte 4       the next row to deal
+ *   bytes 5-6    the row and column of the last misfortune found, or -1 and -1
+ *   byte 7       unused, 0
+ *   bytes 8-9    the number of cards in the deck
+ *   bytes 10-11  the number of cards left in the deck
+ *   bytes 12-19  which places are face up, a bit each, numbered row by row from the gate card
+ *   bytes 20-    card codes, two to a byte with the first in the low 4 bits:
+ *                every place below the gate card's, row by row, with 15 for a place not dealt;
+ *                then every gate card, in the order they are used; then every card of the deck,
+ *                the cards left first in the deck's order, then the ones drawn, the last one first.
+ *                A last, odd code is followed by 4 bits of 0.
+ * Numbers are big endian, as ByteBuffer writes them.
+ * An ArrayDeck draws a random one of the cards it has left, so what comes next
+ * is not decided until it is drawn: the cards left are put back where they were,
+ * and the deck goes on drawing from its own generator.
+ * Writing and reading make nothing, so a codec can checkpoint games as fast as they are played;
+ * it keeps a little room of its own to read into, so a codec is used by one thread at a time.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class GameStateCodec
+{
+    /**
+     * The version of the layout, written first in every record.
+     */
+    public static final int VERSION = 1;
+
+    private static final int HEADER = 20;
+    private static final int EMPTY = 0x0F;
+
+    private final RuleSet rules;
+    private final int deckCards;
+    //the places on the board below the gate card's
+    private final int places;
+    private final int codeCount;
+    private final int bytes;
+
+    //the row and column of each place below the gate card's
+    private final int[] rowOf;
+    private final int[] colOf;
+    //the number of cards of each code in the deck
+    private final int[] composition;
+
+    //room to read into
+    private final int[] deckCodes;
+    private final int[] counts;
+
+    /**
+     * Creates a codec of the standard game.
+     * @param deckSize the number of cards in the deck. Use the constants from the Deck class
+     *                 for the standard sizes.
+     */
+    public GameStateCodec(int deckSize)
+    {
+        this(RuleSet.STANDARD, deckSize);
+    }
+
+    /**
+     * Creates a codec of the games of a variant.
+     * @param rules the rules of the games
+     * @param deckSize the number of cards in each deck of the shoe
+     * @throws IllegalArgumentException if a Board2D can't play by the rules,
+     * or the shoe doesn't have enough cards for a game or has more than 65535
+     */
+    public GameStateCodec(RuleSet rules, int deckSize)
+    {
+        if (rules.getLevels() > Board2D.MAX_LEVELS)
+            throw new IllegalArgumentException("A Board2D has at most " + Board2D.MAX_LEVELS + " levels");
+        long shoe = (long) deckSize * rules.getDecks();
+        if (shoe < rules.getCardsNeeded() || shoe > 0xFFFF)
+            throw new IllegalArgumentException("A deck must have between " + rules.getCardsNeeded()
+                    + " and 65535 cards");
+
+        this.rules = rules;
+        deckCards = (int) shoe;
+        places = rules.getSlots() - 1;
+        codeCount = places + rules.getGateCards() + deckCards;
+        bytes = HEADER + (codeCount + 1) / 2;
+
+        rowOf = new int[places];
+        colOf = new int[places];
+        for (int row = 1, i = 0; row < rules.getLevels(); row++)
+        {
+            for (int col = 0; col <= row; col++, i++)
+            {
+                rowOf[i] = row;
+                colOf[i] = col;
+            }
+        }
+        composition = rules.composition(deckSize);
+        deckCodes = new int[deckCards];
+        counts = new int[composition.length];
+    }
+
+    /**
+     * Gets the size of a record of this codec.
+     * @return the number of bytes every record takes
+     */
+    public int getBytes()
+    {
+        return bytes;
+    }
+
+    public RuleSet getRules()
+    {
+        return rules;
+    }
+
+    /**
+     * Writes the game of a session at the buffer's position.
+     * @param session a session of a Board2D and a deck of this codec's size
+     * @param buffer the buffer to write to, with at least getBytes() remaining
+     * @throws IllegalArgumentException if the session doesn't play on a Board2D
+     */
+    public void write(GameSession session, ByteBuffer buffer)
+    {
+        write(board(session), session.getDeck(), buffer);
+    }
+
+    /**
+     * Writes a game at the buffer's position.
+     * @param board the board of the game
+     * @param deck the deck the board deals from
+     * @param buffer the buffer to write to, with at least getBytes() remaining
+     * @throws IllegalArgumentException if the board isn't of this codec's rules,
+     * or doesn't deal from a deck of this codec's size
+     */
+    public void write(Board2D board, ArrayDeck deck, ByteBuffer buffer)
+    {
+        check(board, deck);
+
+        buffer.put((byte) VERSION);
+        buffer.put((byte) rules.getLevels());
+        buffer.put((byte) rules.getGateCards());
+        buffer.put((byte) (rules.getGateCards() - board.getGatesLeft()));
+        buffer.put((byte) board.getLastRow().length);
+        buffer.put((byte) board.getMisfortuneRow());
+        buffer.put((byte) board.getMisfortuneCol());
+        buffer.put((byte) 0);
+        buffer.putShort((short) deckCards);
+        buffer.putShort((short) deck.size());
+        buffer.putLong(board.getFaceUpMask());
+
+        for (int i = 0; i < codeCount; i += 2)
+        {
+            int high = i + 1 < codeCount ? code(board, deck, i + 1) : 0;
+            buffer.put((byte) (code(board, deck, i) | (high << 4)));
+        }
+    }
+
+    /*
+        The i-th code written after the header.
+     */
+    private int code(Board2D board, ArrayDeck deck, int i)
+    {
+        if (i < places)
+        {
+            Card card = board.getCardsInRow(rowOf[i])[colOf[i]];
+            return card == null ? EMPTY : card.getCode();
+        }
+        i -= places;
+        if (i < rules.getGateCards())
+            return board.getGateCode(i);
+        return deck.orderedCode(i - rules.getGateCards());
+    }
+
+    /**
+     * Reads a record from the buffer's position into the game of a session.
+     * @param buffer the buffer to read from, with at least getBytes() remaining
+     * @param session a session of a Board2D and a deck of this codec's size
+     * @throws IllegalArgumentException if the session doesn't play on a Board2D,
+     * or the bytes aren't a record of this codec
+     */
+    public void read(ByteBuffer buffer, GameSession session)
+    {
+        read(buffer, board(session), session.getDeck());
+    }
+
+    /**
+     * Reads a record from the buffer's position into a board and its deck,
+     * replacing the game they had. The record is checked before anything is changed,
+     * so the board and deck are left as they were if it isn't one.
+     * @param buffer the buffer to read from, with at least getBytes() remaining
+     * @param board the board to put the game on
+     * @param deck the deck the board deals from
+     * @throws IllegalArgumentException if the board isn't of this codec's rules,
+     * or doesn't deal from a deck of this codec's size, or the bytes aren't a record of this codec
+     */
+    public void read(ByteBuffer buffer, Board2D board, ArrayDeck deck)
+    {
+        check(board, deck);
+        int start = buffer.position();
+        if (!isRecord(buffer, start))
+            throw new IllegalArgumentException("Not a game state of " + rules + " with "
+                    + deckCards + " cards at byte " + start);
+
+        for (int i = 0; i < places; i++)
+        {
+            int code = code(buffer, start, i);
+            board.restoreCard(rowOf[i], colOf[i], code == EMPTY ? -1 : code);
+        }
+        for (int i = 0; i < rules.getGateCards(); i++)
+            board.restoreGate(i, code(buffer, start, places + i));
+        board.restoreState(buffer.get(start + 4), buffer.getLong(start + 12), buffer.get(start + 3),
+                buffer.get(start + 5), buffer.get(start + 6));
+        deck.arrange(deckCodes, buffer.getShort(start + 10) & 0xFFFF);
+
+        buffer.position(start + bytes);
+    }
+
+    /*
+        Checks every part of a record, reading the deck's codes into deckCodes.
+     */
+    private boolean isRecord(ByteBuffer buffer, int start)
+    {
+        int levels = rules.getLevels();
+        int nextRow = buffer.get(start + 4);
+        int misfortuneRow = buffer.get(start + 5);
+        int misfortuneCol = buffer.get(start + 6);
+        int gatesUsed = buffer.get(start + 3);
+        if (buffer.get(start) != VERSION || buffer.get(start + 1) != levels
+                || buffer.get(start + 2) != rules.getGateCards() || buffer.get(start + 7) != 0
+                || gatesUsed < 0 || gatesUsed > rules.getGateCards()
+                || nextRow < 2 || nextRow > levels)
+            return false;
+        if ((misfortuneRow != -1 || misfortuneCol != -1)
+                && (misfortuneRow < 1 || misfortuneRow >= nextRow || misfortuneCol < 0 || misfortuneCol > misfortuneRow))
+            return false;
+        if ((buffer.getShort(start + 8) & 0xFFFF) != deckCards || (buffer.getShort(start + 10) & 0xFFFF) > deckCards)
+            return false;
+        long faceUp = buffer.getLong(start + 12);
+        if (rules.getSlots() < Long.SIZE && (faceUp >>> rules.getSlots()) != 0)
+            return false;
+
+        //a row is dealt whole or not at all
+        for (int i = 0; i < places; i++)
+        {
+            int code = code(buffer, start, i);
+            if (rowOf[i] < nextRow ? code > Card.MAX_VALUE : code != EMPTY)
+                return false;
+        }
+        for (int i = 0; i < rules.getGateCards(); i++)
+        {
+            if (code(buffer, start, places + i) > Card.MAX_VALUE)
+                return false;
+        }
+
+        //the deck holds its own cards, each one once
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = 0;
+        for (int i = 0; i < deckCards; i++)
+        {
+            int code = code(buffer, start, places + rules.getGateCards() + i);
+            if (code > Card.MAX_VALUE)
+                return false;
+            deckCodes[i] = code;
+            counts[code]++;
+        }
+        for (int i = 0; i < counts.length; i++)
+        {
+            if (counts[i] != composition[i])
+                return false;
+        }
+        return (codeCount & 1) == 0 || (buffer.get(start + bytes - 1) & 0xF0) == 0;
+    }
+
+    /*
+        The i-th code of the record at start.
+     */
+    private static int code(ByteBuffer buffer, int start, int i)
+    {
+        int b = buffer.get(start + HEADER + i / 2);
+        return (i & 1) == 0 ? b & 0x0F : (b >>> 4) & 0x0F;
+    }
+
+    /*
+        Makes sure a game is one this codec can write and read.
+     */
+    private void check(Board2D board, ArrayDeck deck)
+    {
+        if (!board.getRules().equals(rules))
+            throw new IllegalArgumentException("The board is of " + board.getRules() + ", not " + rules);
+        if (board.getDeck() != deck)
+            throw new IllegalArgumentException("The board doesn't deal from the deck");
+        if (deck.size() + deck.drawnCount() != deckCards)
+            throw new IllegalArgumentException("The deck has " + (deck.size() + deck.drawnCount())
+                    + " cards, not " + deckCards);
+    }
+
+    private static Board2D board(GameSession session)
+    {
+        if (!(session.getBoard() instanceof Board2D))
+            throw new IllegalArgumentException("Only a game on a Board2D can be written, not on a "
+                    + session.getBoardType());
+        return (Board2D) session.getBoard();
+    }
+}
@@ -0,0 +1,364 @@
+package com.peterson.programs.fortunestower;
+
+import com.peterson.programs.fortunestower.metrics.EngineEvents;
+
+import java.util.Arrays;
+
+/**
+ * A bit-packed implementation of Board.
+ * Every slot of the tower holds a 4-bit card code, which is the
+ * value of the card (0 for a knight, 1-7 for a number card).
+ * Each row lives in its own 32-bit lane, two rows to a long, so
+ * that a whole row can be tested at once:
+ * a knight is a zero nibble, a row's value is the sum of its nibbles,
+ * and a parent is equal to a child when the nibble of their xor is zero.
+ * Which slots have been dealt and which are face up are kept
+ * in two 36-bit masks, one bit per slot, numbered row by row from
+ * the gate card.
+ * This board behaves exactly like Board2D, it only stores the cards differently.
+ * It plays any RuleSet of up to 8 levels, since a lane holds eight codes;
+ * the gate cards waiting to be used are kept as codes beside the lanes.
+ * The cards handed out by getCardsInRow(int) are the shared Cards for the codes,
+ * in a new array.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class PackedBoard implements Board
+{
+    /*
+        Nibble masks for a 32-bit lane
+     */
+    private static final long ONES = 0x11111111L;
+    private static final long HIGHS = 0x88888888L;
+    private static final long LOWS = 0x77777777L;
+    private static final long EVEN_NIBBLES = 0x0F0F0F0FL;
+    private static final long LANE = 0xFFFFFFFFL;
+
+    //two rows per long, row r is in lanes[r / 2] at bit 32 * (r % 2)
+    private final long[] lanes;
+    private final int levels;
+    private final RuleSet rules;
+    //what a knight adds to a row, so rowValue only counts knights when they are worth something
+    private final int knightValue;
+    private final int[] gateCodes;
+    private int gatesUsed;
+    private long dealt;
+    private long faceUp;
+    private Deck deck;
+
+    private int nextRow;
+    private int potentialMisfortuneRow;
+    private int potentialMisfortuneCol;
+
+    /**
+     * Constructs the Game board.
+     * The game board will use the reference of
+     * the deck passed in to draw cards from.
+     *
+     * @param deckRef the reference to the deck to use in the game
+     */
+    public PackedBoard(Deck deckRef)
+    {
+        this(deckRef, RuleSet.STANDARD);
+    }
+
+    /**
+     * Constructs the Game board of a variant.
+     *
+     * @param deckRef the reference to the deck to use in the game
+     * @param rules the rules of the variant
+     * @throws IllegalArgumentException if the rules have more than 8 levels
+     */
+    public PackedBoard(Deck deckRef, RuleSet rules)
+    {
+        if (rules.getLevels() > 8)
+            throw new IllegalArgumentException("A PackedBoard has at most 8 levels");
+        deck = deckRef;
+        this.rules = rules;
+        levels = rules.getLevels();
+        knightValue = rules.getKnightValue();
+        gateCodes = new int[rules.getGateCards()];
+        lanes = new long[(levels + 1) / 2];
+        dealFirstRows();
+    }
+
+    /*
+        The gate card is face down, the second row is face up.
+        Any other gate cards are dealt after the first.
+     */
+    private void dealFirstRows()
+    {
+        for (int i = 0; i < gateCodes.length; i++)
+            gateCodes[i] = deck.drawCode();
+        gatesUsed = 0;
+        place(0, 0, gateCodes[0], false);
+        place(1, 0, deck.drawCode(), true);
+        place(1, 1, deck.drawCode(), true);
+        nextRow = 2;
+
+        potentialMisfortuneRow = -1;
+        potentialMisfortuneCol = -1;
+    }
+
+    @Override
+    public void reset()
+    {
+        Arrays.fill(lanes, 0);
+        dealt = 0;
+        faceUp = 0;
+        dealFirstRows();
+    }
+
+    /*
+        Index of a slot in the dealt and face up masks.
+     */
+    private static int slot(int row, int col)
+    {
+        return row * (row + 1) / 2 + col;
+    }
+
+    /*
+        Mask of the nibbles used by a row of the given length.
+     */
+    private static long nibbles(int length)
+    {
+        return (1L << (length * 4)) - 1;
+    }
+
+    private long row(int row)
+    {
+        return (lanes[row >> 1] >>> ((row & 1) << 5)) & LANE;
+    }
+
+    private int code(int row, int col)
+    {
+        return (int) ((row(row) >>> (col * 4)) & 0xF);
+    }
+
+    /*
+        Writes a code into a slot and marks the slot as dealt.
+     */
+    private void place(int row, int col, int code, boolean up)
+    {
+        int shift = ((row & 1) << 5) + col * 4;
+        lanes[row >> 1] = (lanes[row >> 1] & ~(0xFL << shift)) | ((long) code << shift);
+
+        long bit = 1L << slot(row, col);
+        dealt |= bit;
+        if (up)
+            faceUp |= bit;
+        else
+            faceUp &= ~bit;
+    }
+
+    /*
+        Sets the high bit of every nibble of x that is zero.
+     */
+    private static long zeroNibbles(long x)
+    {
+        return ~(((x & LOWS) + LOWS) | x) & HIGHS;
+    }
+
+    public String toString()
+    {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < levels; i++)
+        {
+            for (int j = 0; j <= i; j++)
+            {
+                if ((dealt & (1L << slot(i, j))) == 0)
+                    b.append("*");
+                else if (i == 0)
+                    b.append("?");
+                else if (code(i, j) == 0)
+                    b.append("Knight");
+                else
+                    b.append(code(i, j));
+                b.append(" ");
+            }
+            b.append("\n");
+        }
+        return b.toString();
+    }
+
+    @Override
+    public void nextRow()
+    {
+        long start = EngineEvents.dealStarted();
+        for (int i = 0; i <= nextRow; i++)
+            place(nextRow, i, deck.drawCode(), true);
+
+        nextRow++;
+        if (start != 0)
+            EngineEvents.rowDealt(start, nextRow - 1, rowValue(nextRow - 1));
+    }
+
+    @Override
+    public boolean isComplete()
+    {
+        return nextRow == levels;
+    }
+
+    @Override
+    public void flipGateCard()
+    {
+        //cant flip nothing...
+        if ((dealt & 1L) != 0)
+            faceUp ^= 1L;
+    }
+
+    @Override
+    public int rowValue(int rowNum)
+    {
+        if (rowNum < 0 || rowNum >= levels || (dealt & (1L << slot(rowNum, 0))) == 0)
+            return -1;
+
+        //add neighbouring nibbles into bytes, then add the bytes together
+        long row = row(rowNum);
+        long x = (row & EVEN_NIBBLES) + ((row >>> 4) & EVEN_NIBBLES);
+        int value = (int) (((x * 0x01010101L) >>> 24) & 0xFF);
+        if (knightValue != 0)
+            value += knightValue * Long.bitCount(zeroNibbles(row) & nibbles(rowNum + 1));
+        return value;
+    }
+
+    @Override
+    public int lastRowValue()
+    {
+        return rowValue(nextRow - 1);
+    }
+
+    @Override
+    public boolean misFortune()
+    {
+        //if its the first two rows
+        //then a misfortune CANNOT happen
+        if (nextRow - 1 <= 2)
+            return false;
+
+        int rowCurr = nextRow - 1;
+        long child = row(rowCurr);
+        long parent = row(rowCurr - 1);
+
+        //unused nibbles are filled in so they cant look like knights
+        long filled = child | (LANE & ~nibbles(rowCurr + 1));
+        if (((filled - ONES) & ~filled & HIGHS) != 0)
+            return false;
+
+        //a zero nibble in the xor means the parent equals its left or right child
+        long used = nibbles(rowCurr) & HIGHS;
+        long left = zeroNibbles(parent ^ child) & used;
+        long right = zeroNibbles(parent ^ (child >>> 4)) & used;
+        long either = left | right;
+        if (either == 0)
+            return false;
+
+        //the first parent with an equal child, checking the left child first
+        long first = Long.lowestOneBit(either);
+        int col = Long.numberOfTrailingZeros(first) >>> 2;
+        if ((left & first) == 0)
+            col++;
+
+        potentialMisfortuneRow = rowCurr;
+        potentialMisfortuneCol = col;
+        return true;
+    }
+
+    @Override
+    public void trySave()
+    {
+        //dont do anything if the value hasn't been set
+        if (potentialMisfortuneCol < 0)
+            return;
+        //if the gate card hasn't been used
+        if ((dealt & 1L) != 0)
+        {
+            int gate = code(0, 0);
+            boolean up = (faceUp & 1L) == 0;
+            lanes[0] &= ~0xFL;
+            dealt &= ~1L;
+            faceUp &= ~1L;
+            place(potentialMisfortuneRow, potentialMisfortuneCol, gate, up);
+
+            //the next gate card, if there is one, takes the place of the one used
+            gatesUsed++;
+            if (gatesUsed < gateCodes.length)
+                place(0, 0, gateCodes[gatesUsed], false);
+        }
+    }
+
+    @Override
+    public boolean hitJackpot()
+    {
+        return isComplete() && gatesUsed == 0;
+    }
+
+    @Override
+    public int jackpotValue()
+    {
+        if (!hitJackpot())
+            return 0;
+
+        int value = 0;
+        for (int i = 0; i < levels; i++)
+        {
+            value += rowValue(i);
+        }
+
+        return value;
+    }
+
+    @Override
+    public Card[] getCardsInRow(int rowNumber)
+    {
+        if (rowNumber < 0 || rowNumber >= levels)
+            return null;
+
+        Card[] cards = new Card[rowNumber + 1];
+        for (int i = 0; i < cards.length; i++)
+        {
+            if ((dealt & (1L << slot(rowNumber, i))) != 0)
+                cards[i] = Card.valueOf(code(rowNumber, i));
+        }
+        return cards;
+    }
+
+    @Override
+    public Card[] getLastRow()
+    {
+        return getCardsInRow(nextRow - 1);
+    }
+
+    @Override
+    public boolean isFaceUp(int row, int col)
+    {
+        if (row < 0 || row >= levels || col < 0 || col > row)
+            return false;
+        return (faceUp & (1L << slot(row, col))) != 0;
+    }
+
+    @Override
+    public int getGatesLeft()
+    {
+        return gateCodes.length - gatesUsed;
+    }
+
+    @Override
+    public RuleSet getRules()
+    {
+        return rules;
+    }
+
+    @Override
+    public int getMisfortuneRow()
+    {
+        return potentialMisfortuneRow;
+    }
+
+    @Override
+    public int getMisfortuneCol()
+    {
+        return potentialMisfortuneCol;
+    }
+}
@@ -0,0 +1,497 @@
+package com.peterson.programs.fortunestower;
+
+import com.peterson.programs.fortunestower.metrics.EngineEvents;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An implementation of Board whose every state is an immutable Snapshot.
+ * Dealing, saving and flipping the gate card make a new snapshot that shares
+ * everything it didn't change with the one before: the rows are a stack with
+ * the last row dealt on top, so a deal adds one row and a save copies only
+ * the rows from the top down to the one the gate card goes into, which is
+ * almost always just the top one.
+ * The deck is made persistent the same way. Every card drawn in a game goes onto
+ * a tape shared by all of the game's snapshots, and a snapshot only keeps how
+ * far along the tape it is; a snapshot that deals past the end of the tape draws
+ * the next card from the Deck and adds it, and any other deals the card on the tape.
+ * So snapshot() and restore(Snapshot) take constant time, a board made with
+ * PersistentBoard(Snapshot) branches off another one without copying anything,
+ * and a game that is rewound and dealt again deals the same cards.
+ * Every game is numbered, and a snapshot can only be restored into the game it was taken of,
+ * so a snapshot from before a reset can't be put back into the new game.
+ * Boards sharing a game are used by one thread at a time, since they share its tape.
+ * This board behaves exactly like Board2D, and plays any RuleSet of up to 64 levels.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class PersistentBoard implements Board
+{
+    /**
+     * The most levels a PersistentBoard can have, so the face up cards of a row fit in a long.
+     */
+    public static final int MAX_LEVELS = 64;
+
+    //the number of the next game started, shared by every board
+    private static final AtomicLong GAMES = new AtomicLong();
+
+    private final RuleSet rules;
+    private final Deck deck;
+    private Snapshot state;
+
+    /**
+     * Constructs the Game board.
+     * The game board will use the reference of
+     * the deck passed in to draw cards from.
+     *
+     * @param deckRef the reference to the deck to use in the game
+     */
+    public PersistentBoard(Deck deckRef)
+    {
+        this(deckRef, RuleSet.STANDARD);
+    }
+
+    /**
+     * Constructs the Game board of a variant.
+     *
+     * @param deckRef the reference to the deck to use in the game
+     * @param rules the rules of the variant
+     * @throws IllegalArgumentException if the rules have more than MAX_LEVELS levels
+     */
+    public PersistentBoard(Deck deckRef, RuleSet rules)
+    {
+        if (rules.getLevels() > MAX_LEVELS)
+            throw new IllegalArgumentException("A PersistentBoard has at most " + MAX_LEVELS + " levels");
+        this.rules = rules;
+        deck = deckRef;
+        dealFirstRows();
+    }
+
+    /**
+     * Constructs a board that carries on from a snapshot of another.
+     * Nothing is copied: the two boards share the snapshot's game, and each goes its own way from it.
+     *
+     * @param snapshot where the board starts from
+     */
+    public PersistentBoard(Snapshot snapshot)
+    {
+        rules = snapshot.tape.rules;
+        deck = snapshot.tape.deck;
+        state = snapshot;
+    }
+
+    /*
+        The gate cards are drawn first, and the first is put face down.
+        The second row is dealt face up.
+     */
+    private void dealFirstRows()
+    {
+        Tape tape = new Tape(rules, deck);
+        int gates = rules.getGateCards();
+        state = new Snapshot(tape, gates, null, 1, tape.code(0), false, 0, -1, -1);
+        state = deal(state);
+    }
+
+    /**
+     * Starts a new game, on a new tape, so every snapshot of the last game is left as it was.
+     */
+    @Override
+    public void reset()
+    {
+        dealFirstRows();
+    }
+
+    /**
+     * Gets the state of the board.
+     * @return the board as it is now, which never changes
+     */
+    public Snapshot snapshot()
+    {
+        return state;
+    }
+
+    /**
+     * Puts the board back into a state it, or a board it shares a game with, was in.
+     * @param snapshot a snapshot of this board's game
+     * @throws IllegalArgumentException if the snapshot is of another game,
+     * including one this board played before it was reset
+     */
+    public void restore(Snapshot snapshot)
+    {
+        if (snapshot.tape.deck != deck || snapshot.tape.rules != rules)
+            throw new IllegalArgumentException("The snapshot is of a board dealing from another deck");
+        if (snapshot.tape.game != state.tape.game)
+            throw new IllegalArgumentException("The snapshot is of game " + snapshot.tape.game
+                    + ", not the game being played, " + state.tape.game);
+        state = snapshot;
+    }
+
+    /*
+        Deals the next row face up on top of the rows of a snapshot.
+     */
+    private Snapshot deal(Snapshot s)
+    {
+        int length = s.rowCount + 1;
+        byte[] codes = new byte[length];
+        int value = 0;
+        int knights = 0;
+        for (int i = 0; i < length; i++)
+        {
+            int code = s.tape.code(s.drawn + i);
+            codes[i] = (byte) code;
+            value += rules.value(code);
+            if (code == 0)
+                knights++;
+        }
+        long up = length == 64 ? -1L : (1L << length) - 1;
+        Row row = new Row(codes, up, value, knights, s.top);
+        return new Snapshot(s.tape, s.drawn + length, row, s.rowCount + 1, s.gate, s.gateUp, s.gatesUsed,
+                s.misfortuneRow, s.misfortuneCol);
+    }
+
+    /*
+        The row of a snapshot, or null if it hasn't been dealt.
+     */
+    private static Row row(Snapshot s, int rowNum)
+    {
+        if (rowNum < 1 || rowNum >= s.rowCount)
+            return null;
+        Row row = s.top;
+        for (int i = s.rowCount - 1; i > rowNum; i--)
+            row = row.below;
+        return row;
+    }
+
+    /*
+        Puts a card into a row, copying the rows above it and sharing the rows below.
+     */
+    private static Row replace(Row top, int rowNum, int topNum, int col, int code, boolean up, RuleSet rules)
+    {
+        if (topNum != rowNum)
+        {
+            Row below = replace(top.below, rowNum, topNum - 1, col, code, up, rules);
+            return new Row(top.codes, top.faceUp, top.value, top.knights, below);
+        }
+
+        byte[] codes = top.codes.clone();
+        int old = codes[col];
+        codes[col] = (byte) code;
+        long faceUp = up ? top.faceUp | (1L << col) : top.faceUp & ~(1L << col);
+        int value = top.value + rules.value(code) - rules.value(old);
+        int knights = top.knights + (code == 0 ? 1 : 0) - (old == 0 ? 1 : 0);
+        return new Row(codes, faceUp, value, knights, top.below);
+    }
+
+    public String toString()
+    {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < rules.getLevels(); i++)
+        {
+            Card[] cards = getCardsInRow(i);
+            for (int j = 0; j <= i; j++)
+            {
+                if (cards[j] == null)
+                    b.append("*");
+                else if (i == 0)
+                    b.append("?");
+                else
+                    b.append(cards[j]);
+                b.append(" ");
+            }
+            b.append("\n");
+        }
+        return b.toString();
+    }
+
+    @Override
+    public void nextRow()
+    {
+        long start = EngineEvents.dealStarted();
+        state = deal(state);
+        if (start != 0)
+            EngineEvents.rowDealt(start, state.rowCount - 1, state.top.value);
+    }
+
+    @Override
+    public boolean isComplete()
+    {
+        return state.rowCount == rules.getLevels();
+    }
+
+    @Override
+    public void flipGateCard()
+    {
+        Snapshot s = state;
+        //cant flip nothing...
+        if (s.gate >= 0)
+            state = new Snapshot(s.tape, s.drawn, s.top, s.rowCount, s.gate, !s.gateUp, s.gatesUsed,
+                    s.misfortuneRow, s.misfortuneCol);
+    }
+
+    @Override
+    public int rowValue(int rowNum)
+    {
+        if (rowNum == 0)
+            return state.gate >= 0 ? rules.value(state.gate) : -1;
+        Row row = row(state, rowNum);
+        return row == null ? -1 : row.value;
+    }
+
+    @Override
+    public int lastRowValue()
+    {
+        return rowValue(state.rowCount - 1);
+    }
+
+    @Override
+    public boolean misFortune()
+    {
+        Snapshot s = state;
+        //if its the first two rows
+        //then a misfortune CANNOT happen
+        if (s.rowCount - 1 <= 2)
+            return false;
+
+        Row child = s.top;
+        if (child.knights != 0)
+            return false;
+
+        byte[] parent = child.below.codes;
+        for (int i = 0; i < parent.length; i++)
+        {
+            //the left child first, then the right
+            int col = -1;
+            if (parent[i] == child.codes[i])
+                col = i;
+            else if (parent[i] == child.codes[i + 1])
+                col = i + 1;
+            if (col >= 0)
+            {
+                if (s.misfortuneRow != s.rowCount - 1 || s.misfortuneCol != col)
+                    state = new Snapshot(s.tape, s.drawn, s.top, s.rowCount, s.gate, s.gateUp, s.gatesUsed,
+                            s.rowCount - 1, col);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void trySave()
+    {
+        Snapshot s = state;
+        //dont do anything if the value hasn't been set
+        if (s.misfortuneCol < 0)
+            return;
+        //if the gate card hasn't been used
+        if (s.gate >= 0)
+        {
+            //the gate card is turned over as it is moved
+            Row top = replace(s.top, s.misfortuneRow, s.rowCount - 1, s.misfortuneCol, s.gate, !s.gateUp, rules);
+
+            //the next gate card, if there is one, takes the place of the one used
+            int used = s.gatesUsed + 1;
+            int gate = used < rules.getGateCards() ? s.tape.code(used) : -1;
+            state = new Snapshot(s.tape, s.drawn, top, s.rowCount, gate, false, used,
+                    s.misfortuneRow, s.misfortuneCol);
+        }
+    }
+
+    @Override
+    public boolean hitJackpot()
+    {
+        return isComplete() && state.gatesUsed == 0;
+    }
+
+    @Override
+    public int jackpotValue()
+    {
+        if (!hitJackpot())
+            return 0;
+
+        //the rows, and the gate card, which hasn't been used
+        int value = rowValue(0);
+        for (Row row = state.top; row != null; row = row.below)
+            value += row.value;
+        return value;
+    }
+
+    @Override
+    public Card[] getCardsInRow(int rowNumber)
+    {
+        if (rowNumber < 0 || rowNumber >= rules.getLevels())
+            return null;
+
+        Card[] cards = new Card[rowNumber + 1];
+        if (rowNumber == 0)
+        {
+            if (state.gate >= 0)
+                cards[0] = Card.valueOf(state.gate);
+            return cards;
+        }
+        Row row = row(state, rowNumber);
+        if (row != null)
+        {
+            for (int i = 0; i < cards.length; i++)
+                cards[i] = Card.valueOf(row.codes[i]);
+        }
+        return cards;
+    }
+
+    @Override
+    public Card[] getLastRow()
+    {
+        return getCardsInRow(state.rowCount - 1);
+    }
+
+    @Override
+    public boolean isFaceUp(int row, int col)
+    {
+        if (row < 0 || row >= rules.getLevels() || col < 0 || col > row)
+            return false;
+        if (row == 0)
+            return state.gate >= 0 && state.gateUp;
+        Row r = row(state, row);
+        return r != null && (r.faceUp & (1L << col)) != 0;
+    }
+
+    @Override
+    public int getGatesLeft()
+    {
+        return rules.getGateCards() - state.gatesUsed;
+    }
+
+    @Override
+    public RuleSet getRules()
+    {
+        return rules;
+    }
+
+    @Override
+    public int getMisfortuneRow()
+    {
+        return state.misfortuneRow;
+    }
+
+    @Override
+    public int getMisfortuneCol()
+    {
+        return state.misfortuneCol;
+    }
+
+    /**
+     * A state of a PersistentBoard, which never changes.
+     * Snapshots are only made by boards, and are handed back to restore(Snapshot)
+     * or PersistentBoard(Snapshot) to go back to them.
+     */
+    public static final class Snapshot
+    {
+        private final Tape tape;
+        //how far along the tape the snapshot has drawn
+        private final int drawn;
+        //the last row dealt, or null if only the gate card is down
+        private final Row top;
+        private final int rowCount;
+        //the code of the gate card, or -1 if there is none left
+        private final int gate;
+        private final boolean gateUp;
+        private final int gatesUsed;
+        private final int misfortuneRow;
+        private final int misfortuneCol;
+
+        private Snapshot(Tape tape, int drawn, Row top, int rowCount, int gate, boolean gateUp, int gatesUsed,
+                         int misfortuneRow, int misfortuneCol)
+        {
+            this.tape = tape;
+            this.drawn = drawn;
+            this.top = top;
+            this.rowCount = rowCount;
+            this.gate = gate;
+            this.gateUp = gateUp;
+            this.gatesUsed = gatesUsed;
+            this.misfortuneRow = misfortuneRow;
+            this.misfortuneCol = misfortuneCol;
+        }
+
+        /**
+         * Gets the number of rows dealt, counting the gate card's.
+         * @return the number of rows on the board
+         */
+        public int getRowCount()
+        {
+            return rowCount;
+        }
+
+        /**
+         * Gets the number of gate cards that have been used.
+         * @return the number of saves tried
+         */
+        public int getGatesUsed()
+        {
+            return gatesUsed;
+        }
+
+        /**
+         * Gets the number of the game the snapshot was taken of.
+         * @return the game's number, the same for every snapshot of the game
+         */
+        public long getGame()
+        {
+            return tape.game;
+        }
+    }
+
+    /*
+        A dealt row, which never changes, on top of the rows dealt before it.
+     */
+    private static final class Row
+    {
+        private final byte[] codes;
+        private final long faceUp;
+        private final int value;
+        private final int knights;
+        private final Row below;
+
+        private Row(byte[] codes, long faceUp, int value, int knights, Row below)
+        {
+            this.codes = codes;
+            this.faceUp = faceUp;
+            this.value = value;
+            this.knights = knights;
+            this.below = below;
+        }
+    }
+
+    /*
+        Every card drawn from the deck in one game, in the order they were drawn.
+        Cards are only ever added, so a snapshot's place on the tape always means the same cards.
+     */
+    private static final class Tape
+    {
+        private final long game;
+        private final RuleSet rules;
+        private final Deck deck;
+        private final int[] codes;
+        private int size;
+
+        private Tape(RuleSet rules, Deck deck)
+        {
+            game = GAMES.getAndIncrement();
+            this.rules = rules;
+            this.deck = deck;
+            codes = new int[rules.getCardsNeeded()];
+        }
+
+        /*
+            The card at a place on the tape, drawing from the deck up to it if need be.
+         */
+        private int code(int index)
+        {
+            while (size <= index)
+                codes[size++] = deck.drawCode();
+            return codes[index];
+        }
+    }
+}
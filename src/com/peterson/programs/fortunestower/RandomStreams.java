@@ -0,0 +1,82 @@
+package com.peterson.programs.fortunestower;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Independent streams of random numbers, all derived from one seed.
+ * Stream n is always made the same way from the seed and n, no matter
+ * which thread asks for it or in what order, so work that is split into
+ * numbered pieces, each dealt from its own stream, comes out the same
+ * however the pieces are spread over threads.
+ * The streams are L64X128MixRandom generators, which are not shared
+ * between threads and so never contend the way one Random does.
+ * A RandomStreams is immutable and thread safe; the generators it
+ * makes are not, so each should stay on one thread.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class RandomStreams
+{
+    /**
+     * The algorithm of every stream.
+     */
+    public static final String ALGORITHM = "L64X128MixRandom";
+
+    private static final RandomGeneratorFactory<RandomGenerator> FACTORY = RandomGeneratorFactory.of(ALGORITHM);
+
+    //the odd constant of SplitMix64, spreads consecutive indexes over the seeds
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    /**
+     * Creates streams from a seed picked at random.
+     * Use getSeed() to find out what it was, to make the same streams again.
+     */
+    public RandomStreams()
+    {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates streams from a seed.
+     * @param seed the seed every stream is derived from
+     */
+    public RandomStreams(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * Makes the generator of a stream.
+     * Every call with the same index makes a generator that gives the same numbers.
+     * @param index which stream
+     * @return a new generator at the start of the stream
+     */
+    public RandomGenerator stream(long index)
+    {
+        return FACTORY.create(mix(seed + index * GOLDEN_GAMMA));
+    }
+
+    /**
+     * Gets the seed the streams are derived from.
+     * @return the seed
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /*
+        The finalizer of SplitMix64, so nearby seeds and indexes give unrelated streams.
+     */
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,327 @@
+package com.peterson.programs.fortunestower;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * The rules of a variant of Fortune's Tower.
+ * A rule set gives the number of levels in the tower, counting the gate card's,
+ * the number of knights in a deck, the highest value of a number card,
+ * the number of gate cards, what a knight adds to the value of a row,
+ * and the number of decks shuffled together into the shoe the cards are dealt from.
+ * The standard game is STANDARD: 8 levels, 4 knights, cards of 1 to 7,
+ * one gate card, knights worth 0, and one deck.
+ * Every rule set still has misfortunes from the fourth level on, rows with a knight
+ * immune to them, and a game ended by a save that fails.
+ * Everything the boards look up is worked out when the rule set is made,
+ * so a board playing a variant does the same work as one playing the standard game.
+ * A rule set is immutable and can be shared by any number of boards and threads.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public final class RuleSet
+{
+    /**
+     * The system property naming a properties file of rules to play by.
+     */
+    public static final String PROPERTY = "fortunestower.rules";
+
+    /**
+     * The fewest levels a tower can have.
+     */
+    public static final int MIN_LEVELS = 3;
+
+    /**
+     * The most levels a tower can have. Only a TallBoard plays towers this tall;
+     * the other boards keep every place in a 64-bit mask and stop at 10 levels or fewer.
+     */
+    public static final int MAX_LEVELS = 4096;
+
+    /**
+     * The most gate cards a game can have.
+     */
+    public static final int MAX_GATES = 3;
+
+    /**
+     * The rules of the standard game.
+     */
+    public static final RuleSet STANDARD = new RuleSet(8, 4, Card.MAX_VALUE, 1, 0);
+
+    private final int levels;
+    private final int knights;
+    private final int maxValue;
+    private final int gateCards;
+    private final int knightValue;
+    private final int decks;
+
+    //the value a card adds to a row, by card code
+    private final int[] values;
+    //the place of the first card of each row, numbered row by row from the gate card
+    private final int[] rowStart;
+    private final int slots;
+    private final int cardsNeeded;
+    private final int maxPayout;
+
+    /**
+     * Creates a rule set.
+     * @param levels the number of levels in the tower, counting the gate card's
+     * @param knights the number of knights in a deck
+     * @param maxValue the highest value of a number card, from 1 to Card.MAX_VALUE
+     * @param gateCards the number of gate cards, each of which can make one save
+     * @param knightValue what a knight adds to the value of a row, from 0 to Card.MAX_VALUE
+     * @throws IllegalArgumentException if a rule is out of range
+     */
+    public RuleSet(int levels, int knights, int maxValue, int gateCards, int knightValue)
+    {
+        this(levels, knights, maxValue, gateCards, knightValue, 1);
+    }
+
+    /**
+     * Creates a rule set dealt from a shoe of several decks.
+     * @param levels the number of levels in the tower, counting the gate card's
+     * @param knights the number of knights in each deck
+     * @param maxValue the highest value of a number card, from 1 to Card.MAX_VALUE
+     * @param gateCards the number of gate cards, each of which can make one save
+     * @param knightValue what a knight adds to the value of a row, from 0 to Card.MAX_VALUE
+     * @param decks the number of decks in the shoe
+     * @throws IllegalArgumentException if a rule is out of range
+     */
+    public RuleSet(int levels, int knights, int maxValue, int gateCards, int knightValue, int decks)
+    {
+        if (levels < MIN_LEVELS || levels > MAX_LEVELS)
+            throw new IllegalArgumentException("A tower has " + MIN_LEVELS + " to " + MAX_LEVELS + " levels");
+        if (knights < 0)
+            throw new IllegalArgumentException("The number of knights can't be negative");
+        if (maxValue < 1 || maxValue > Card.MAX_VALUE)
+            throw new IllegalArgumentException("Number cards go up to 1 to " + Card.MAX_VALUE);
+        if (gateCards < 1 || gateCards > MAX_GATES)
+            throw new IllegalArgumentException("A game has 1 to " + MAX_GATES + " gate cards");
+        if (knightValue < 0 || knightValue > Card.MAX_VALUE)
+            throw new IllegalArgumentException("A knight is worth 0 to " + Card.MAX_VALUE);
+        if (decks < 1)
+            throw new IllegalArgumentException("A shoe has at least one deck");
+
+        this.levels = levels;
+        this.knights = knights;
+        this.maxValue = maxValue;
+        this.gateCards = gateCards;
+        this.knightValue = knightValue;
+        this.decks = decks;
+
+        values = new int[Card.MAX_VALUE + 1];
+        values[0] = knightValue;
+        for (int i = 1; i < values.length; i++)
+            values[i] = i;
+
+        rowStart = new int[levels];
+        for (int i = 1; i < levels; i++)
+            rowStart[i] = rowStart[i - 1] + i;
+        slots = levels * (levels + 1) / 2;
+        cardsNeeded = slots - 1 + gateCards;
+        maxPayout = Math.max(maxValue, knightValue) * slots + 1;
+    }
+
+    /**
+     * Reads a rule set from properties.
+     * The keys are levels, knights, maxValue, gateCards, knightValue and decks;
+     * any that are missing are the standard rule.
+     * @param properties the rules
+     * @return the rule set
+     * @throws IllegalArgumentException if a rule is not a number or is out of range
+     */
+    public static RuleSet load(Properties properties)
+    {
+        return new RuleSet(
+                rule(properties, "levels", STANDARD.levels),
+                rule(properties, "knights", STANDARD.knights),
+                rule(properties, "maxValue", STANDARD.maxValue),
+                rule(properties, "gateCards", STANDARD.gateCards),
+                rule(properties, "knightValue", STANDARD.knightValue),
+                rule(properties, "decks", STANDARD.decks));
+    }
+
+    /**
+     * Reads a rule set from a properties file.
+     * @param file the file of rules, see load(Properties)
+     * @return the rule set
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if a rule is not a number or is out of range
+     */
+    public static RuleSet load(Path file) throws IOException
+    {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(file))
+        {
+            properties.load(in);
+        }
+        return load(properties);
+    }
+
+    /**
+     * Gets the rule set named by the fortunestower.rules system property.
+     * @return the rules in the file the property names, or STANDARD if it isn't set
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if a rule is not a number or is out of range
+     */
+    public static RuleSet fromSystemProperty() throws IOException
+    {
+        String file = System.getProperty(PROPERTY);
+        return file == null ? STANDARD : load(Path.of(file));
+    }
+
+    /*
+        Reads one rule, or the standard one if it isn't there.
+     */
+    private static int rule(Properties properties, String key, int standard)
+    {
+        String value = properties.getProperty(key);
+        if (value == null)
+            return standard;
+        try
+        {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("The rule " + key + " is not a number: " + value, e);
+        }
+    }
+
+    /**
+     * Gets the value a card adds to a row.
+     * @param code the code of the card, which is its value, or 0 for a knight
+     * @return the card's value under these rules
+     */
+    public int value(int code)
+    {
+        return values[code];
+    }
+
+    /**
+     * Gets the place of a card, numbered row by row from the gate card.
+     * @param row the row of the card
+     * @param col the column of the card, from 0 to row
+     * @return the place, from 0 to getSlots() - 1
+     */
+    public int slot(int row, int col)
+    {
+        return rowStart[row] + col;
+    }
+
+    /**
+     * Gets the cards of the shoe, counted by code, the same cards Deck makes:
+     * in each deck the knights first, then number cards of 1 to getMaxValue() over and over.
+     * @param deckSize the number of cards in each deck
+     * @return a new array of the number of cards of each code
+     */
+    public int[] composition(int deckSize)
+    {
+        int[] counts = new int[Card.MAX_VALUE + 1];
+        counts[0] = Math.min(knights, deckSize);
+        for (int i = 0; i < deckSize - knights; i++)
+            counts[(i % maxValue) + 1]++;
+        for (int i = 0; i < counts.length; i++)
+            counts[i] *= decks;
+        return counts;
+    }
+
+    /**
+     * Gets the number of levels in the tower, counting the gate card's.
+     * @return the number of levels
+     */
+    public int getLevels()
+    {
+        return levels;
+    }
+
+    public int getKnights()
+    {
+        return knights;
+    }
+
+    public int getMaxValue()
+    {
+        return maxValue;
+    }
+
+    public int getGateCards()
+    {
+        return gateCards;
+    }
+
+    public int getKnightValue()
+    {
+        return knightValue;
+    }
+
+    /**
+     * Gets the number of decks shuffled together into the shoe.
+     * @return the number of decks, 1 for a single deck
+     */
+    public int getDecks()
+    {
+        return decks;
+    }
+
+    /**
+     * Gets the number of places on the board.
+     * @return the number of places, counting one for the gate card
+     */
+    public int getSlots()
+    {
+        return slots;
+    }
+
+    /**
+     * Gets the number of cards a game can deal, every gate card and every place but the gate's.
+     * @return the fewest cards a deck must have
+     */
+    public int getCardsNeeded()
+    {
+        return cardsNeeded;
+    }
+
+    /**
+     * Gets a bound on what a game can pay, for sizing tables of payouts.
+     * @return more than any payout of these rules
+     */
+    public int getMaxPayout()
+    {
+        return maxPayout;
+    }
+
+    /**
+     * Determines if these are the rules of the standard game.
+     * @return true if this rule set equals STANDARD
+     */
+    public boolean isStandard()
+    {
+        return equals(STANDARD);
+    }
+
+    public boolean equals(Object o)
+    {
+        if (!(o instanceof RuleSet))
+            return false;
+        RuleSet other = (RuleSet) o;
+        return levels == other.levels && knights == other.knights && maxValue == other.maxValue
+                && gateCards == other.gateCards && knightValue == other.knightValue && decks == other.decks;
+    }
+
+    public int hashCode()
+    {
+        return Arrays.hashCode(new int[]{levels, knights, maxValue, gateCards, knightValue, decks});
+    }
+
+    public String toString()
+    {
+        String rules = String.format("%d levels, %d knights, cards of 1-%d, %d gate card%s, knights worth %d",
+                levels, knights, maxValue, gateCards, gateCards == 1 ? "" : "s", knightValue);
+        return decks == 1 ? rules : rules + ", a shoe of " + decks + " decks";
+    }
+}
@@ -0,0 +1,112 @@
+package com.peterson.programs.fortunestower;
+
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of GameSessions of one deck size, kind of board and rule set,
+ * for drivers that play games on many threads.
+ * A thread acquires a session, plays as many games on it as it likes,
+ * and releases it for the next thread. Sessions are made when the
+ * pool is empty, and sessions released to a full pool are dropped, so
+ * the pool never holds more than its capacity of idle sessions.
+ * The pool is thread safe, and acquiring and releasing allocate nothing
+ * once there are enough sessions.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class SessionPool
+{
+    private final int deckSize;
+    private final BoardType boardType;
+    private final RuleSet rules;
+    private final BlockingQueue<GameSession> idle;
+    private final AtomicLong created;
+
+    /**
+     * Creates a pool that keeps up to one idle session per core.
+     * @param deckSize the number of cards in each deck. Use the constants from the Deck class
+     *                 for the standard sizes.
+     * @param boardType the kind of board to play on
+     */
+    public SessionPool(int deckSize, BoardType boardType)
+    {
+        this(deckSize, boardType, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a pool.
+     * @param deckSize the number of cards in each deck. Use the constants from the Deck class
+     *                 for the standard sizes.
+     * @param boardType the kind of board to play on
+     * @param capacity the most idle sessions kept
+     */
+    public SessionPool(int deckSize, BoardType boardType, int capacity)
+    {
+        this(deckSize, boardType, RuleSet.STANDARD, capacity);
+    }
+
+    /**
+     * Creates a pool of sessions of a variant.
+     * @param deckSize the number of cards in each deck
+     * @param boardType the kind of board to play on
+     * @param rules the rules of the variant
+     * @param capacity the most idle sessions kept
+     */
+    public SessionPool(int deckSize, BoardType boardType, RuleSet rules, int capacity)
+    {
+        this.deckSize = deckSize;
+        this.boardType = boardType;
+        this.rules = rules;
+        idle = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        created = new AtomicLong();
+    }
+
+    /**
+     * Takes an idle session, or makes one if there are none.
+     * @return a session only the caller is using
+     */
+    public GameSession acquire()
+    {
+        GameSession session = idle.poll();
+        if (session != null)
+            return session;
+
+        created.incrementAndGet();
+        return new GameSession(deckSize, boardType, rules, new Random());
+    }
+
+    /**
+     * Gives a session back to the pool. It must not be used after this.
+     * @param session a session acquired from this pool
+     * @throws IllegalArgumentException if the session has a different deck size, kind of board or rule set
+     */
+    public void release(GameSession session)
+    {
+        if (session.getDeckSize() != deckSize || session.getBoardType() != boardType
+                || !session.getRules().equals(rules))
+            throw new IllegalArgumentException("The session is not from this pool");
+        idle.offer(session);
+    }
+
+    /**
+     * Gets the number of sessions the pool has made.
+     * @return the sessions made, including ones dropped or still acquired
+     */
+    public long getCreated()
+    {
+        return created.get();
+    }
+
+    /**
+     * Gets the number of idle sessions.
+     * @return the sessions waiting to be acquired
+     */
+    public int getIdle()
+    {
+        return idle.size();
+    }
+}
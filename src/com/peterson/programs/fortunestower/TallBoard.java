@@ -0,0 +1,334 @@
+package com.peterson.programs.fortunestower;
+
+import com.peterson.programs.fortunestower.metrics.EngineEvents;
+
+/**
+ * An implementation of Board for towers of hundreds of levels.
+ * Every place on the board holds its card code in one flat byte array,
+ * numbered row by row from the gate card, and which places are face up
+ * is kept in a bitset of the same numbering, so the board takes a byte and a bit a card.
+ * The value of each row and the number of knights in it are kept as the row is dealt,
+ * so dealing and checking a row for a misfortune take time linear in the row,
+ * and looking up its value takes constant time.
+ * Only the rows below the next row to deal count as dealt, so reset() doesn't
+ * clear anything: the rows it leaves behind are written over as they are dealt again.
+ * This board behaves exactly like Board2D, and plays any RuleSet up to RuleSet.MAX_LEVELS.
+ * The cards handed out by getCardsInRow(int) are the shared Cards for the codes,
+ * in a new array.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class TallBoard implements Board
+{
+    private final RuleSet rules;
+    private final int levels;
+    //the card code of every place, row by row from the gate card
+    private final byte[] codes;
+    //the face up bit of every place, in the same order as codes
+    private final long[] faceUp;
+    private final int[] rowValues;
+    private final int[] rowKnights;
+    private final int[] gateCodes;
+    private int gatesUsed;
+    private boolean gateDealt;
+    private Deck deck;
+
+    private int nextRow;
+    private int potentialMisfortuneRow;
+    private int potentialMisfortuneCol;
+
+    /**
+     * Constructs the Game board.
+     * The game board will use the reference of
+     * the deck passed in to draw cards from.
+     *
+     * @param deckRef the reference to the deck to use in the game
+     */
+    public TallBoard(Deck deckRef)
+    {
+        this(deckRef, RuleSet.STANDARD);
+    }
+
+    /**
+     * Constructs the Game board of a variant.
+     *
+     * @param deckRef the reference to the deck to use in the game
+     * @param rules the rules of the variant
+     */
+    public TallBoard(Deck deckRef, RuleSet rules)
+    {
+        deck = deckRef;
+        this.rules = rules;
+        levels = rules.getLevels();
+        codes = new byte[rules.getSlots()];
+        faceUp = new long[(codes.length + 63) >>> 6];
+        rowValues = new int[levels];
+        rowKnights = new int[levels];
+        gateCodes = new int[rules.getGateCards()];
+        dealFirstRows();
+    }
+
+    /*
+        The gate card is face down, the second row is face up.
+        Any other gate cards are dealt after the first.
+     */
+    private void dealFirstRows()
+    {
+        for (int i = 0; i < gateCodes.length; i++)
+            gateCodes[i] = deck.drawCode();
+        gatesUsed = 0;
+        placeGate(gateCodes[0]);
+        nextRow = 1;
+        deal();
+
+        potentialMisfortuneRow = -1;
+        potentialMisfortuneCol = -1;
+    }
+
+    @Override
+    public void reset()
+    {
+        dealFirstRows();
+    }
+
+    /*
+        Puts a gate card face down in the gate's place.
+     */
+    private void placeGate(int code)
+    {
+        codes[0] = (byte) code;
+        setFaceUp(0, false);
+        gateDealt = true;
+        rowValues[0] = rules.value(code);
+        rowKnights[0] = code == 0 ? 1 : 0;
+    }
+
+    private void setFaceUp(int slot, boolean up)
+    {
+        if (up)
+            faceUp[slot >>> 6] |= 1L << slot;
+        else
+            faceUp[slot >>> 6] &= ~(1L << slot);
+    }
+
+    /*
+        Deals the next row face up, adding up its value and knights as it goes.
+     */
+    private void deal()
+    {
+        int start = rules.slot(nextRow, 0);
+        int value = 0;
+        int knights = 0;
+        for (int i = start; i <= start + nextRow; i++)
+        {
+            int code = deck.drawCode();
+            codes[i] = (byte) code;
+            setFaceUp(i, true);
+            value += rules.value(code);
+            if (code == 0)
+                knights++;
+        }
+        rowValues[nextRow] = value;
+        rowKnights[nextRow] = knights;
+        nextRow++;
+    }
+
+    public String toString()
+    {
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < levels; i++)
+        {
+            for (int j = 0; j <= i; j++)
+            {
+                if (i >= nextRow || (i == 0 && !gateDealt))
+                    b.append("*");
+                else if (i == 0)
+                    b.append("?");
+                else if (codes[rules.slot(i, j)] == 0)
+                    b.append("Knight");
+                else
+                    b.append(codes[rules.slot(i, j)]);
+                b.append(" ");
+            }
+            b.append("\n");
+        }
+        return b.toString();
+    }
+
+    @Override
+    public void nextRow()
+    {
+        long start = EngineEvents.dealStarted();
+        deal();
+        if (start != 0)
+            EngineEvents.rowDealt(start, nextRow - 1, rowValue(nextRow - 1));
+    }
+
+    @Override
+    public boolean isComplete()
+    {
+        return nextRow == levels;
+    }
+
+    @Override
+    public void flipGateCard()
+    {
+        //cant flip nothing...
+        if (gateDealt)
+            faceUp[0] ^= 1L;
+    }
+
+    @Override
+    public int rowValue(int rowNum)
+    {
+        if (rowNum < 0 || rowNum >= nextRow || (rowNum == 0 && !gateDealt))
+            return -1;
+        return rowValues[rowNum];
+    }
+
+    @Override
+    public int lastRowValue()
+    {
+        return rowValue(nextRow - 1);
+    }
+
+    @Override
+    public boolean misFortune()
+    {
+        //if its the first two rows
+        //then a misfortune CANNOT happen
+        if (nextRow - 1 <= 2)
+            return false;
+
+        int rowCurr = nextRow - 1;
+        if (rowKnights[rowCurr] != 0)
+            return false;
+
+        int parent = rules.slot(rowCurr - 1, 0);
+        int child = rules.slot(rowCurr, 0);
+        for (int i = 0; i < rowCurr; i++)
+        {
+            //the left child first, then the right
+            if (codes[parent + i] == codes[child + i])
+            {
+                potentialMisfortuneRow = rowCurr;
+                potentialMisfortuneCol = i;
+                return true;
+            }
+            if (codes[parent + i] == codes[child + i + 1])
+            {
+                potentialMisfortuneRow = rowCurr;
+                potentialMisfortuneCol = i + 1;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void trySave()
+    {
+        //dont do anything if the value hasn't been set
+        if (potentialMisfortuneCol < 0)
+            return;
+        //if the gate card hasn't been used
+        if (gateDealt)
+        {
+            int gate = codes[0];
+            boolean up = (faceUp[0] & 1L) == 0;
+            int slot = rules.slot(potentialMisfortuneRow, potentialMisfortuneCol);
+            int old = codes[slot];
+            codes[slot] = (byte) gate;
+            setFaceUp(slot, up);
+            rowValues[potentialMisfortuneRow] += rules.value(gate) - rules.value(old);
+            rowKnights[potentialMisfortuneRow] += (gate == 0 ? 1 : 0) - (old == 0 ? 1 : 0);
+
+            //the next gate card, if there is one, takes the place of the one used
+            gatesUsed++;
+            if (gatesUsed < gateCodes.length)
+                placeGate(gateCodes[gatesUsed]);
+            else
+            {
+                gateDealt = false;
+                setFaceUp(0, false);
+            }
+        }
+    }
+
+    @Override
+    public boolean hitJackpot()
+    {
+        return isComplete() && gatesUsed == 0;
+    }
+
+    @Override
+    public int jackpotValue()
+    {
+        if (!hitJackpot())
+            return 0;
+
+        int value = 0;
+        for (int i = 0; i < levels; i++)
+        {
+            value += rowValue(i);
+        }
+
+        return value;
+    }
+
+    @Override
+    public Card[] getCardsInRow(int rowNumber)
+    {
+        if (rowNumber < 0 || rowNumber >= levels)
+            return null;
+
+        Card[] cards = new Card[rowNumber + 1];
+        if (rowNumber >= nextRow || (rowNumber == 0 && !gateDealt))
+            return cards;
+        int start = rules.slot(rowNumber, 0);
+        for (int i = 0; i < cards.length; i++)
+            cards[i] = Card.valueOf(codes[start + i]);
+        return cards;
+    }
+
+    @Override
+    public Card[] getLastRow()
+    {
+        return getCardsInRow(nextRow - 1);
+    }
+
+    @Override
+    public boolean isFaceUp(int row, int col)
+    {
+        if (row < 0 || row >= nextRow || col < 0 || col > row || (row == 0 && !gateDealt))
+            return false;
+        int slot = rules.slot(row, col);
+        return (faceUp[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    @Override
+    public int getGatesLeft()
+    {
+        return gateCodes.length - gatesUsed;
+    }
+
+    @Override
+    public RuleSet getRules()
+    {
+        return rules;
+    }
+
+    @Override
+    public int getMisfortuneRow()
+    {
+        return potentialMisfortuneRow;
+    }
+
+    @Override
+    public int getMisfortuneCol()
+    {
+        return potentialMisfortuneCol;
+    }
+}
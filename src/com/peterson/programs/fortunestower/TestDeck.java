@@ -1,8 +1,11 @@
 package com.peterson.programs.fortunestower;
 
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
 /**
  * A concrete subclass of Deck.
- * All the card will have a face and a value.
+ * All the cards are the shared Cards, with a face and a value.
  * @author Peterson, Ryan
  *         Created 7/22/2014
  */
@@ -14,15 +17,23 @@ public class TestDeck extends Deck
         super(numCards);
     }
 
-    @Override
-    protected Card makeKnight()
+    /**
+     * Creates a TestDeck that is always shuffled the same way for a seed.
+     * @param numCards the number of cards in the deck
+     * @param seed the seed of the shuffle
+     */
+    public TestDeck(int numCards, long seed)
     {
-        return new Card(0, Face.KNIGHT);
+        super(numCards, new Random(seed));
     }
 
-    @Override
-    protected Card makeNumber(int value)
+    /**
+     * Creates a TestDeck shuffled with the given source of randomness.
+     * @param numCards the number of cards in the deck
+     * @param random the randomness used to shuffle the deck
+     */
+    public TestDeck(int numCards, RandomGenerator random)
     {
-        return new Card(value, Face.NORMAL);
+        super(numCards, random);
     }
 }
@@ -1,5 +1,9 @@
 package com.peterson.programs.fortunestower;
 
+import com.peterson.programs.fortunestower.metrics.EngineEvents;
+
+import java.util.Arrays;
+
 /**
  * A "Tree Like" implementation of Board.
  * In order to provide quick access to
@@ -7,7 +11,8 @@ package com.peterson.programs.fortunestower;
  * so a real tree board is not recommended.
  * The nodes of this tree store references
  * to other nodes, but still follow the ragged
- * 2-D array of Board2D.
+ * 2-D array of Board2D, including the mask
+ * of which cards are face up.
  *
  * @author Peterson, Ryan
  *         Created 8/9/2014
@@ -18,6 +23,7 @@ public class TreeBoard implements Board
     private static final int NUM_ROWS = 8;
 
     private BoardNode[][] board;
+    private long faceUp;
     private Deck deck;
     private int nextRow;
 
@@ -32,21 +38,41 @@ public class TreeBoard implements Board
         for (int i = 0; i < NUM_ROWS; i++)
             board[i] = new BoardNode[i + 1];
 
+        dealFirstRows();
+    }
+
+    private void dealFirstRows()
+    {
         board[0][0] = new BoardNode(deck.draw());
-        board[1][0] = new BoardNode(deck.draw(), true);
-        board[1][1] = new BoardNode(deck.draw(), true);
+        board[1][0] = new BoardNode(deck.draw());
+        board[1][1] = new BoardNode(deck.draw());
+        faceUp = bit(1, 0) | bit(1, 1);
         nextRow = 2;
         misfortuneRow = -1;
         misfortuneCol = -1;
     }
 
+    /**
+     * Takes every card off the board and deals the first two rows again.
+     * New nodes are still made for every card dealt.
+     */
+    @Override
+    public void reset()
+    {
+        for (int i = 2; i < NUM_ROWS; i++)
+            Arrays.fill(board[i], null);
+        dealFirstRows();
+    }
+
 
     @Override
     public void nextRow()
     {
+        long start = EngineEvents.dealStarted();
         for (int i = 0; i < board[nextRow].length; i++)
         {
-            board[nextRow][i] = new BoardNode(deck.draw(), true);
+            board[nextRow][i] = new BoardNode(deck.draw());
+            faceUp |= bit(nextRow, i);
             if (i < board[nextRow - 1].length)
                 board[nextRow - 1][i].left = board[nextRow][i];
             if (i + 1 < board[nextRow].length)
@@ -54,6 +80,8 @@ public class TreeBoard implements Board
         }
 
         nextRow++;
+        if (start != 0)
+            EngineEvents.rowDealt(start, nextRow - 1, rowValue(nextRow - 1));
     }
 
     @Override
@@ -66,12 +94,16 @@ public class TreeBoard implements Board
     public void flipGateCard()
     {
         if (board[0][0] != null)
-            board[0][0].card.flip();
+            faceUp ^= 1L;
     }
 
     @Override
     public int rowValue(int rowNum)
     {
+        //the same as Board2D; rows that aren't there have a value of -1
+        if (rowNum < 0 || rowNum >= NUM_ROWS || board[rowNum][0] == null)
+            return -1;
+
         int value = 0;
         for (int i = 0; i < board[rowNum].length; i++)
             value += board[rowNum][i].card.getValue();
@@ -126,7 +158,12 @@ public class TreeBoard implements Board
         if (board[0][0] != null)
         {
             Card temp = board[0][0].card;
-            temp.flip();
+            long target = bit(misfortuneRow, misfortuneCol);
+            if ((faceUp & 1L) == 0)
+                faceUp |= target;
+            else
+                faceUp &= ~target;
+            faceUp &= ~1L;
             board[0][0] = null;
             board[misfortuneRow][misfortuneCol].card = temp;
         }
@@ -146,7 +183,7 @@ public class TreeBoard implements Board
 
         int value = 0;
         for (int i = 0; i < board.length; i++)
-            value += rowValue(i + 1);
+            value += rowValue(i);
 
         return value;
     }
@@ -154,9 +191,13 @@ public class TreeBoard implements Board
     @Override
     public Card[] getCardsInRow(int rowNumber)
     {
+        //the same as Board2D; no row for rows that aren't there, and no cards for places not dealt
+        if (rowNumber < 0 || rowNumber >= NUM_ROWS)
+            return null;
+
         Card[] cards = new Card[board[rowNumber].length];
         for (int i = 0; i < cards.length; i++)
-            cards[i] = board[rowNumber][i].card;
+            cards[i] = board[rowNumber][i] == null ? null : board[rowNumber][i].card;
         return cards;
     }
 
@@ -169,12 +210,56 @@ public class TreeBoard implements Board
         return false;
     }
 
+    @Override
+    public int getGatesLeft()
+    {
+        return board[0][0] == null ? 0 : 1;
+    }
+
+    /**
+     * Gets the rules of the board, which are always the standard rules.
+     * @return RuleSet.STANDARD
+     */
+    @Override
+    public RuleSet getRules()
+    {
+        return RuleSet.STANDARD;
+    }
+
+    @Override
+    public int getMisfortuneRow()
+    {
+        return misfortuneRow;
+    }
+
+    @Override
+    public int getMisfortuneCol()
+    {
+        return misfortuneCol;
+    }
+
     @Override
     public Card[] getLastRow()
     {
         return getCardsInRow(nextRow - 1);
     }
 
+    @Override
+    public boolean isFaceUp(int row, int col)
+    {
+        if (row < 0 || row >= NUM_ROWS || col < 0 || col > row || board[row][col] == null)
+            return false;
+        return (faceUp & bit(row, col)) != 0;
+    }
+
+    /*
+        The bit of a place on the board in the face up mask, as in Board2D.
+     */
+    private static long bit(int row, int col)
+    {
+        return 1L << (row * (row + 1) / 2 + col);
+    }
+
     public String toString()
     {
         StringBuilder b = new StringBuilder();
@@ -184,10 +269,11 @@ public class TreeBoard implements Board
             {
                 if (board[i][j] == null)
                     b.append("*");
-                else if (!board[i][j].card.isFaceUp())
+                else if (i == 0 && j == 0)
                     b.append("?");
                 else
-                    b.append(board[i][j]).append(" ");
+                    b.append(board[i][j]);
+                b.append(" ");
             }
             b.append("\n");
         }
@@ -205,13 +291,6 @@ public class TreeBoard implements Board
             card = c;
         }
 
-        public BoardNode(Card c, boolean flip)
-        {
-            this(c);
-            if (flip)
-                card.flip();
-        }
-
         public String toString()
         {
             return card.toString();
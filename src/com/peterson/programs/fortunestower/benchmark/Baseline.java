@@ -0,0 +1,134 @@
+package com.peterson.programs.fortunestower.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results that later runs are checked against.
+ * The file has a line for each benchmark, with its name, nanoseconds per operation
+ * and bytes per operation separated by spaces. Lines starting with # are comments.
+ * A result is a regression if it allocates more than the baseline,
+ * or is slower by more than the time tolerance.
+ * Allocation is the same on any machine, so it is checked closely;
+ * time only means something on the machine the baseline was made on.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class Baseline
+{
+    /**
+     * The name of the baseline kept next to this class.
+     */
+    public static final String FILE = "baseline.txt";
+
+    /*
+        Allowed growth before a result is a regression. A few bytes are
+        allowed on top, for allocations that only happen some of the time.
+     */
+    private static final double ALLOCATION_TOLERANCE = 0.10;
+    private static final double ALLOCATION_SLACK = 16;
+
+    private final Map<String, double[]> results;
+    private final double timeTolerance;
+
+    /**
+     * Creates an empty baseline.
+     * @param timeTolerance how much slower a result can be before it is a regression,
+     *                      0.25 being 25% slower
+     */
+    public Baseline(double timeTolerance)
+    {
+        results = new LinkedHashMap<>();
+        this.timeTolerance = timeTolerance;
+    }
+
+    /**
+     * Reads a baseline.
+     * @param in the baseline to read, which is closed after reading
+     * @throws IOException if it can't be read
+     */
+    public void read(InputStream in) throws IOException
+    {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+
+                String[] parts = line.split("\\s+");
+                if (parts.length != 3)
+                    throw new IOException("Bad baseline line: " + line);
+                results.put(parts[0], new double[] {Double.parseDouble(parts[1]), Double.parseDouble(parts[2])});
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Writes results as a baseline.
+     * @param file the file to write
+     * @param list the results to write
+     * @param comment a comment for the top of the file, such as the machine it was made on
+     * @throws IOException if the file can't be written
+     */
+    public static void write(File file, List<BenchmarkRunner.Result> list, String comment) throws IOException
+    {
+        try (PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8.name()))
+        {
+            for (String line : comment.split("\n"))
+                out.println("# " + line);
+            out.println("# name nanosPerOp bytesPerOp");
+            for (BenchmarkRunner.Result r : list)
+                out.printf("%s %.1f %.1f%n", r.getName(), r.getNanosPerOp(), r.getBytesPerOp());
+        }
+    }
+
+    /**
+     * Gets the number of benchmarks in the baseline.
+     * @return the number of results held
+     */
+    public int size()
+    {
+        return results.size();
+    }
+
+    /**
+     * Checks a result against the baseline.
+     * @param result the result to check
+     * @return a description of the regression, or null if there isn't one
+     *         or the benchmark isn't in the baseline
+     */
+    public String check(BenchmarkRunner.Result result)
+    {
+        double[] base = results.get(result.getName());
+        if (base == null)
+            return null;
+
+        StringBuilder b = new StringBuilder();
+        if (result.getNanosPerOp() > base[0] * (1 + timeTolerance))
+            b.append(String.format(" time %.1f ns/op, was %.1f", result.getNanosPerOp(), base[0]));
+
+        double bytes = result.getBytesPerOp();
+        if (!Double.isNaN(bytes) && bytes > base[1] * (1 + ALLOCATION_TOLERANCE) + ALLOCATION_SLACK)
+            b.append(String.format(" allocation %.1f B/op, was %.1f", bytes, base[1]));
+
+        if (b.length() == 0)
+            return null;
+        return result.getName() + ":" + b;
+    }
+}
@@ -0,0 +1,52 @@
+package com.peterson.programs.fortunestower.benchmark;
+
+/**
+ * A piece of code to be timed by the BenchmarkRunner.
+ * run() is one operation and is called over and over;
+ * anything that shouldn't be timed goes in the constructor or setUp().
+ * run() returns a value made from its work so the JIT can't throw the work away.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public abstract class Benchmark
+{
+    private final String name;
+
+    /**
+     * Creates a benchmark.
+     * @param name the name the benchmark is reported and kept in the baseline under
+     */
+    protected Benchmark(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the benchmark.
+     * @return the name of the benchmark
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Prepares for an iteration. Called before every warm up and measured iteration,
+     * and not timed. Does nothing by default.
+     */
+    public void setUp()
+    {
+    }
+
+    /**
+     * Does one operation.
+     * @return any value that depends on the work done
+     */
+    public abstract int run();
+
+    public String toString()
+    {
+        return name;
+    }
+}
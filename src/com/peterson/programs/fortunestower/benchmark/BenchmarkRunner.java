@@ -0,0 +1,254 @@
+package com.peterson.programs.fortunestower.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Times Benchmarks and measures how much they allocate.
+ * Each benchmark is run for a few warm up iterations so the JIT has compiled it,
+ * then for a few measured iterations. Operations are run in batches sized so that
+ * reading the clock costs next to nothing, even for operations of a few nanoseconds.
+ * Allocation is read from the thread's allocation counter, the same count
+ * JMH's GC profiler reports as bytes per operation, and the collections that
+ * ran during the measured iterations are counted too.
+ * Benchmarks are run one at a time on the calling thread.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class BenchmarkRunner
+{
+    /*
+        A batch is grown until it takes at least this long.
+     */
+    private static final long MIN_BATCH_NANOS = 100_000;
+
+    private final int warmups;
+    private final int iterations;
+    private final long iterationMillis;
+
+    private final com.sun.management.ThreadMXBean threads;
+
+    //every result is folded in here, so no work can be thrown away
+    private volatile int sink;
+
+    /**
+     * Creates a runner with 5 warm up and 5 measured iterations of half a second.
+     */
+    public BenchmarkRunner()
+    {
+        this(5, 5, 500);
+    }
+
+    /**
+     * Creates a runner.
+     * @param warmups the number of iterations to run before measuring
+     * @param iterations the number of iterations to measure
+     * @param iterationMillis how long each iteration runs for
+     */
+    public BenchmarkRunner(int warmups, int iterations, long iterationMillis)
+    {
+        this.warmups = warmups;
+        this.iterations = iterations;
+        this.iterationMillis = iterationMillis;
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+        {
+            threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        else
+        {
+            threads = null;
+        }
+    }
+
+    /**
+     * Runs a benchmark.
+     * @param benchmark the benchmark to run
+     * @return the time and allocation of an operation
+     */
+    public Result run(Benchmark benchmark)
+    {
+        int batch = calibrate(benchmark);
+        for (int i = 0; i < warmups; i++)
+            iterate(benchmark, batch);
+
+        double[] nanosPerOp = new double[iterations];
+        long ops = 0;
+        long bytes = 0;
+        long gcs = gcCount();
+        long gcMillis = gcMillis();
+        for (int i = 0; i < iterations; i++)
+        {
+            long before = allocated();
+            long[] iteration = iterate(benchmark, batch);
+            bytes += allocated() - before;
+
+            ops += iteration[0];
+            nanosPerOp[i] = (double) iteration[1] / iteration[0];
+        }
+        gcs = gcCount() - gcs;
+        gcMillis = gcMillis() - gcMillis;
+
+        double bytesPerOp = threads == null ? Double.NaN : (double) bytes / ops;
+        return new Result(benchmark.getName(), nanosPerOp, bytesPerOp, gcs, gcMillis);
+    }
+
+    /*
+        Finds how many operations make a batch.
+     */
+    private int calibrate(Benchmark benchmark)
+    {
+        benchmark.setUp();
+        int batch = 1;
+        int s = 0;
+        while (batch < (1 << 30))
+        {
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; i++)
+                s ^= benchmark.run();
+            if (System.nanoTime() - start >= MIN_BATCH_NANOS)
+                break;
+            batch <<= 1;
+        }
+        sink ^= s;
+        return batch;
+    }
+
+    /*
+        Runs batches for one iteration. Returns the operations run and the nanoseconds taken.
+     */
+    private long[] iterate(Benchmark benchmark, int batch)
+    {
+        benchmark.setUp();
+        int s = 0;
+        long ops = 0;
+        long start = System.nanoTime();
+        long end = start + iterationMillis * 1_000_000L;
+        long now;
+        do
+        {
+            for (int i = 0; i < batch; i++)
+                s ^= benchmark.run();
+            ops += batch;
+            now = System.nanoTime();
+        }
+        while (now < end);
+
+        sink ^= s;
+        return new long[] {ops, now - start};
+    }
+
+    private long allocated()
+    {
+        return threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    static long gcCount()
+    {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            count += Math.max(0, gc.getCollectionCount());
+        return count;
+    }
+
+    static long gcMillis()
+    {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+            time += Math.max(0, gc.getCollectionTime());
+        return time;
+    }
+
+    /**
+     * The measurements of a benchmark.
+     */
+    public static class Result
+    {
+        private final String name;
+        private final double nanosPerOp;
+        private final double error;
+        private final double bytesPerOp;
+        private final long gcs;
+        private final long gcMillis;
+
+        /**
+         * Creates a result.
+         * @param name the name of the benchmark
+         * @param nanosPerOp the time of an operation in each measured iteration
+         * @param bytesPerOp the bytes allocated by an operation, NaN if it couldn't be measured
+         * @param gcs the number of collections during the measured iterations
+         * @param gcMillis the time spent collecting during the measured iterations
+         */
+        public Result(String name, double[] nanosPerOp, double bytesPerOp, long gcs, long gcMillis)
+        {
+            this.name = name;
+            this.bytesPerOp = bytesPerOp;
+            this.gcs = gcs;
+            this.gcMillis = gcMillis;
+
+            double mean = 0;
+            for (double d : nanosPerOp)
+                mean += d;
+            mean /= nanosPerOp.length;
+
+            double variance = 0;
+            for (double d : nanosPerOp)
+                variance += (d - mean) * (d - mean);
+            this.nanosPerOp = mean;
+            this.error = nanosPerOp.length > 1 ? Math.sqrt(variance / (nanosPerOp.length - 1)) : 0;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * Gets the mean time of an operation.
+         * @return nanoseconds per operation
+         */
+        public double getNanosPerOp()
+        {
+            return nanosPerOp;
+        }
+
+        /**
+         * Gets the standard deviation of the time of an operation between iterations.
+         * @return the standard deviation in nanoseconds
+         */
+        public double getError()
+        {
+            return error;
+        }
+
+        /**
+         * Gets the memory allocated by an operation.
+         * @return bytes per operation, or NaN if the JVM can't measure it
+         */
+        public double getBytesPerOp()
+        {
+            return bytesPerOp;
+        }
+
+        public long getGcCount()
+        {
+            return gcs;
+        }
+
+        public long getGcMillis()
+        {
+            return gcMillis;
+        }
+
+        public String toString()
+        {
+            return String.format("%-36s %14.1f +- %-10.1f %12.1f %6d %6d",
+                    name, nanosPerOp, error, bytesPerOp, gcs, gcMillis);
+        }
+    }
+}
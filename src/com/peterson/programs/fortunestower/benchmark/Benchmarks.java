@@ -0,0 +1,359 @@
+package com.peterson.programs.fortunestower.benchmark;
+
+import com.peterson.programs.fortunestower.ArrayDeck;
+import com.peterson.programs.fortunestower.Board;
+import com.peterson.programs.fortunestower.Board2D;
+import com.peterson.programs.fortunestower.BoardType;
+import com.peterson.programs.fortunestower.Card;
+import com.peterson.programs.fortunestower.Deck;
+import com.peterson.programs.fortunestower.GameSession;
+import com.peterson.programs.fortunestower.GameStateCodec;
+import com.peterson.programs.fortunestower.RuleSet;
+import com.peterson.programs.fortunestower.TestDeck;
+import com.peterson.programs.fortunestower.simulation.CashOutStrategy;
+import com.peterson.programs.fortunestower.simulation.GameSimulator;
+import com.peterson.programs.fortunestower.simulation.SimulationStats;
+import com.peterson.programs.fortunestowergame.CardAtlas;
+import com.peterson.programs.fortunestowergame.CardLoader;
+import com.peterson.programs.fortunestowergame.GameBoard;
+import com.peterson.programs.fortunestowergame.ImageCard;
+import com.peterson.programs.fortunestowergame.ImageResizer;
+
+import javax.swing.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The benchmarks of the game.
+ * Decks are made and drawn for each standard size, every kind of Board
+ * is dealt, checked, saved and scored, whole games are played,
+ * towers from the standard height to a thousand levels are dealt a row at a time,
+ * games are checkpointed and put back, and the card images are loaded, resized and mapped.
+ * Every deck is seeded, so the same cards are dealt on every run.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class Benchmarks
+{
+    private static final long SEED = 42;
+
+    private static final int[] DECKS = {Deck.DIAMOND_DECK, Deck.EMERALD_DECK, Deck.RUBY_DECK};
+
+    //the size cards are resized to, which is about what the game uses on a 1080p screen
+    private static final int CARD_WIDTH = 76;
+    private static final int CARD_HEIGHT = 108;
+
+    //the heights of the towers dealt by the tall benchmarks
+    private static final int[] TALL_LEVELS = {8, 64, 256, 1024};
+
+    /**
+     * Gets every benchmark.
+     * @return the benchmarks, grouped by what they measure
+     */
+    public static List<Benchmark> all()
+    {
+        List<Benchmark> list = new ArrayList<>();
+        addDecks(list);
+        for (BoardType type : BoardType.values())
+            addBoards(list, type);
+        for (BoardType type : BoardType.values())
+            list.add(game(type));
+        for (int levels : TALL_LEVELS)
+            list.add(tallRow(levels));
+        addStates(list);
+        addImages(list);
+        return list;
+    }
+
+    /*
+        Making and drawing every standard size of deck.
+     */
+    private static void addDecks(List<Benchmark> list)
+    {
+        for (final int size : DECKS)
+        {
+            list.add(new Benchmark("deck.construct.test." + size)
+            {
+                @Override
+                public int run()
+                {
+                    return new TestDeck(size).hasMoreCards() ? 1 : 0;
+                }
+            });
+
+            list.add(new Benchmark("deck.construct.array." + size)
+            {
+                @Override
+                public int run()
+                {
+                    return new ArrayDeck(size).size();
+                }
+            });
+
+            //a TestDeck can't be put back together, so a new one is made every time
+            list.add(new Benchmark("deck.drawAll.test." + size)
+            {
+                @Override
+                public int run()
+                {
+                    Deck deck = new TestDeck(size);
+                    int sum = 0;
+                    while (deck.hasMoreCards())
+                        sum += deck.draw().getValue();
+                    return sum;
+                }
+            });
+
+            list.add(new Benchmark("deck.drawAll.array." + size)
+            {
+                private final ArrayDeck deck = new ArrayDeck(size, new Random(SEED));
+
+                @Override
+                public int run()
+                {
+                    deck.reset();
+                    int sum = 0;
+                    while (deck.hasMoreCards())
+                        sum += deck.draw().getValue();
+                    return sum;
+                }
+            });
+        }
+    }
+
+    /*
+        The operations of a Board. Dealing and saving start from a new board
+        every time, the rest work on a board that has been dealt to the end.
+     */
+    private static void addBoards(List<Benchmark> list, final BoardType type)
+    {
+        final String prefix = "board." + type.name().toLowerCase() + ".";
+
+        list.add(new Benchmark(prefix + "nextRow")
+        {
+            private final ArrayDeck deck = new ArrayDeck(Deck.DIAMOND_DECK, new Random(SEED));
+
+            @Override
+            public int run()
+            {
+                deck.reset();
+                Board board = type.create(deck);
+                while (!board.isComplete())
+                    board.nextRow();
+                return board.lastRowValue();
+            }
+        });
+
+        list.add(new Benchmark(prefix + "trySave")
+        {
+            private final ArrayDeck deck = new ArrayDeck(Deck.DIAMOND_DECK, new Random(SEED));
+
+            @Override
+            public int run()
+            {
+                deck.reset();
+                Board board = type.create(deck);
+                while (!board.isComplete())
+                {
+                    board.nextRow();
+                    if (board.misFortune())
+                    {
+                        board.trySave();
+                        return board.lastRowValue();
+                    }
+                }
+                return 0;
+            }
+        });
+
+        final Board complete = completeBoard(type);
+        list.add(new Benchmark(prefix + "misFortune")
+        {
+            @Override
+            public int run()
+            {
+                return complete.misFortune() ? 1 : 0;
+            }
+        });
+
+        list.add(new Benchmark(prefix + "rowValue")
+        {
+            @Override
+            public int run()
+            {
+                int sum = 0;
+                for (int i = 1; i < 8; i++)
+                    sum += complete.rowValue(i);
+                return sum;
+            }
+        });
+
+        list.add(new Benchmark(prefix + "jackpotValue")
+        {
+            @Override
+            public int run()
+            {
+                return complete.jackpotValue();
+            }
+        });
+    }
+
+    /*
+        Whole games, played to the end or the second misfortune.
+     */
+    private static Benchmark game(final BoardType type)
+    {
+        return new Benchmark("game." + type.name().toLowerCase())
+        {
+            private final ArrayDeck deck = new ArrayDeck(Deck.DIAMOND_DECK, new Random(SEED));
+            private final GameSimulator simulator = new GameSimulator(CashOutStrategy.NEVER, new SimulationStats());
+
+            @Override
+            public int run()
+            {
+                deck.reset();
+                return simulator.play(type.create(deck)).ordinal();
+            }
+        };
+    }
+
+    /*
+        Dealing a tower of many levels from a shoe of enough diamond decks, one row an operation.
+        Each row is checked for a misfortune, and the board is reset when it is complete,
+        so the time of an operation is the average cost of a row of a tower that tall.
+     */
+    private static Benchmark tallRow(final int levels)
+    {
+        return new Benchmark("tall.row." + levels)
+        {
+            private final GameSession session = new GameSession(Deck.DIAMOND_DECK, BoardType.TALL,
+                    shoe(levels), new Random(SEED));
+            private Board board = session.newGame();
+
+            @Override
+            public int run()
+            {
+                if (board.isComplete())
+                    board = session.newGame();
+                board.nextRow();
+                return board.misFortune() ? 1 : board.lastRowValue();
+            }
+        };
+    }
+
+    /*
+        The standard rules, but with as many levels as asked and a shoe of
+        as many diamond decks as it takes to deal them.
+     */
+    private static RuleSet shoe(int levels)
+    {
+        RuleSet tall = new RuleSet(levels, 4, Card.MAX_VALUE, 1, 0);
+        int decks = (tall.getCardsNeeded() + Deck.DIAMOND_DECK - 1) / Deck.DIAMOND_DECK;
+        return new RuleSet(levels, 4, Card.MAX_VALUE, 1, 0, decks);
+    }
+
+    /*
+        Writing a game half way up the tower to a buffer, and reading it back onto another board.
+     */
+    private static void addStates(List<Benchmark> list)
+    {
+        final GameStateCodec codec = new GameStateCodec(Deck.DIAMOND_DECK);
+        final GameSession game = new GameSession(Deck.DIAMOND_DECK, BoardType.BOARD_2D, new Random(SEED));
+        Board board = game.newGame();
+        while (board.getLastRow().length < Board2D.LAST_LEVEL / 2 + 1)
+            board.nextRow();
+        final ByteBuffer buffer = ByteBuffer.allocate(codec.getBytes());
+        final ByteBuffer written = ByteBuffer.allocate(codec.getBytes());
+        codec.write(game, written);
+
+        list.add(new Benchmark("state.write")
+        {
+            @Override
+            public int run()
+            {
+                buffer.clear();
+                codec.write(game, buffer);
+                return buffer.get(codec.getBytes() - 1);
+            }
+        });
+
+        list.add(new Benchmark("state.read")
+        {
+            private final GameSession restored = new GameSession(Deck.DIAMOND_DECK, BoardType.BOARD_2D,
+                    new Random(SEED));
+
+            @Override
+            public int run()
+            {
+                written.clear();
+                codec.read(written, restored);
+                return restored.getBoard().lastRowValue();
+            }
+        });
+    }
+
+    /*
+        Loading, resizing and mapping the card images.
+     */
+    private static void addImages(List<Benchmark> list)
+    {
+        list.add(new Benchmark("image.loadImages")
+        {
+            private final List<ImageIcon> icons = new ArrayList<>();
+
+            @Override
+            public int run()
+            {
+                CardLoader.loadImages(icons);
+                return icons.size();
+            }
+        });
+
+        list.add(new Benchmark("image.resize")
+        {
+            private final List<ImageIcon> icons = new ArrayList<>();
+
+            @Override
+            public int run()
+            {
+                //new icons every time, so the full size images are the ones resized
+                icons.clear();
+                for (CardLoader.CardSequence card : CardLoader.CardSequence.values())
+                    icons.add(new ImageIcon(CardAtlas.getInstance().getImage(card)));
+                ImageResizer.resize(icons, CARD_WIDTH, CARD_HEIGHT);
+                return icons.get(0).getIconWidth();
+            }
+        });
+
+        list.add(new Benchmark("image.mapRow")
+        {
+            private final GameBoard map = new GameBoard(completeBoard(BoardType.BOARD_2D), CARD_WIDTH, CARD_HEIGHT);
+
+            @Override
+            public int run()
+            {
+                int sum = 0;
+                for (int i = 0; i < 8; i++)
+                {
+                    ImageCard[] row = map.mapRow(i);
+                    sum += row.length;
+                }
+                return sum;
+            }
+        });
+    }
+
+    /*
+        A board dealt to the end without using the gate card.
+     */
+    private static Board completeBoard(BoardType type)
+    {
+        Board board = type.create(new ArrayDeck(Deck.DIAMOND_DECK, new Random(SEED)));
+        while (!board.isComplete())
+            board.nextRow();
+        return board;
+    }
+}
@@ -0,0 +1,145 @@
+package com.peterson.programs.fortunestower.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark runner.
+ * Runs every benchmark whose name starts with one of the arguments,
+ * or all of them if there are none, and checks them against the baseline.
+ * Options:
+ *   -b file   check against this baseline instead of the one next to this class
+ *   -w file   write the results as a new baseline
+ *   -t n      the time tolerance, 0.25 by default
+ *   -q        quick run; one warm up and one measured iteration
+ * The render benchmarks, from RenderHarness, come after the others.
+ * The exit status is 1 if anything regressed, so this can be run before a release.
+ * Run with -Djava.awt.headless=true on machines without a display.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class Main
+{
+    //the render benchmarks are measured in games, about 8 frames each
+    private static final int RENDER_ITERATIONS = 5;
+    private static final int RENDER_GAMES = 400;
+    private static final int RENDER_WARM_UP = 1000;
+
+    public static void main(String[] args) throws IOException
+    {
+        File baselineFile = null;
+        File writeFile = null;
+        double tolerance = 0.25;
+        BenchmarkRunner runner = new BenchmarkRunner();
+        List<String> filters = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++)
+        {
+            switch (args[i])
+            {
+                case "-b":
+                    baselineFile = new File(args[++i]);
+                    break;
+                case "-w":
+                    writeFile = new File(args[++i]);
+                    break;
+                case "-t":
+                    tolerance = Double.parseDouble(args[++i]);
+                    break;
+                case "-q":
+                    runner = new BenchmarkRunner(1, 1, 200);
+                    break;
+                default:
+                    filters.add(args[i]);
+            }
+        }
+
+        Baseline baseline = new Baseline(tolerance);
+        InputStream in = baselineFile != null ? new FileInputStream(baselineFile)
+                : Main.class.getResourceAsStream(Baseline.FILE);
+        if (in != null)
+            baseline.read(in);
+
+        System.out.printf("%-36s %14s   %-10s %12s %6s %6s%n", "Benchmark", "ns/op", "   error", "B/op", "gcs", "gc ms");
+        List<BenchmarkRunner.Result> results = new ArrayList<>();
+        List<String> regressions = new ArrayList<>();
+        for (Benchmark b : Benchmarks.all())
+        {
+            if (!matches(b.getName(), filters))
+                continue;
+
+            BenchmarkRunner.Result r = runner.run(b);
+            results.add(r);
+            System.out.println(r);
+
+            String regression = baseline.check(r);
+            if (regression != null)
+                regressions.add(regression);
+        }
+
+        if (matches("render.", filters) || matchesAny("render.", filters))
+        {
+            for (BenchmarkRunner.Result r : RenderHarness.results(RENDER_ITERATIONS, RENDER_GAMES, RENDER_WARM_UP))
+            {
+                if (!matches(r.getName(), filters))
+                    continue;
+                results.add(r);
+                System.out.println(r);
+
+                String regression = baseline.check(r);
+                if (regression != null)
+                    regressions.add(regression);
+            }
+        }
+
+        if (writeFile != null)
+        {
+            Baseline.write(writeFile, results, System.getProperty("java.vm.name") + " "
+                    + System.getProperty("java.version") + ", " + System.getProperty("os.name") + " "
+                    + System.getProperty("os.arch") + ", " + Runtime.getRuntime().availableProcessors() + " cores");
+            System.out.println("\nWrote " + results.size() + " results to " + writeFile);
+        }
+
+        if (baseline.size() == 0)
+            return;
+        if (regressions.isEmpty())
+        {
+            System.out.println("\nNo regressions against the baseline");
+            return;
+        }
+
+        System.out.println("\nRegressions against the baseline:");
+        for (String s : regressions)
+            System.out.println("  " + s);
+        System.exit(1);
+    }
+
+    /*
+        Determines if a filter picks out some of the benchmarks under a prefix.
+     */
+    private static boolean matchesAny(String prefix, List<String> filters)
+    {
+        for (String f : filters)
+        {
+            if (f.startsWith(prefix))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean matches(String name, List<String> filters)
+    {
+        if (filters.isEmpty())
+            return true;
+        for (String f : filters)
+        {
+            if (name.startsWith(f))
+                return true;
+        }
+        return false;
+    }
+}
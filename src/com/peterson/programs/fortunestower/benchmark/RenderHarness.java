@@ -0,0 +1,495 @@
+package com.peterson.programs.fortunestower.benchmark;
+
+import com.peterson.programs.fortunestower.ArrayDeck;
+import com.peterson.programs.fortunestower.Board;
+import com.peterson.programs.fortunestower.BoardType;
+import com.peterson.programs.fortunestower.Deck;
+import com.peterson.programs.fortunestower.metrics.AllocationMeter;
+import com.peterson.programs.fortunestowergame.GameBoard;
+import com.peterson.programs.fortunestowergame.GamePanel;
+import com.peterson.programs.fortunestowergame.TowerView;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Renders scripted games of the Swing client into an offscreen image,
+ * without a display, and times every frame.
+ * A game is played the way GameFrame plays it: the first two rows are shown,
+ * then each row is dealt and shown, and a misfortune flips the gate and
+ * shows the saved row again, until the board is complete or a second
+ * misfortune ends it. Every change to the screen is one frame.
+ * <p>
+ * A frame is split into three parts, each timed, and its allocation counted:
+ * map, where GameBoard.mapRow turns the board's row into ImageCards and
+ * the component is changed to show them (a TowerView reads the board itself),
+ * layout, where the component is validated,
+ * and paint, where the whole component is painted into the image.
+ * The whole component is painted because, without a window, Swing has
+ * no dirty regions to go by; a real repaint only paints part of this.
+ * <p>
+ * Everything runs on the event dispatch thread, as it does in the game,
+ * so revalidate() and repaint() behave the same. The component is put in a
+ * displayable panel that never goes on screen, so validating lays it out.
+ * <p>
+ * Every game is dealt from a seeded deck, so runs can be compared.
+ * Benchmark's Main runs this for its render benchmarks, which are checked
+ * against the baseline like the others; running this class on its own prints
+ * percentiles of every part of a frame.
+ * Run this with -Djava.awt.headless=true, which main sets if it isn't set.
+ * The arguments are the number of games to measure, then the number
+ * of games to warm up with.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class RenderHarness
+{
+    /**
+     * What is drawn: the GamePanel of labels, or the painted TowerView.
+     */
+    public enum Target
+    {
+        PANEL, TOWER
+    }
+
+    private static final int ROWS = 8;
+    private static final int GAP = 12;
+
+    private static final int CARD_WIDTH = 76;
+    private static final int CARD_HEIGHT = 108;
+    private static final int DEFAULT_GAMES = 2000;
+    private static final int DEFAULT_WARM_UP = 500;
+    private static final long SEED = 42;
+
+    private final Target target;
+    private final int cardWidth;
+    private final int cardHeight;
+    private final JComponent component;
+    private final JPanel root;
+    private final GamePanel panel;
+    private final TowerView view;
+    private final BufferedImage image;
+    private final Graphics2D graphics;
+    private final ArrayDeck deck;
+
+    private Board board;
+    private GameBoard map;
+    private Frames frames;
+
+    //the part of a frame being measured
+    private long partStart;
+    private long partBytes;
+
+    /**
+     * Creates a harness that draws into an image the size of a full tower.
+     * Use it only on the event dispatch thread.
+     * @param target what to draw
+     * @param cardWidth the width of a card
+     * @param cardHeight the height of a card
+     */
+    public RenderHarness(Target target, int cardWidth, int cardHeight)
+    {
+        this.target = target;
+        this.cardWidth = cardWidth;
+        this.cardHeight = cardHeight;
+
+        if (target == Target.PANEL)
+        {
+            panel = new GamePanel();
+            view = null;
+            component = panel;
+        }
+        else
+        {
+            panel = null;
+            view = new TowerView(cardWidth, cardHeight);
+            component = view;
+        }
+
+        int width = ROWS * (cardWidth + GAP);
+        int height = ROWS * (cardHeight + GAP);
+        component.setBackground(Color.GREEN.darker());
+        root = new JPanel(new BorderLayout());
+        root.add(component, BorderLayout.CENTER);
+        root.setSize(width, height);
+        root.addNotify();
+
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+        deck = new ArrayDeck(Deck.DIAMOND_DECK);
+    }
+
+    /**
+     * Starts timing every frame, throwing away any earlier times.
+     * @param expected about how many frames will be played, so the times rarely grow
+     */
+    public void record(int expected)
+    {
+        frames = new Frames(expected);
+    }
+
+    /**
+     * Gets the times of the frames played since record(int) was called.
+     * @return the frame times, or null if they aren't being recorded
+     */
+    public Frames getFrames()
+    {
+        return frames;
+    }
+
+    /**
+     * Plays and renders one game.
+     * @param seed the seed of the deck
+     * @return the number of frames rendered
+     */
+    public int playGame(long seed)
+    {
+        deck.reset(seed);
+        board = BoardType.BOARD_2D.create(deck);
+        if (panel != null)
+            map = new GameBoard(board, cardWidth, cardHeight);
+
+        int count = 0;
+        clear();
+        show(0);
+        show(1);
+        count += 3;
+
+        boolean saved = false;
+        int row = 1;
+        while (!board.isComplete())
+        {
+            board.nextRow();
+            row++;
+            show(row);
+            count++;
+
+            if (board.misFortune())
+            {
+                if (saved)
+                    break;
+                saved = true;
+                board.trySave();
+                showSave(row);
+                count++;
+                if (board.misFortune())
+                    break;
+            }
+        }
+        return count;
+    }
+
+    /*
+        A frame that takes every card off, as ResetListener does.
+     */
+    private void clear()
+    {
+        begin();
+        if (panel != null)
+            panel.clear();
+        else
+            view.clear();
+        frame(end());
+    }
+
+    /*
+        A frame that shows a new row, as GameFrame.showRow does.
+     */
+    private void show(int row)
+    {
+        begin();
+        if (panel != null)
+        {
+            panel.addRow(map.mapRow(row));
+        }
+        else
+        {
+            view.showRow(board, row);
+        }
+        frame(end());
+    }
+
+    /*
+        A frame that shows a save, as GameFrame.showSave does.
+     */
+    private void showSave(int row)
+    {
+        begin();
+        if (panel != null)
+        {
+            panel.flipGate();
+            panel.removeLastRow();
+            panel.addRow(map.mapRow(row));
+        }
+        else
+        {
+            view.flipGate();
+            view.showRow(board, row);
+        }
+        frame(end());
+    }
+
+    /*
+        Lays out and paints the component, recording the frame.
+        The map part has already been measured.
+     */
+    private void frame(long mapNanos)
+    {
+        long mapBytes = partBytes;
+
+        begin();
+        root.validate();
+        long layoutNanos = end();
+        long layoutBytes = partBytes;
+
+        begin();
+        root.paint(graphics);
+        long paintNanos = end();
+
+        if (frames != null)
+            frames.add(mapNanos, layoutNanos, paintNanos, mapBytes + layoutBytes + partBytes);
+    }
+
+    private void begin()
+    {
+        partBytes = AllocationMeter.threadAllocated();
+        partStart = System.nanoTime();
+    }
+
+    /*
+        Ends a part, leaving its bytes in partBytes.
+     */
+    private long end()
+    {
+        long nanos = System.nanoTime() - partStart;
+        partBytes = AllocationMeter.threadAllocated() - partBytes;
+        return nanos;
+    }
+
+    public Target getTarget()
+    {
+        return target;
+    }
+
+    /**
+     * The times and allocation of recorded frames.
+     */
+    public static class Frames
+    {
+        private long[] map;
+        private long[] layout;
+        private long[] paint;
+        private long[] bytes;
+        private int size;
+
+        private Frames(int capacity)
+        {
+            capacity = Math.max(16, capacity);
+            map = new long[capacity];
+            layout = new long[capacity];
+            paint = new long[capacity];
+            bytes = new long[capacity];
+        }
+
+        private void add(long mapNanos, long layoutNanos, long paintNanos, long allocated)
+        {
+            if (size == map.length)
+            {
+                map = Arrays.copyOf(map, size * 2);
+                layout = Arrays.copyOf(layout, size * 2);
+                paint = Arrays.copyOf(paint, size * 2);
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            map[size] = mapNanos;
+            layout[size] = layoutNanos;
+            paint[size] = paintNanos;
+            bytes[size] = allocated;
+            size++;
+        }
+
+        public int size()
+        {
+            return size;
+        }
+
+        /*
+            Mean of the map, layout, paint or whole frame times, for a part from 0 to 3.
+         */
+        private double mean(int part)
+        {
+            double total = 0;
+            for (int i = 0; i < size; i++)
+            {
+                if (part == 0 || part == 3)
+                    total += map[i];
+                if (part == 1 || part == 3)
+                    total += layout[i];
+                if (part == 2 || part == 3)
+                    total += paint[i];
+            }
+            return size == 0 ? 0 : total / size;
+        }
+
+        /**
+         * Gets the mean bytes allocated by a frame.
+         * @return bytes per frame
+         */
+        public double bytesPerFrame()
+        {
+            long total = 0;
+            for (int i = 0; i < size; i++)
+                total += bytes[i];
+            return size == 0 ? 0 : (double) total / size;
+        }
+
+        public String toString()
+        {
+            long[] total = new long[size];
+            for (int i = 0; i < size; i++)
+                total[i] = map[i] + layout[i] + paint[i];
+
+            StringBuilder b = new StringBuilder();
+            b.append(String.format("  %-8s %10s %10s %10s %10s%n", "us", "mean", "p50", "p99", "max"));
+            line(b, "map", map);
+            line(b, "layout", layout);
+            line(b, "paint", paint);
+            line(b, "frame", total);
+            b.append(String.format("  %d frames, %.1f bytes/frame%n", size, bytesPerFrame()));
+            return b.toString();
+        }
+
+        private void line(StringBuilder b, String name, long[] nanos)
+        {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long n : sorted)
+                total += n;
+            b.append(String.format("  %-8s %10.1f %10.1f %10.1f %10.1f%n", name,
+                    size == 0 ? 0.0 : total / 1e3 / size, percentile(sorted, 0.5) / 1e3,
+                    percentile(sorted, 0.99) / 1e3, size == 0 ? 0.0 : sorted[size - 1] / 1e3));
+        }
+
+        private static double percentile(long[] sorted, double p)
+        {
+            if (sorted.length == 0)
+                return 0;
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+    }
+
+    /**
+     * Measures rendering as benchmark results, so they can be checked against a baseline.
+     * Each target gives render.TARGET.frame, with the bytes a frame allocates,
+     * and render.TARGET.map, .layout and .paint with the time of each part.
+     * The times of each result are the means of iterations of games.
+     * @param iterations the number of measured iterations
+     * @param games the number of games in an iteration
+     * @param warmUp the number of games played first, unmeasured
+     * @return the results
+     */
+    public static List<BenchmarkRunner.Result> results(final int iterations, final int games, final int warmUp)
+    {
+        final List<BenchmarkRunner.Result> results = new ArrayList<>();
+        onEdt(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                for (Target target : Target.values())
+                {
+                    RenderHarness harness = new RenderHarness(target, CARD_WIDTH, CARD_HEIGHT);
+                    for (int i = 0; i < warmUp; i++)
+                        harness.playGame(SEED + i);
+
+                    double[][] nanos = new double[4][iterations];
+                    long bytes = 0;
+                    long frames = 0;
+                    long gcs = BenchmarkRunner.gcCount();
+                    long gcMillis = BenchmarkRunner.gcMillis();
+                    for (int it = 0; it < iterations; it++)
+                    {
+                        harness.record(games * 8);
+                        for (int i = 0; i < games; i++)
+                            harness.playGame(SEED + (long) it * games + i);
+                        Frames f = harness.getFrames();
+                        for (int part = 0; part < 4; part++)
+                            nanos[part][it] = f.mean(part);
+                        bytes += Math.round(f.bytesPerFrame() * f.size());
+                        frames += f.size();
+                    }
+                    gcs = BenchmarkRunner.gcCount() - gcs;
+                    gcMillis = BenchmarkRunner.gcMillis() - gcMillis;
+
+                    String name = "render." + target.name().toLowerCase();
+                    double perFrame = AllocationMeter.isSupported() ? (double) bytes / frames : Double.NaN;
+                    results.add(new BenchmarkRunner.Result(name + ".frame", nanos[3], perFrame, gcs, gcMillis));
+                    results.add(new BenchmarkRunner.Result(name + ".map", nanos[0], Double.NaN, 0, 0));
+                    results.add(new BenchmarkRunner.Result(name + ".layout", nanos[1], Double.NaN, 0, 0));
+                    results.add(new BenchmarkRunner.Result(name + ".paint", nanos[2], Double.NaN, 0, 0));
+                }
+            }
+        });
+        return results;
+    }
+
+    /*
+        Runs on the event dispatch thread and waits for it.
+     */
+    private static void onEdt(Runnable r)
+    {
+        try
+        {
+            SwingUtilities.invokeAndWait(r);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (InvocationTargetException e)
+        {
+            throw new IllegalStateException("Rendering failed", e.getCause());
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        if (System.getProperty("java.awt.headless") == null)
+            System.setProperty("java.awt.headless", "true");
+
+        final int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        final int warmUp = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_WARM_UP;
+
+        onEdt(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                for (Target target : Target.values())
+                {
+                    RenderHarness harness = new RenderHarness(target, CARD_WIDTH, CARD_HEIGHT);
+                    for (int i = 0; i < warmUp; i++)
+                        harness.playGame(SEED + i);
+
+                    //about 8 frames a game
+                    harness.record(games * 8);
+                    long start = System.nanoTime();
+                    for (int i = 0; i < games; i++)
+                        harness.playGame(SEED + i);
+                    double seconds = (System.nanoTime() - start) / 1e9;
+
+                    Frames frames = harness.getFrames();
+                    System.out.println(target + ": " + games + " games");
+                    System.out.print(frames);
+                    System.out.printf("  %.0f frames/sec%n%n", frames.size() / seconds);
+                }
+            }
+        });
+    }
+}
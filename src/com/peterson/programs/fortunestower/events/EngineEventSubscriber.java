@@ -0,0 +1,33 @@
+package com.peterson.programs.fortunestower.events;
+
+import com.peterson.programs.fortunestower.metrics.EngineEvents;
+
+/**
+ * Reports the events of a board to EngineEvents, for EngineMetrics and Flight Recorder.
+ * Rows are left out, since boards report their own deals with how long they took.
+ * Cash outs aren't board events, so they are still reported by whatever plays the game.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class EngineEventSubscriber extends GameEventSubscriber
+{
+    @Override
+    protected void onEvent(GameEvent event)
+    {
+        switch (event.getType())
+        {
+            case MISFORTUNE:
+                EngineEvents.misfortune(event.getRow(), event.getCol(), event.isGateAvailable());
+                break;
+            case GATE_SAVED:
+                EngineEvents.gateSave(event.getRow(), event.getCol(), event.isSucceeded());
+                break;
+            case JACKPOT:
+                EngineEvents.jackpot(event.getValue());
+                break;
+            default:
+                break;
+        }
+    }
+}
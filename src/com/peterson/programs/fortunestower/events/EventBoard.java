@@ -0,0 +1,332 @@
+package com.peterson.programs.fortunestower.events;
+
+import com.peterson.programs.fortunestower.Board;
+import com.peterson.programs.fortunestower.Card;
+import com.peterson.programs.fortunestower.RuleSet;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * A Board that publishes what happens to it as GameEvents.
+ * Every call is passed on to another board, and each change the call made
+ * is published once: dealing a row publishes ROW_DEALT, then MISFORTUNE if the
+ * row is one, or JACKPOT and COMPLETE if it finished the tower; using a gate card
+ * publishes GATE_SAVED, then MISFORTUNE again if it didn't clear it.
+ * The board looks for a misfortune once per deal and save, and misFortune() only
+ * answers what it found, so nothing has to scan the rows to find out what happened.
+ * <p>
+ * Events go through a SubmissionPublisher, so subscribers get them in order and
+ * only as many as they have requested. By default the subscribers are run on
+ * the thread playing the game before each call returns, which suits a GUI
+ * playing on the event dispatch thread. A subscriber there may play on, like
+ * using the gate card on a MISFORTUNE; what that publishes is held until every
+ * subscriber has the event being handled, so they all see the same order.
+ * Nothing else could catch a subscriber up on that thread, so the game never waits
+ * for one: a subscriber that stops requesting gets a buffer of events, and the
+ * events after that are dropped for it and counted by getDroppedCount().
+ * Subscribers run on an executor are waited for instead: a subscriber that falls
+ * a buffer behind holds up the deal until the executor catches it up.
+ * They run alongside the game, so they should only watch it, never play on.
+ * <pre>
+ *     EventBoard board = new EventBoard(session.newGame());
+ *     board.subscribe(new EventLog(System.out));
+ *     board.nextRow();
+ * </pre>
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class EventBoard implements Board, Flow.Publisher<GameEvent>, AutoCloseable
+{
+    private final Board board;
+    private final SubmissionPublisher<GameEvent> publisher;
+    //true if subscribers run on other threads, which can catch them up while a deal waits
+    private final boolean waits;
+    private long dropped;
+    //events published by subscribers on the playing thread, waiting for the one being offered
+    private final ArrayDeque<GameEvent> pending;
+    private boolean publishing;
+
+    //what the board's misFortune() answered after the last change
+    private boolean misfortune;
+    //true once COMPLETE has been published for the game
+    private boolean ended;
+
+    /**
+     * Wraps a board, running subscribers on the thread that plays the game.
+     * @param board the board to play on
+     */
+    public EventBoard(Board board)
+    {
+        this(board, Runnable::run, Flow.defaultBufferSize(), false);
+    }
+
+    /**
+     * Wraps a board, running subscribers on an executor.
+     * A deal waits for a subscriber that is a buffer behind, so the executor
+     * must run subscribers on threads other than the one playing the game.
+     * @param board the board to play on
+     * @param executor where subscribers are run
+     * @param bufferSize the most events kept for a subscriber that hasn't requested them
+     */
+    public EventBoard(Board board, Executor executor, int bufferSize)
+    {
+        this(board, executor, bufferSize, true);
+    }
+
+    private EventBoard(Board board, Executor executor, int bufferSize, boolean waits)
+    {
+        if (board == null)
+            throw new IllegalArgumentException("A board is needed");
+        this.board = board;
+        this.waits = waits;
+        pending = new ArrayDeque<>();
+        publisher = new SubmissionPublisher<>(executor, bufferSize);
+        refresh();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber)
+    {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * Gets the board being played on.
+     * Rows dealt on it directly aren't published.
+     * @return the wrapped board
+     */
+    public Board getBoard()
+    {
+        return board;
+    }
+
+    /**
+     * Reads the board again after it was changed some other way,
+     * such as a new game of a GameSession or a snapshot put back.
+     * Nothing is published.
+     */
+    public void refresh()
+    {
+        misfortune = board.misFortune();
+        ended = board.isComplete() && !misfortune;
+    }
+
+    /**
+     * Gets the number of events dropped for subscribers run on the playing thread
+     * that had stopped requesting them.
+     * @return the number of events a subscriber missed, counted once for each subscriber
+     */
+    public long getDroppedCount()
+    {
+        return dropped;
+    }
+
+    /*
+        Publishes an event to every subscriber, waiting for ones that are behind
+        only if something else can catch them up. On the playing thread, an event
+        published from inside a subscriber goes out after the one it is handling.
+     */
+    private void publish(GameEvent event)
+    {
+        if (waits)
+        {
+            publisher.submit(event);
+            return;
+        }
+
+        pending.add(event);
+        if (publishing)
+            return;
+        publishing = true;
+        try
+        {
+            GameEvent next;
+            while ((next = pending.poll()) != null)
+                publisher.offer(next, this::drop);
+        }
+        finally
+        {
+            publishing = false;
+            pending.clear();
+        }
+    }
+
+    /*
+        Drops an event for a subscriber whose buffer is full, rather than trying again.
+     */
+    private boolean drop(Flow.Subscriber<? super GameEvent> subscriber, GameEvent event)
+    {
+        dropped++;
+        return false;
+    }
+
+    /**
+     * Stops publishing, and tells every subscriber there are no more events.
+     */
+    @Override
+    public void close()
+    {
+        publisher.close();
+    }
+
+    @Override
+    public void nextRow()
+    {
+        if (board.isComplete())
+            return;
+        board.nextRow();
+        //the board is read before anything is published, as subscribers may play on
+        int row = board.getLastRow().length - 1;
+        misfortune = board.misFortune();
+        GameEvent found = misfortune ? misfortuneEvent() : null;
+        publish(GameEvent.rowDealt(row, board.lastRowValue()));
+        if (found != null)
+            publish(found);
+        else
+            publishEnd();
+    }
+
+    @Override
+    public void trySave()
+    {
+        int row = board.getMisfortuneRow();
+        int col = board.getMisfortuneCol();
+        int gates = board.getGatesLeft();
+        board.trySave();
+        if (board.getGatesLeft() == gates)
+            return;
+
+        misfortune = board.misFortune();
+        GameEvent found = misfortune ? misfortuneEvent() : null;
+        publish(GameEvent.gateSaved(row, col, !misfortune));
+        if (found != null)
+            publish(found);
+        else
+            publishEnd();
+    }
+
+    /*
+        The misfortune the board just found.
+     */
+    private GameEvent misfortuneEvent()
+    {
+        return GameEvent.misfortune(board.getMisfortuneRow(), board.getMisfortuneCol(), board.getGatesLeft() > 0);
+    }
+
+    /*
+        Publishes the end of the game, once, if the tower is complete.
+     */
+    private void publishEnd()
+    {
+        if (ended || !board.isComplete())
+            return;
+        ended = true;
+        boolean jackpot = board.hitJackpot();
+        int payout = jackpot ? board.jackpotValue() : board.lastRowValue();
+        if (jackpot)
+            publish(GameEvent.jackpot(payout));
+        publish(GameEvent.complete(payout, jackpot));
+    }
+
+    @Override
+    public void flipGateCard()
+    {
+        boolean faceUp = board.isFaceUp(0, 0);
+        board.flipGateCard();
+        if (board.isFaceUp(0, 0) != faceUp)
+            publish(GameEvent.gateFlipped(!faceUp));
+    }
+
+    @Override
+    public void reset()
+    {
+        board.reset();
+        refresh();
+    }
+
+    @Override
+    public boolean misFortune()
+    {
+        return misfortune;
+    }
+
+    @Override
+    public boolean isComplete()
+    {
+        return board.isComplete();
+    }
+
+    @Override
+    public int rowValue(int rowNum)
+    {
+        return board.rowValue(rowNum);
+    }
+
+    @Override
+    public int lastRowValue()
+    {
+        return board.lastRowValue();
+    }
+
+    @Override
+    public boolean hitJackpot()
+    {
+        return board.hitJackpot();
+    }
+
+    @Override
+    public int jackpotValue()
+    {
+        return board.jackpotValue();
+    }
+
+    @Override
+    public Card[] getCardsInRow(int rowNumber)
+    {
+        return board.getCardsInRow(rowNumber);
+    }
+
+    @Override
+    public Card[] getLastRow()
+    {
+        return board.getLastRow();
+    }
+
+    @Override
+    public boolean isFaceUp(int row, int col)
+    {
+        return board.isFaceUp(row, col);
+    }
+
+    @Override
+    public int getMisfortuneRow()
+    {
+        return board.getMisfortuneRow();
+    }
+
+    @Override
+    public int getMisfortuneCol()
+    {
+        return board.getMisfortuneCol();
+    }
+
+    @Override
+    public int getGatesLeft()
+    {
+        return board.getGatesLeft();
+    }
+
+    @Override
+    public RuleSet getRules()
+    {
+        return board.getRules();
+    }
+
+    public String toString()
+    {
+        return board.toString();
+    }
+}
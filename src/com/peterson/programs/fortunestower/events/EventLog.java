@@ -0,0 +1,43 @@
+package com.peterson.programs.fortunestower.events;
+
+import java.io.PrintStream;
+
+/**
+ * Prints every event of a board, one to a line.
+ * Running a game with -Dfortunestower.eventlog=true logs its events to standard error.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class EventLog extends GameEventSubscriber
+{
+    /**
+     * The system property that turns the event log on.
+     */
+    public static final String PROPERTY = "fortunestower.eventlog";
+
+    private final PrintStream out;
+
+    /**
+     * @param out where the events are printed
+     */
+    public EventLog(PrintStream out)
+    {
+        this.out = out;
+    }
+
+    /**
+     * Determines if the event log was asked for with the system property.
+     * @return true if events should be logged
+     */
+    public static boolean isRequested()
+    {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    @Override
+    protected void onEvent(GameEvent event)
+    {
+        out.println(event);
+    }
+}
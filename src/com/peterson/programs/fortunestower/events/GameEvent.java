@@ -0,0 +1,179 @@
+package com.peterson.programs.fortunestower.events;
+
+/**
+ * Something that happened to a board, published by an EventBoard.
+ * Every event has a Type, and the row, column, value and flag the type uses;
+ * the ones it doesn't use are 0 and false.
+ * Events never change, so one can be handed to any number of subscribers and threads.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public final class GameEvent
+{
+    /**
+     * The kinds of event.
+     */
+    public enum Type
+    {
+        /**
+         * A row was dealt. Has the row and its value.
+         */
+        ROW_DEALT,
+
+        /**
+         * The row just dealt is a misfortune. Has the row and column the gate card
+         * would go to, and whether there is a gate card left to try a save with.
+         */
+        MISFORTUNE,
+
+        /**
+         * The gate card was turned over. Has whether it is face up now.
+         */
+        GATE_FLIPPED,
+
+        /**
+         * A gate card was used on a misfortune. Has the row and column it went to,
+         * and whether it cleared the misfortune. A save that doesn't is followed by
+         * another MISFORTUNE, which ends the game if no gate card is left.
+         */
+        GATE_SAVED,
+
+        /**
+         * The tower was completed without using a gate card. Has the jackpot's value.
+         * Always followed by COMPLETE.
+         */
+        JACKPOT,
+
+        /**
+         * The tower was completed without a misfortune left standing.
+         * Has what the game pays, and whether that is a jackpot.
+         */
+        COMPLETE
+    }
+
+    private final Type type;
+    private final int row;
+    private final int col;
+    private final int value;
+    private final boolean flag;
+
+    private GameEvent(Type type, int row, int col, int value, boolean flag)
+    {
+        this.type = type;
+        this.row = row;
+        this.col = col;
+        this.value = value;
+        this.flag = flag;
+    }
+
+    public static GameEvent rowDealt(int row, int value)
+    {
+        return new GameEvent(Type.ROW_DEALT, row, 0, value, false);
+    }
+
+    public static GameEvent misfortune(int row, int col, boolean gateAvailable)
+    {
+        return new GameEvent(Type.MISFORTUNE, row, col, 0, gateAvailable);
+    }
+
+    public static GameEvent gateFlipped(boolean faceUp)
+    {
+        return new GameEvent(Type.GATE_FLIPPED, 0, 0, 0, faceUp);
+    }
+
+    public static GameEvent gateSaved(int row, int col, boolean succeeded)
+    {
+        return new GameEvent(Type.GATE_SAVED, row, col, 0, succeeded);
+    }
+
+    public static GameEvent jackpot(int value)
+    {
+        return new GameEvent(Type.JACKPOT, 0, 0, value, true);
+    }
+
+    public static GameEvent complete(int payout, boolean jackpot)
+    {
+        return new GameEvent(Type.COMPLETE, 0, 0, payout, jackpot);
+    }
+
+    public Type getType()
+    {
+        return type;
+    }
+
+    public int getRow()
+    {
+        return row;
+    }
+
+    public int getCol()
+    {
+        return col;
+    }
+
+    /**
+     * Gets the value of the event: a row's value, a jackpot's, or what a complete game pays.
+     * @return the value, or 0 for an event without one
+     */
+    public int getValue()
+    {
+        return value;
+    }
+
+    /**
+     * Determines if there was a gate card left when a misfortune happened.
+     * @return true if a save can be tried, for a MISFORTUNE
+     */
+    public boolean isGateAvailable()
+    {
+        return type == Type.MISFORTUNE && flag;
+    }
+
+    /**
+     * Determines if the gate card is face up after it was turned over.
+     * @return true if it is face up, for a GATE_FLIPPED
+     */
+    public boolean isFaceUp()
+    {
+        return type == Type.GATE_FLIPPED && flag;
+    }
+
+    /**
+     * Determines if a gate card cleared the misfortune it was used on.
+     * @return true if the board was saved, for a GATE_SAVED
+     */
+    public boolean isSucceeded()
+    {
+        return type == Type.GATE_SAVED && flag;
+    }
+
+    /**
+     * Determines if a complete game is a jackpot.
+     * @return true for a JACKPOT, or a COMPLETE that pays a jackpot
+     */
+    public boolean isJackpot()
+    {
+        return (type == Type.JACKPOT || type == Type.COMPLETE) && flag;
+    }
+
+    public String toString()
+    {
+        switch (type)
+        {
+            case ROW_DEALT:
+                return "Row " + row + " dealt, worth " + value;
+            case MISFORTUNE:
+                return "Misfortune at row " + row + ", column " + col
+                        + (flag ? "" : ", with no gate card left");
+            case GATE_FLIPPED:
+                return "Gate card turned " + (flag ? "face up" : "face down");
+            case GATE_SAVED:
+                return "Gate card used at row " + row + ", column " + col + (flag ? ", saved" : ", not saved");
+            case JACKPOT:
+                return "Jackpot of " + value;
+            default:
+                return "Tower complete, paying " + value + (flag ? " (jackpot)" : "");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.peterson.programs.fortunestower.events;
+
+import java.util.concurrent.Flow;
+
+/**
+ * A subscriber that asks for events a batch at a time.
+ * The next batch is requested once half of the last one has been handled,
+ * so a subscriber that keeps up is never waited on, and one that doesn't
+ * has at most a batch and a half handed to it at once.
+ * Subclasses only handle each event.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public abstract class GameEventSubscriber implements Flow.Subscriber<GameEvent>
+{
+    /**
+     * The number of events requested at a time by default.
+     */
+    public static final int DEFAULT_BATCH = 16;
+
+    private final int batch;
+    private Flow.Subscription subscription;
+    //events handled since the last request
+    private int handled;
+
+    protected GameEventSubscriber()
+    {
+        this(DEFAULT_BATCH);
+    }
+
+    /**
+     * @param batch the number of events requested at a time
+     */
+    protected GameEventSubscriber(int batch)
+    {
+        if (batch < 2)
+            throw new IllegalArgumentException("A batch must be at least 2 events");
+        this.batch = batch;
+    }
+
+    /**
+     * Handles an event.
+     * @param event what happened to the board
+     */
+    protected abstract void onEvent(GameEvent event);
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription)
+    {
+        this.subscription = subscription;
+        handled = 0;
+        subscription.request(batch);
+    }
+
+    @Override
+    public void onNext(GameEvent event)
+    {
+        //ask for more before handling, in case handling plays on and publishes again
+        if (++handled == batch / 2)
+        {
+            handled = 0;
+            subscription.request(batch / 2);
+        }
+        onEvent(event);
+    }
+
+    @Override
+    public void onError(Throwable throwable)
+    {
+        throwable.printStackTrace();
+    }
+
+    @Override
+    public void onComplete()
+    {
+    }
+
+    /**
+     * Stops receiving events.
+     */
+    public void cancel()
+    {
+        if (subscription != null)
+            subscription.cancel();
+    }
+}
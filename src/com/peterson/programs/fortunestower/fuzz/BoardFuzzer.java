@@ -0,0 +1,513 @@
+package com.peterson.programs.fortunestower.fuzz;
+
+import com.peterson.programs.fortunestower.Board;
+import com.peterson.programs.fortunestower.BoardType;
+import com.peterson.programs.fortunestower.Card;
+import com.peterson.programs.fortunestower.RuleSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Drives boards through FuzzCases in lockstep with a Board2D, which is taken to be right.
+ * After every step of a game, dealing the first rows, turning the gate card over,
+ * dealing a row and saving one, every board is asked everything a Board answers:
+ * misFortune(), what trySave() did to the board, rowValue(int) and getCardsInRow(int)
+ * of every row, isFaceUp(int, int) of every place, jackpotValue(), toString(), and the rest.
+ * The first answer that differs, or call that throws, is a Divergence, and the board
+ * is left out of the rest of the case.
+ * What a board does with the rows either side of the tower isn't part of playing it,
+ * so those rows are only asked about when checking bounds is turned on,
+ * by a constructor or with -Dfortunestower.fuzz.bounds=true.
+ * The boards are made once and reset for every case, the way a GameSession plays them.
+ * A fuzzer is used by one thread at a time.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class BoardFuzzer
+{
+    /*
+        The steps of a game
+     */
+    private static final int RESET = 0;
+    private static final int FLIP = 1;
+    private static final int DEAL = 2;
+    private static final int SAVE = 3;
+
+    /*
+        The calls compared, so a name is only made when one diverges
+     */
+    private static final int RESET_CALL = 0;
+    private static final int FLIP_CALL = 1;
+    private static final int NEXT_ROW = 2;
+    private static final int TRY_SAVE = 3;
+    private static final int MISFORTUNE = 4;
+    private static final int IS_COMPLETE = 5;
+    private static final int LAST_ROW_VALUE = 6;
+    private static final int GATES_LEFT = 7;
+    private static final int MISFORTUNE_ROW = 8;
+    private static final int MISFORTUNE_COL = 9;
+    private static final int HIT_JACKPOT = 10;
+    private static final int JACKPOT_VALUE = 11;
+    private static final int ROW_VALUE = 12;
+    private static final int CARDS_IN_ROW = 13;
+    private static final int FACE_UP = 14;
+    private static final int TO_STRING = 15;
+
+    private static final String[] CALLS = {"reset()", "flipGateCard()", "nextRow()", "trySave()",
+            "misFortune()", "isComplete()", "lastRowValue()", "getGatesLeft()", "getMisfortuneRow()",
+            "getMisfortuneCol()", "hitJackpot()", "jackpotValue()", "rowValue(%d)", "getCardsInRow(%d)",
+            "isFaceUp(%d, %d)", "toString()"};
+
+    /**
+     * The system property that turns on checking the rows either side of the tower.
+     */
+    public static final String BOUNDS_PROPERTY = "fortunestower.fuzz.bounds";
+
+    private final RuleSet rules;
+    private final int levels;
+    //the first and last rows asked about
+    private final int firstRow;
+    private final int lastRow;
+    private final BoardType[] types;
+    private final FuzzDeck referenceDeck;
+    private final Board reference;
+    private final FuzzDeck[] decks;
+    private final Board[] boards;
+    //the boards that have agreed with the reference so far in the case
+    private final boolean[] live;
+
+    /*
+        What the reference answered after the last step, asked once and
+        compared with every board, so each call is only made of one kind of board
+     */
+    private boolean complete;
+    private int lastRowValue;
+    private int gatesLeft;
+    private int misfortuneRow;
+    private int misfortuneCol;
+    private boolean jackpot;
+    private int jackpotValue;
+    private final int[] rowValues;
+    private final Card[][] rows;
+    private final boolean[] faceUp;
+    private String text;
+
+    private FuzzCase current;
+    private List<Divergence> found;
+    private String step;
+    private int stepRow;
+    private int call;
+    private int arg;
+    private int arg2;
+
+    /**
+     * Creates a fuzzer of some kinds of board, which checks the rows either side
+     * of the tower if the system property BOUNDS_PROPERTY is true.
+     * @param rules the rules every case is played by
+     * @param types the boards to compare with Board2D
+     * @throws IllegalArgumentException if Board2D or one of the boards can't play by the rules
+     */
+    public BoardFuzzer(RuleSet rules, BoardType... types)
+    {
+        this(rules, Boolean.getBoolean(BOUNDS_PROPERTY), types);
+    }
+
+    /**
+     * Creates a fuzzer of some kinds of board.
+     * @param rules the rules every case is played by
+     * @param bounds true to also check that rowValue(int) and getCardsInRow(int)
+     *               of the rows either side of the tower are answered the way Board2D does
+     * @param types the boards to compare with Board2D
+     * @throws IllegalArgumentException if Board2D or one of the boards can't play by the rules
+     */
+    public BoardFuzzer(RuleSet rules, boolean bounds, BoardType... types)
+    {
+        this.rules = rules;
+        this.types = types.clone();
+        levels = rules.getLevels();
+        firstRow = bounds ? -1 : 0;
+        lastRow = bounds ? levels : levels - 1;
+        int[] blank = new FuzzCase(rules).getCodes();
+        referenceDeck = new FuzzDeck(blank);
+        reference = BoardType.BOARD_2D.create(referenceDeck, rules);
+        decks = new FuzzDeck[types.length];
+        boards = new Board[types.length];
+        live = new boolean[types.length];
+        rowValues = new int[levels + 2];
+        rows = new Card[levels + 2][];
+        faceUp = new boolean[rules.getSlots() + 2 * levels];
+        for (int i = 0; i < types.length; i++)
+        {
+            decks[i] = new FuzzDeck(blank);
+            boards[i] = types[i].create(decks[i], rules);
+        }
+    }
+
+    /**
+     * Determines if a kind of board can play by some rules.
+     * @param type the kind of board
+     * @param rules the rules
+     * @return true if a board of the type can be made for the rules
+     */
+    public static boolean canPlay(BoardType type, RuleSet rules)
+    {
+        try
+        {
+            type.create(new FuzzDeck(new FuzzCase(rules).getCodes()), rules);
+            return true;
+        }
+        catch (IllegalArgumentException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Plays a case on every board and compares them with Board2D after every step.
+     * @param fuzzCase the case, which isn't changed
+     * @return the first divergence of each board that diverged, numbered -1,
+     * or an empty list if they all agreed
+     */
+    public List<Divergence> check(FuzzCase fuzzCase)
+    {
+        current = fuzzCase;
+        found = null;
+        Arrays.fill(live, true);
+        referenceDeck.load(fuzzCase.getCodes());
+        reference.reset();
+        snapshot();
+        step(RESET, "dealing the first rows", 1, false);
+
+        int row = 2;
+        while (!reference.isComplete() && row < fuzzCase.getStopRow() && hasLive())
+        {
+            if (fuzzCase.flipsBefore(row))
+            {
+                reference.flipGateCard();
+                snapshot();
+                step(FLIP, "turning the gate card over before row %d", row, false);
+            }
+
+            reference.nextRow();
+            boolean misfortune = reference.misFortune();
+            snapshot();
+            step(DEAL, "dealing row %d", row, misfortune);
+            if (misfortune)
+            {
+                //each gate card makes one save, a misfortune with none left or not saved ends the game
+                if (reference.getGatesLeft() == 0 || !fuzzCase.savesAt(row))
+                    break;
+                reference.trySave();
+                misfortune = reference.misFortune();
+                snapshot();
+                step(SAVE, "saving row %d", row, misfortune);
+                if (misfortune)
+                    break;
+            }
+            row++;
+        }
+
+        current = null;
+        return found == null ? Collections.emptyList() : found;
+    }
+
+    private boolean hasLive()
+    {
+        for (boolean b : live)
+        {
+            if (b)
+                return true;
+        }
+        return false;
+    }
+
+    /*
+        Asks the reference everything, in the order the boards are asked.
+        Board2D hands out its own rows, which don't change before they are compared.
+     */
+    private void snapshot()
+    {
+        Board e = reference;
+        complete = e.isComplete();
+        lastRowValue = e.lastRowValue();
+        gatesLeft = e.getGatesLeft();
+        misfortuneRow = e.getMisfortuneRow();
+        misfortuneCol = e.getMisfortuneCol();
+        jackpot = e.hitJackpot();
+        jackpotValue = e.jackpotValue();
+        int place = 0;
+        for (int row = firstRow; row <= lastRow; row++)
+        {
+            rowValues[row + 1] = e.rowValue(row);
+            rows[row + 1] = e.getCardsInRow(row);
+            if (row < 0 || row == levels)
+                continue;
+            for (int col = -1; col <= row + 1; col++)
+                faceUp[place++] = e.isFaceUp(row, col);
+        }
+        text = e.toString();
+    }
+
+    /*
+        Does a step of the game to every board still agreeing with the reference,
+        which has already done it, and compares them.
+     */
+    private void step(int what, String step, int row, boolean misfortune)
+    {
+        this.step = step;
+        stepRow = row;
+        for (int i = 0; i < boards.length; i++)
+        {
+            if (!live[i])
+                continue;
+            arg = 0;
+            arg2 = 0;
+            try
+            {
+                if (!agrees(i, what, misfortune))
+                    diverge(i, null);
+            }
+            catch (RuntimeException e)
+            {
+                diverge(i, e);
+            }
+        }
+    }
+
+    /*
+        Does a step to one board and asks it everything.
+        The call being made is kept, so one that throws can be named.
+     */
+    private boolean agrees(int i, int what, boolean misfortune)
+    {
+        Board a = boards[i];
+        switch (what)
+        {
+            case RESET:
+                decks[i].load(current.getCodes());
+                call = RESET_CALL;
+                a.reset();
+                break;
+            case FLIP:
+                call = FLIP_CALL;
+                a.flipGateCard();
+                break;
+            case DEAL:
+                call = NEXT_ROW;
+                a.nextRow();
+                call = MISFORTUNE;
+                if (a.misFortune() != misfortune)
+                    return false;
+                break;
+            case SAVE:
+                call = TRY_SAVE;
+                a.trySave();
+                call = MISFORTUNE;
+                if (a.misFortune() != misfortune)
+                    return false;
+                break;
+        }
+
+        call = IS_COMPLETE;
+        if (complete != a.isComplete())
+            return false;
+        call = LAST_ROW_VALUE;
+        if (lastRowValue != a.lastRowValue())
+            return false;
+        call = GATES_LEFT;
+        if (gatesLeft != a.getGatesLeft())
+            return false;
+        call = MISFORTUNE_ROW;
+        if (misfortuneRow != a.getMisfortuneRow())
+            return false;
+        call = MISFORTUNE_COL;
+        if (misfortuneCol != a.getMisfortuneCol())
+            return false;
+        call = HIT_JACKPOT;
+        if (jackpot != a.hitJackpot())
+            return false;
+        call = JACKPOT_VALUE;
+        if (jackpotValue != a.jackpotValue())
+            return false;
+
+        //and the rows either side of the tower, which should be refused the same way, if bounds are checked
+        int place = 0;
+        for (int row = firstRow; row <= lastRow; row++)
+        {
+            arg = row;
+            call = ROW_VALUE;
+            if (rowValues[row + 1] != a.rowValue(row))
+                return false;
+            call = CARDS_IN_ROW;
+            if (!Arrays.equals(rows[row + 1], a.getCardsInRow(row)))
+                return false;
+            if (row < 0 || row == levels)
+                continue;
+            call = FACE_UP;
+            for (int col = -1; col <= row + 1; col++)
+            {
+                arg2 = col;
+                if (faceUp[place++] != a.isFaceUp(row, col))
+                    return false;
+            }
+        }
+        call = TO_STRING;
+        return text.equals(a.toString());
+    }
+
+    /*
+        Records the first divergence of a board and leaves it out of the rest of the case.
+     */
+    private void diverge(int i, RuntimeException thrown)
+    {
+        live[i] = false;
+        String expected = answer(reference);
+        String actual = thrown != null ? thrown.toString() : answer(boards[i]);
+        if (found == null)
+            found = new ArrayList<>(boards.length);
+        found.add(new Divergence(types[i], -1, current.copy(), String.format(step, stepRow),
+                String.format(CALLS[call], arg, arg2), expected, actual));
+    }
+
+    /*
+        What a board answers to the call being made, or what it throws.
+     */
+    private String answer(Board b)
+    {
+        try
+        {
+            switch (call)
+            {
+                case MISFORTUNE:
+                    return String.valueOf(b.misFortune());
+                case IS_COMPLETE:
+                    return String.valueOf(b.isComplete());
+                case LAST_ROW_VALUE:
+                    return String.valueOf(b.lastRowValue());
+                case GATES_LEFT:
+                    return String.valueOf(b.getGatesLeft());
+                case MISFORTUNE_ROW:
+                    return String.valueOf(b.getMisfortuneRow());
+                case MISFORTUNE_COL:
+                    return String.valueOf(b.getMisfortuneCol());
+                case HIT_JACKPOT:
+                    return String.valueOf(b.hitJackpot());
+                case JACKPOT_VALUE:
+                    return String.valueOf(b.jackpotValue());
+                case ROW_VALUE:
+                    return String.valueOf(b.rowValue(arg));
+                case CARDS_IN_ROW:
+                    return Arrays.toString(b.getCardsInRow(arg));
+                case FACE_UP:
+                    return String.valueOf(b.isFaceUp(arg, arg2));
+                case TO_STRING:
+                    return b.toString();
+                default:
+                    return "nothing thrown";
+            }
+        }
+        catch (RuntimeException e)
+        {
+            return e.toString();
+        }
+    }
+
+    /**
+     * Shrinks the case of a divergence to a smaller one the board still diverges on.
+     * Rows are cut from the end of the game, decisions are dropped, and cards are made
+     * lower, knights last, for as long as the board still diverges on the smaller case,
+     * which leaves a case where every one of those changes makes the board agree.
+     * @param divergence a divergence found by a fuzzer of the same rules and boards
+     * @return the divergence of the smallest case found, with the number of the original,
+     * or the divergence given if its case doesn't diverge when played again on its own
+     */
+    public Divergence shrink(Divergence divergence)
+    {
+        BoardType type = divergence.getType();
+        FuzzCase c = divergence.getCase().copy();
+        Divergence best = diverges(c, type);
+        if (best == null)
+            return divergence;
+
+        boolean shrunk = true;
+        while (shrunk)
+        {
+            shrunk = false;
+
+            //deal fewer rows
+            int stop = c.getStopRow();
+            for (int s = 2; s < stop && !shrunk; s++)
+            {
+                c.setStopRow(s);
+                Divergence d = diverges(c, type);
+                if (d != null)
+                {
+                    best = d;
+                    shrunk = true;
+                }
+                else
+                    c.setStopRow(stop);
+            }
+
+            //make fewer decisions
+            for (long bits = c.getDecisions(); bits != 0; bits &= bits - 1)
+            {
+                long was = c.getDecisions();
+                c.setDecisions(was & ~Long.lowestOneBit(bits));
+                Divergence d = diverges(c, type);
+                if (d != null)
+                {
+                    best = d;
+                    shrunk = true;
+                }
+                else
+                    c.setDecisions(was);
+            }
+
+            //deal lower cards
+            int[] codes = c.getCodes();
+            for (int i = 0; i < codes.length; i++)
+            {
+                int was = codes[i];
+                for (int code = 1; rank(code) < rank(was); code = code == rules.getMaxValue() ? 0 : code + 1)
+                {
+                    c.setCode(i, code);
+                    Divergence d = diverges(c, type);
+                    if (d != null)
+                    {
+                        best = d;
+                        shrunk = true;
+                        break;
+                    }
+                    c.setCode(i, was);
+                }
+            }
+        }
+        return best.numbered(divergence.getCaseNumber());
+    }
+
+    /*
+        The order cards are lowered in: number cards by value, then knights.
+     */
+    private int rank(int code)
+    {
+        return code == 0 ? rules.getMaxValue() + 1 : code;
+    }
+
+    /*
+        The divergence of a board on a case, or null if it agrees.
+     */
+    private Divergence diverges(FuzzCase c, BoardType type)
+    {
+        for (Divergence d : check(c))
+        {
+            if (d.getType() == type)
+                return d;
+        }
+        return null;
+    }
+}
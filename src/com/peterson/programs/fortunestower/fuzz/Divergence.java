@@ -0,0 +1,85 @@
+package com.peterson.programs.fortunestower.fuzz;
+
+import com.peterson.programs.fortunestower.BoardType;
+
+/**
+ * The first place a board stopped behaving like Board2D in a case:
+ * the step of the game, the call that answered differently, and both answers.
+ * A call that threw has the exception as its answer.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class Divergence
+{
+    private final BoardType type;
+    private final long caseNumber;
+    private final FuzzCase fuzzCase;
+    private final String step;
+    private final String call;
+    private final String expected;
+    private final String actual;
+
+    /**
+     * Creates a divergence.
+     * @param type the board that diverged
+     * @param caseNumber the number of the case in its run, or -1 for a case made by shrinking
+     * @param fuzzCase the case, which is kept, so it must not be filled again
+     * @param step what had just been done to the boards
+     * @param call the call that answered differently
+     * @param expected what Board2D answered
+     * @param actual what the board answered
+     */
+    public Divergence(BoardType type, long caseNumber, FuzzCase fuzzCase, String step, String call,
+                      String expected, String actual)
+    {
+        this.type = type;
+        this.caseNumber = caseNumber;
+        this.fuzzCase = fuzzCase;
+        this.step = step;
+        this.call = call;
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    /**
+     * Gets the same divergence, numbered as a case of a run.
+     * @param caseNumber the number of the case in its run
+     * @return a divergence of the case number
+     */
+    public Divergence numbered(long caseNumber)
+    {
+        return new Divergence(type, caseNumber, fuzzCase, step, call, expected, actual);
+    }
+
+    public BoardType getType()
+    {
+        return type;
+    }
+
+    public long getCaseNumber()
+    {
+        return caseNumber;
+    }
+
+    public FuzzCase getCase()
+    {
+        return fuzzCase;
+    }
+
+    public String getStep()
+    {
+        return step;
+    }
+
+    public String getCall()
+    {
+        return call;
+    }
+
+    public String toString()
+    {
+        return type + " diverged after " + step + ": " + call
+                + " was " + actual + ", Board2D says " + expected + "\n" + fuzzCase;
+    }
+}
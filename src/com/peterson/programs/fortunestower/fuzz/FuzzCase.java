@@ -0,0 +1,162 @@
+package com.peterson.programs.fortunestower.fuzz;
+
+import com.peterson.programs.fortunestower.Card;
+import com.peterson.programs.fortunestower.RuleSet;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * A game for the boards to be driven through: the cards to deal, in order,
+ * and what the player decides along the way.
+ * The cards are the gate cards first, then every row from the second.
+ * Before each row is dealt the player may turn the gate card over, and after a
+ * misfortune the player either tries to save it or takes the loss; those choices
+ * are two bits a row of a long. The player cashes out instead of dealing the stop row.
+ * A case is filled in place as cases are generated, and copied when one is kept.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class FuzzCase
+{
+    private final RuleSet rules;
+    private final int[] codes;
+    private long decisions;
+    private int stopRow;
+
+    /**
+     * Creates a case of the rules, which deals nothing but the lowest card until it's filled.
+     * @param rules the rules the case is played by
+     * @throws IllegalArgumentException if the rules have more rows than decisions fit in a long
+     */
+    public FuzzCase(RuleSet rules)
+    {
+        if (rules.getLevels() > 32)
+            throw new IllegalArgumentException("A case decides for at most 32 rows");
+        this.rules = rules;
+        codes = new int[rules.getCardsNeeded()];
+        Arrays.fill(codes, 1);
+        stopRow = rules.getLevels();
+    }
+
+    /**
+     * Fills the case with a new game.
+     * Every card is any code the rules deal, knights included, so far more
+     * misfortunes, knights and saves come up than with a real deck.
+     * A quarter of the games are cashed out before the tower is complete.
+     * @param random where the cards and decisions come from
+     */
+    public void fill(RandomGenerator random)
+    {
+        for (int i = 0; i < codes.length; i++)
+            codes[i] = random.nextInt(rules.getMaxValue() + 1);
+        decisions = random.nextLong();
+        if (random.nextInt(4) == 0)
+            stopRow = random.nextInt(2, rules.getLevels());
+        else
+            stopRow = rules.getLevels();
+    }
+
+    /**
+     * Copies the case, so it can be kept while this one is filled again.
+     * @return a new case with the same cards and decisions
+     */
+    public FuzzCase copy()
+    {
+        FuzzCase copy = new FuzzCase(rules);
+        System.arraycopy(codes, 0, copy.codes, 0, codes.length);
+        copy.decisions = decisions;
+        copy.stopRow = stopRow;
+        return copy;
+    }
+
+    /**
+     * Determines if the gate card is turned over before a row is dealt.
+     * @param row the row about to be dealt
+     * @return true to flip the gate card
+     */
+    public boolean flipsBefore(int row)
+    {
+        return (decisions & (1L << (row * 2))) != 0;
+    }
+
+    /**
+     * Determines if the player tries to save a misfortune on a row.
+     * @param row the row the misfortune is on
+     * @return true to use a gate card, false to take the loss
+     */
+    public boolean savesAt(int row)
+    {
+        return (decisions & (1L << (row * 2 + 1))) != 0;
+    }
+
+    public RuleSet getRules()
+    {
+        return rules;
+    }
+
+    int[] getCodes()
+    {
+        return codes;
+    }
+
+    void setCode(int index, int code)
+    {
+        codes[index] = code;
+    }
+
+    long getDecisions()
+    {
+        return decisions;
+    }
+
+    void setDecisions(long decisions)
+    {
+        this.decisions = decisions;
+    }
+
+    /**
+     * Gets the row the player cashes out instead of dealing.
+     * @return the stop row, or the number of levels if the tower is played to the end
+     */
+    public int getStopRow()
+    {
+        return stopRow;
+    }
+
+    void setStopRow(int stopRow)
+    {
+        this.stopRow = stopRow;
+    }
+
+    /**
+     * Writes out the deal row by row, and what the player decides on each row.
+     * Rows the player never reaches are left out.
+     */
+    public String toString()
+    {
+        StringBuilder b = new StringBuilder();
+        int gates = rules.getGateCards();
+        b.append("Gate cards:");
+        for (int i = 0; i < gates; i++)
+            b.append(" ").append(Card.valueOf(codes[i]));
+        b.append("\n");
+
+        int next = gates;
+        for (int row = 1; row < stopRow; row++)
+        {
+            b.append("Row ").append(row).append(":");
+            for (int i = 0; i <= row; i++)
+                b.append(" ").append(Card.valueOf(codes[next++]));
+            if (row > 1 && flipsBefore(row))
+                b.append("  (gate flipped first)");
+            if (row > 2 && savesAt(row))
+                b.append("  (saves a misfortune)");
+            b.append("\n");
+        }
+        if (stopRow < rules.getLevels())
+            b.append("Cashes out instead of dealing row ").append(stopRow).append("\n");
+        return b.toString();
+    }
+}
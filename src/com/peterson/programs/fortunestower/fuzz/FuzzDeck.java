@@ -0,0 +1,60 @@
+package com.peterson.programs.fortunestower.fuzz;
+
+import com.peterson.programs.fortunestower.Card;
+import com.peterson.programs.fortunestower.Deck;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A Deck that deals the cards of a FuzzCase, in order.
+ * Every board being compared has its own deck over the same cards,
+ * so each deals the case from the start however far the others have got.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+class FuzzDeck extends Deck
+{
+    private int[] codes;
+    private int next;
+
+    /**
+     * Creates a deck of the cards of a case.
+     * @param codes the codes to deal, which are shared, not copied
+     */
+    FuzzDeck(int[] codes)
+    {
+        super();
+        load(codes);
+    }
+
+    /**
+     * Starts dealing the cards of a case from the first.
+     * @param codes the codes to deal, which are shared, not copied
+     */
+    void load(int[] codes)
+    {
+        this.codes = codes;
+        next = 0;
+    }
+
+    @Override
+    public Card draw()
+    {
+        return Card.valueOf(drawCode());
+    }
+
+    @Override
+    public int drawCode()
+    {
+        if (next == codes.length)
+            throw new NoSuchElementException("Every card of the case has been dealt");
+        return codes[next++];
+    }
+
+    @Override
+    public boolean hasMoreCards()
+    {
+        return next != codes.length;
+    }
+}
@@ -0,0 +1,133 @@
+package com.peterson.programs.fortunestower.fuzz;
+
+import com.peterson.programs.fortunestower.BoardType;
+
+import java.util.List;
+
+/**
+ * What a run of cases found: how many cases each board diverged on,
+ * and the first of them. Each fuzz task keeps its own report, and the
+ * reports are merged together once the tasks are done, keeping the
+ * divergence of the lowest numbered case, so a seed always reports the same one.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class FuzzReport
+{
+    private final BoardType[] types;
+    private final long[] divergent;
+    private final Divergence[] first;
+    private long cases;
+
+    /**
+     * Creates an empty report.
+     * @param types the boards being compared with Board2D
+     */
+    public FuzzReport(BoardType... types)
+    {
+        this.types = types.clone();
+        divergent = new long[types.length];
+        first = new Divergence[types.length];
+    }
+
+    /**
+     * Records the result of a case.
+     * @param caseNumber the number of the case in the run
+     * @param divergences the divergences BoardFuzzer.check(FuzzCase) found
+     */
+    public void record(long caseNumber, List<Divergence> divergences)
+    {
+        cases++;
+        for (Divergence d : divergences)
+        {
+            int i = indexOf(d.getType());
+            divergent[i]++;
+            if (first[i] == null || caseNumber < first[i].getCaseNumber())
+                first[i] = d.numbered(caseNumber);
+        }
+    }
+
+    /**
+     * Merges another report into this one.
+     * @param other the report to merge in, of the same boards
+     * @return this report
+     */
+    public FuzzReport merge(FuzzReport other)
+    {
+        cases += other.cases;
+        for (int i = 0; i < types.length; i++)
+        {
+            divergent[i] += other.divergent[i];
+            if (first[i] == null || (other.first[i] != null
+                    && other.first[i].getCaseNumber() < first[i].getCaseNumber()))
+                first[i] = other.first[i];
+        }
+        return this;
+    }
+
+    private int indexOf(BoardType type)
+    {
+        for (int i = 0; i < types.length; i++)
+        {
+            if (types[i] == type)
+                return i;
+        }
+        throw new IllegalArgumentException(type + " isn't in the report");
+    }
+
+    public long getCases()
+    {
+        return cases;
+    }
+
+    /**
+     * Gets the number of cases a board diverged on.
+     * @param type the board
+     * @return the number of divergent cases
+     */
+    public long getDivergent(BoardType type)
+    {
+        return divergent[indexOf(type)];
+    }
+
+    /**
+     * Gets the divergence of the lowest numbered case a board diverged on.
+     * @param type the board
+     * @return the first divergence, or null if the board always agreed
+     */
+    public Divergence getFirst(BoardType type)
+    {
+        return first[indexOf(type)];
+    }
+
+    /**
+     * Determines if every board agreed with Board2D on every case.
+     * @return true if nothing diverged
+     */
+    public boolean isClean()
+    {
+        for (long count : divergent)
+        {
+            if (count != 0)
+                return false;
+        }
+        return true;
+    }
+
+    public String toString()
+    {
+        StringBuilder b = new StringBuilder();
+        b.append("Cases: ").append(cases).append("\n");
+        for (int i = 0; i < types.length; i++)
+        {
+            b.append(types[i]).append(": ");
+            if (divergent[i] == 0)
+                b.append("agreed on every case\n");
+            else
+                b.append(String.format("diverged on %d cases (%.4f%%), first on case %d%n",
+                        divergent[i], 100.0 * divergent[i] / cases, first[i].getCaseNumber()));
+        }
+        return b.toString();
+    }
+}
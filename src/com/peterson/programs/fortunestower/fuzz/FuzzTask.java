@@ -0,0 +1,95 @@
+package com.peterson.programs.fortunestower.fuzz;
+
+import com.peterson.programs.fortunestower.BoardType;
+import com.peterson.programs.fortunestower.RandomStreams;
+import com.peterson.programs.fortunestower.RuleSet;
+
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+
+/**
+ * A fork-join task that checks a number of fuzz cases.
+ * Large tasks are split in half until they are small enough to be checked
+ * on a single thread, with a BoardFuzzer of their own, and the reports of
+ * the halves are merged together on the way back up.
+ * The cases are numbered, and every block of BLOCK cases is made from its own
+ * stream of a RandomStreams. Tasks are only split between blocks, so for a seed
+ * the cases, and what is found, are the same however many threads check them.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class FuzzTask extends RecursiveTask<FuzzReport>
+{
+    /*
+        Number of cases below which the task is no longer split.
+     */
+    private static final long THRESHOLD = 50_000;
+
+    /**
+     * The number of cases made from each stream.
+     */
+    public static final long BLOCK = 4096;
+
+    private final RuleSet rules;
+    private final BoardType[] types;
+    private final long first;
+    private final long cases;
+    private final RandomStreams streams;
+
+    /**
+     * Creates a task to check cases made from the streams of a seed.
+     * @param rules the rules the cases are played by
+     * @param types the boards to compare with Board2D, which must all be able to play by the rules
+     * @param cases the number of cases to check
+     * @param streams where the cards and decisions of each block of cases come from
+     */
+    public FuzzTask(RuleSet rules, BoardType[] types, long cases, RandomStreams streams)
+    {
+        this(rules, types.clone(), 0, cases, streams);
+    }
+
+    private FuzzTask(RuleSet rules, BoardType[] types, long first, long cases, RandomStreams streams)
+    {
+        this.rules = rules;
+        this.types = types;
+        this.first = first;
+        this.cases = cases;
+        this.streams = streams;
+    }
+
+    @Override
+    protected FuzzReport compute()
+    {
+        if (cases <= THRESHOLD)
+            return checkAll();
+
+        //split between blocks, so every block is checked by one task
+        long half = cases / 2 / BLOCK * BLOCK;
+        FuzzTask left = new FuzzTask(rules, types, first, half, streams);
+        FuzzTask right = new FuzzTask(rules, types, first + half, cases - half, streams);
+        left.fork();
+        FuzzReport report = right.compute();
+        return report.merge(left.join());
+    }
+
+    /*
+        Checks every case of this task on the current thread,
+        filling one case in place from the stream of each block.
+     */
+    private FuzzReport checkAll()
+    {
+        FuzzReport report = new FuzzReport(types);
+        BoardFuzzer fuzzer = new BoardFuzzer(rules, types);
+        FuzzCase fuzzCase = new FuzzCase(rules);
+        RandomGenerator random = null;
+        for (long i = first; i < first + cases; i++)
+        {
+            if (i % BLOCK == 0)
+                random = streams.stream(i / BLOCK);
+            fuzzCase.fill(random);
+            report.record(i, fuzzer.check(fuzzCase));
+        }
+        return report;
+    }
+}
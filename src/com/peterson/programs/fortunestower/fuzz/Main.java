@@ -0,0 +1,94 @@
+package com.peterson.programs.fortunestower.fuzz;
+
+import com.peterson.programs.fortunestower.Board2D;
+import com.peterson.programs.fortunestower.BoardType;
+import com.peterson.programs.fortunestower.RandomStreams;
+import com.peterson.programs.fortunestower.RuleSet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Differential fuzzing runner.
+ * Checks a number of generated games on every kind of board against Board2D,
+ * spread over every core, and prints how many cases each board diverged on.
+ * The first divergence of each board is shrunk to the smallest case found and printed.
+ * The number of cases can be passed as the first argument, and the names of the
+ * BoardTypes to check as the rest; by default every type but BOARD_2D is checked,
+ * leaving out any that can't play by the rules.
+ * The cases are made from the streams of a seed, which is printed; running with
+ * -Dfortunestower.seed=n checks the same cases again, on any number of threads.
+ * Running with -Dfortunestower.rules=file plays the variant in a properties file.
+ * Running with -Dfortunestower.fuzz.bounds=true also checks the rows either side of the tower.
+ * The runner exits with a status of 1 if anything diverged.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class Main
+{
+    private static final long DEFAULT_CASES = 10_000_000;
+
+    public static void main(String[] args) throws IOException
+    {
+        long cases = DEFAULT_CASES;
+        if (args.length > 0)
+            cases = Long.parseLong(args[0]);
+        RuleSet rules = RuleSet.fromSystemProperty();
+        if (rules.getLevels() > Board2D.MAX_LEVELS)
+        {
+            System.out.println("Board2D, which every board is checked against, has at most "
+                    + Board2D.MAX_LEVELS + " levels");
+            return;
+        }
+
+        List<BoardType> types = new ArrayList<>();
+        if (args.length > 1)
+        {
+            for (int i = 1; i < args.length; i++)
+                types.add(BoardType.valueOf(args[i].toUpperCase()));
+        }
+        else
+        {
+            for (BoardType type : BoardType.values())
+            {
+                if (type == BoardType.BOARD_2D)
+                    continue;
+                if (BoardFuzzer.canPlay(type, rules))
+                    types.add(type);
+                else
+                    System.out.println("Leaving out " + type + ", which can't play by the rules");
+            }
+        }
+        BoardType[] checked = types.toArray(new BoardType[0]);
+
+        String seedValue = System.getProperty(com.peterson.programs.fortunestower.simulation.Main.SEED_PROPERTY);
+        RandomStreams streams = seedValue == null ? new RandomStreams() : new RandomStreams(Long.parseLong(seedValue));
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.println("Checking " + cases + " cases on " + pool.getParallelism()
+                + " threads against Board2D: " + types);
+        if (!rules.isStandard())
+            System.out.println("Rules: " + rules);
+        System.out.println("Seed: " + streams.getSeed() + "\n");
+
+        long start = System.nanoTime();
+        FuzzReport report = pool.invoke(new FuzzTask(rules, checked, cases, streams));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.print(report);
+        System.out.printf("Cases/sec: %.0f%n", report.getCases() / seconds);
+
+        BoardFuzzer fuzzer = new BoardFuzzer(rules, checked);
+        for (BoardType type : checked)
+        {
+            Divergence first = report.getFirst(type);
+            if (first != null)
+                System.out.println("\nSmallest case of " + type + " found from case "
+                        + first.getCaseNumber() + ":\n" + fuzzer.shrink(first));
+        }
+
+        if (!report.isClean())
+            System.exit(1);
+    }
+}
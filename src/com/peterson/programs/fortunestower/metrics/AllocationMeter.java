@@ -0,0 +1,208 @@
+package com.peterson.programs.fortunestower.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the bytes one thread allocates, per game and per operation.
+ * The counts come from the thread's allocation counter, which the JVM keeps
+ * anyway, so metering costs a read of the counter and a map lookup per operation
+ * and allocates nothing once every operation has been seen.
+ * <pre>
+ *     meter.begin();
+ *     board.nextRow();
+ *     meter.record("nextRow");
+ *     ...
+ *     meter.endGame();
+ * </pre>
+ * Everything allocated between two calls is charged to the operation named by
+ * the second call. A meter belongs to the thread that uses it; the meters
+ * of other threads can be merged into it afterwards.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class AllocationMeter
+{
+    /**
+     * The system property that turns on allocation accounting in the drivers.
+     */
+    public static final String PROPERTY = "fortunestower.accounting";
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    //operation name to {bytes, count}, in the order they were first seen
+    private final Map<String, long[]> operations;
+    private long mark;
+    private long gameStart;
+    private long gameBytes;
+    private long games;
+
+    /**
+     * Creates a meter with nothing counted.
+     */
+    public AllocationMeter()
+    {
+        operations = new LinkedHashMap<>();
+    }
+
+    private static com.sun.management.ThreadMXBean threads()
+    {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+        {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+
+    /**
+     * Determines if accounting was asked for with the fortunestower.accounting property.
+     * @return true if the drivers should account for allocations
+     */
+    public static boolean isRequested()
+    {
+        return Boolean.getBoolean(PROPERTY);
+    }
+
+    /**
+     * Determines if this JVM counts the bytes each thread allocates.
+     * @return true if meters can count anything
+     */
+    public static boolean isSupported()
+    {
+        return THREADS != null;
+    }
+
+    /**
+     * Gets the bytes the current thread has allocated since it started.
+     * @return the bytes allocated, or 0 if the JVM doesn't count them
+     */
+    public static long threadAllocated()
+    {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Starts a game. Nothing allocated before this is charged to anything.
+     */
+    public void begin()
+    {
+        mark = threadAllocated();
+        gameStart = mark;
+    }
+
+    /**
+     * Charges everything allocated since the last call to an operation.
+     * @param operation the name of the operation that just finished
+     * @return the bytes charged
+     */
+    public long record(String operation)
+    {
+        long now = threadAllocated();
+        long bytes = now - mark;
+        long[] op = operations.get(operation);
+        if (op == null)
+        {
+            op = new long[2];
+            operations.put(operation, op);
+        }
+        op[0] += bytes;
+        op[1]++;
+        //the map entry made above is not charged to anything
+        mark = threadAllocated();
+        return bytes;
+    }
+
+    /**
+     * Ends a game started with begin().
+     * @return the bytes allocated by the game
+     */
+    public long endGame()
+    {
+        long bytes = threadAllocated() - gameStart;
+        gameBytes += bytes;
+        games++;
+        return bytes;
+    }
+
+    /**
+     * Adds the counts of another meter to this one.
+     * @param other the meter to add
+     * @return this meter
+     */
+    public AllocationMeter merge(AllocationMeter other)
+    {
+        for (Map.Entry<String, long[]> e : other.operations.entrySet())
+        {
+            long[] op = operations.get(e.getKey());
+            if (op == null)
+            {
+                op = new long[2];
+                operations.put(e.getKey(), op);
+            }
+            op[0] += e.getValue()[0];
+            op[1] += e.getValue()[1];
+        }
+        gameBytes += other.gameBytes;
+        games += other.games;
+        return this;
+    }
+
+    public long getGames()
+    {
+        return games;
+    }
+
+    /**
+     * Gets the mean bytes allocated by a game.
+     * @return bytes per game, or 0 if no games have ended
+     */
+    public double bytesPerGame()
+    {
+        return games == 0 ? 0 : (double) gameBytes / games;
+    }
+
+    /**
+     * Gets the mean bytes allocated by an operation.
+     * @param operation the name of the operation
+     * @return bytes per call, or 0 if the operation was never recorded
+     */
+    public double bytesPerOperation(String operation)
+    {
+        long[] op = operations.get(operation);
+        return op == null || op[1] == 0 ? 0 : (double) op[0] / op[1];
+    }
+
+    /**
+     * Gets the names of the operations recorded.
+     * @return the names, in the order they were first recorded
+     */
+    public List<String> getOperations()
+    {
+        return new ArrayList<>(operations.keySet());
+    }
+
+    public String toString()
+    {
+        if (!isSupported())
+            return "Allocation accounting is not supported by this JVM\n";
+
+        StringBuilder b = new StringBuilder();
+        b.append(String.format("Allocated: %.1f bytes/game over %d games%n", bytesPerGame(), games));
+        b.append(String.format("  %-20s %12s %12s %12s%n", "operation", "calls", "bytes/call", "bytes/game"));
+        for (Map.Entry<String, long[]> e : operations.entrySet())
+        {
+            long[] op = e.getValue();
+            b.append(String.format("  %-20s %12d %12.1f %12.1f%n", e.getKey(), op[1],
+                    op[1] == 0 ? 0.0 : (double) op[0] / op[1], games == 0 ? 0.0 : (double) op[0] / games));
+        }
+        return b.toString();
+    }
+}
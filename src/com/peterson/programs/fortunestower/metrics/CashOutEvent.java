@@ -0,0 +1,26 @@
+package com.peterson.programs.fortunestower.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for the player cashing out.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+@Name("com.peterson.fortunestower.CashOut")
+@Label("Cash Out")
+@Category("Fortunes Tower")
+@Description("The player cashed out")
+@StackTrace(false)
+class CashOutEvent extends jdk.jfr.Event
+{
+    @Label("Row")
+    int row;
+
+    @Label("Value")
+    int value;
+}
@@ -0,0 +1,194 @@
+package com.peterson.programs.fortunestower.metrics;
+
+/**
+ * Where the game engine reports what happens in a game.
+ * Every event is sent to EngineMetrics when metrics are enabled, and
+ * committed to Flight Recorder when a recording has the event enabled.
+ * With neither, each call is a constant check and a cheap isEnabled()
+ * test, and no event objects are made: the JFR events are only created
+ * once the recording has them turned on.
+ * Rows dealt that aren't part of a game, like the ones shown after a cash out,
+ * are kept out of the reports by dealing them with setQuiet(true).
+ * <pre>
+ *     long start = EngineEvents.dealStarted();
+ *     ...deal the row...
+ *     EngineEvents.rowDealt(start, row, value);
+ * </pre>
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public final class EngineEvents
+{
+    /*
+        One of each event, kept only to ask whether the event type is on.
+        isEnabled() on these reads a flag JFR flips when a recording starts.
+     */
+    private static final RowDealtEvent ROW_DEALT = new RowDealtEvent();
+    private static final MisfortuneEvent MISFORTUNE = new MisfortuneEvent();
+    private static final GateSaveEvent GATE_SAVE = new GateSaveEvent();
+    private static final JackpotEvent JACKPOT = new JackpotEvent();
+    private static final CashOutEvent CASH_OUT = new CashOutEvent();
+
+    private static final EngineMetrics METRICS = EngineMetrics.ENABLED ? EngineMetrics.getInstance() : null;
+
+    //true on a thread dealing rows that aren't reported, only read when something is listening
+    private static final ThreadLocal<boolean[]> QUIET = ThreadLocal.withInitial(() -> new boolean[1]);
+
+    private EngineEvents()
+    {
+    }
+
+    /**
+     * Stops or starts reporting the rows dealt on the calling thread.
+     * @param quiet true to leave the rows dealt from now on out of the reports,
+     *              false to report them again
+     */
+    public static void setQuiet(boolean quiet)
+    {
+        QUIET.get()[0] = quiet;
+    }
+
+    /**
+     * Marks the start of dealing a row.
+     * @return the time the deal started, or 0 if nothing is listening
+     * or the thread is quiet
+     */
+    public static long dealStarted()
+    {
+        if ((EngineMetrics.ENABLED || ROW_DEALT.isEnabled()) && !QUIET.get()[0])
+            return System.nanoTime();
+        return 0;
+    }
+
+    /**
+     * Reports a row that has been dealt.
+     * @param start what dealStarted() returned before the row was dealt
+     * @param row the row dealt
+     * @param value the value of the row
+     */
+    public static void rowDealt(long start, int row, int value)
+    {
+        if (start == 0)
+            return;
+
+        long time = System.nanoTime() - start;
+        if (EngineMetrics.ENABLED)
+            METRICS.rowDealt(time);
+        if (ROW_DEALT.isEnabled())
+        {
+            RowDealtEvent e = new RowDealtEvent();
+            if (e.shouldCommit())
+            {
+                e.row = row;
+                e.value = value;
+                e.dealTime = time;
+                e.commit();
+            }
+        }
+    }
+
+    /**
+     * Reports a misfortune.
+     * @param row the row of the misfortune
+     * @param col the column of the misfortune
+     * @param gateAvailable true if the gate card can still be used
+     */
+    public static void misfortune(int row, int col, boolean gateAvailable)
+    {
+        if (EngineMetrics.ENABLED)
+            METRICS.misfortune();
+        if (MISFORTUNE.isEnabled())
+        {
+            MisfortuneEvent e = new MisfortuneEvent();
+            if (e.shouldCommit())
+            {
+                e.row = row;
+                e.col = col;
+                e.gateAvailable = gateAvailable;
+                e.commit();
+            }
+        }
+    }
+
+    /**
+     * Reports the gate card being used to save the board.
+     * @param row the row of the misfortune being saved
+     * @param col the column of the misfortune being saved
+     * @param succeeded true if the gate card cleared the misfortune
+     */
+    public static void gateSave(int row, int col, boolean succeeded)
+    {
+        if (EngineMetrics.ENABLED)
+            METRICS.saveAttempted(succeeded);
+        if (GATE_SAVE.isEnabled())
+        {
+            GateSaveEvent e = new GateSaveEvent();
+            if (e.shouldCommit())
+            {
+                e.row = row;
+                e.col = col;
+                e.succeeded = succeeded;
+                e.commit();
+            }
+        }
+    }
+
+    /**
+     * Reports a jackpot.
+     * @param value the value of the jackpot
+     */
+    public static void jackpot(int value)
+    {
+        if (EngineMetrics.ENABLED)
+            METRICS.jackpot(value);
+        if (JACKPOT.isEnabled())
+        {
+            JackpotEvent e = new JackpotEvent();
+            if (e.shouldCommit())
+            {
+                e.value = value;
+                e.commit();
+            }
+        }
+    }
+
+    /**
+     * Reports the player cashing out.
+     * @param row the last row dealt
+     * @param value the points won
+     */
+    public static void cashOut(int row, int value)
+    {
+        if (EngineMetrics.ENABLED)
+            METRICS.cashOut(value);
+        if (CASH_OUT.isEnabled())
+        {
+            CashOutEvent e = new CashOutEvent();
+            if (e.shouldCommit())
+            {
+                e.row = row;
+                e.value = value;
+                e.commit();
+            }
+        }
+    }
+
+    /**
+     * Marks the start of a simulated game.
+     * @return the time the game started, or 0 if metrics are disabled
+     */
+    public static long gameStarted()
+    {
+        return EngineMetrics.ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Reports the end of a simulated game.
+     * @param start what gameStarted() returned
+     */
+    public static void gameEnded(long start)
+    {
+        if (EngineMetrics.ENABLED && start != 0)
+            METRICS.gameEnded(System.nanoTime() - start);
+    }
+}
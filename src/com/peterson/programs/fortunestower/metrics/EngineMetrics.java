@@ -0,0 +1,310 @@
+package com.peterson.programs.fortunestower.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the game engine.
+ * Metrics are only collected when the system property fortunestower.metrics
+ * is true; otherwise every call through EngineEvents checks a constant
+ * and returns, which the JIT folds away.
+ * When enabled, the metrics are registered with the platform MBean server as
+ * com.peterson.fortunestower:type=EngineMetrics, and if fortunestower.metrics.port
+ * is set they are also served as plain text by a MetricsServer.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public final class EngineMetrics implements EngineMetricsMBean
+{
+    /**
+     * The system property that turns metrics on.
+     */
+    public static final String ENABLED_PROPERTY = "fortunestower.metrics";
+
+    /**
+     * The system property holding the port of the plain text endpoint.
+     */
+    public static final String PORT_PROPERTY = "fortunestower.metrics.port";
+
+    /**
+     * The name the metrics are registered under.
+     */
+    public static final String OBJECT_NAME = "com.peterson.fortunestower:type=EngineMetrics";
+
+    /**
+     * True if metrics are being collected.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private final LongAdder rowsDealt = new LongAdder();
+    private final LongAdder misfortunes = new LongAdder();
+    private final LongAdder savesAttempted = new LongAdder();
+    private final LongAdder savesSucceeded = new LongAdder();
+    private final LongAdder jackpots = new LongAdder();
+    private final LongAdder jackpotPoints = new LongAdder();
+    private final LongAdder cashOuts = new LongAdder();
+    private final LongAdder cashOutPoints = new LongAdder();
+    private final LongAdder games = new LongAdder();
+    private final LatencyHistogram dealLatency = new LatencyHistogram();
+    private final LatencyHistogram gameLatency = new LatencyHistogram();
+
+    private EngineMetrics()
+    {
+    }
+
+    /*
+        Holds the only instance, which is registered the first
+        time it is asked for.
+     */
+    private static class Holder
+    {
+        private static final EngineMetrics INSTANCE = create();
+
+        private static EngineMetrics create()
+        {
+            EngineMetrics metrics = new EngineMetrics();
+            if (ENABLED)
+            {
+                metrics.register();
+                String port = System.getProperty(PORT_PROPERTY);
+                if (port != null && !port.isEmpty())
+                    MetricsServer.start(metrics, Integer.parseInt(port));
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Gets the metrics of the engine.
+     * @return the only EngineMetrics
+     */
+    public static EngineMetrics getInstance()
+    {
+        return Holder.INSTANCE;
+    }
+
+    /*
+        Registers with the platform MBean server, ignoring a second registration.
+     */
+    private void register()
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name))
+                server.registerMBean(this, name);
+        }
+        catch (JMException e)
+        {
+            System.err.println("Could not register the engine metrics: " + e);
+        }
+    }
+
+    void rowDealt(long nanos)
+    {
+        rowsDealt.increment();
+        dealLatency.record(nanos);
+    }
+
+    void misfortune()
+    {
+        misfortunes.increment();
+    }
+
+    void saveAttempted(boolean succeeded)
+    {
+        savesAttempted.increment();
+        if (succeeded)
+            savesSucceeded.increment();
+    }
+
+    void jackpot(int value)
+    {
+        jackpots.increment();
+        jackpotPoints.add(value);
+    }
+
+    void cashOut(int value)
+    {
+        cashOuts.increment();
+        cashOutPoints.add(value);
+    }
+
+    void gameEnded(long nanos)
+    {
+        games.increment();
+        gameLatency.record(nanos);
+    }
+
+    @Override
+    public long getRowsDealt()
+    {
+        return rowsDealt.sum();
+    }
+
+    @Override
+    public long getMisfortunes()
+    {
+        return misfortunes.sum();
+    }
+
+    @Override
+    public long getSavesAttempted()
+    {
+        return savesAttempted.sum();
+    }
+
+    @Override
+    public long getSavesSucceeded()
+    {
+        return savesSucceeded.sum();
+    }
+
+    @Override
+    public long getJackpots()
+    {
+        return jackpots.sum();
+    }
+
+    @Override
+    public long getJackpotPoints()
+    {
+        return jackpotPoints.sum();
+    }
+
+    @Override
+    public long getCashOuts()
+    {
+        return cashOuts.sum();
+    }
+
+    @Override
+    public long getCashOutPoints()
+    {
+        return cashOutPoints.sum();
+    }
+
+    @Override
+    public long getGames()
+    {
+        return games.sum();
+    }
+
+    @Override
+    public long getDealLatencyP50Nanos()
+    {
+        return dealLatency.percentile(0.5);
+    }
+
+    @Override
+    public long getDealLatencyP99Nanos()
+    {
+        return dealLatency.percentile(0.99);
+    }
+
+    @Override
+    public long getGameLatencyP99Nanos()
+    {
+        return gameLatency.percentile(0.99);
+    }
+
+    @Override
+    public long[] getDealLatencyBuckets()
+    {
+        long[] counts = new long[LatencyHistogram.BUCKETS];
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = dealLatency.getBucket(i);
+        return counts;
+    }
+
+    /**
+     * Gets the histogram of the time to deal a row.
+     * @return the deal latency histogram
+     */
+    public LatencyHistogram getDealLatency()
+    {
+        return dealLatency;
+    }
+
+    /**
+     * Gets the histogram of the time simulated games take.
+     * @return the game latency histogram
+     */
+    public LatencyHistogram getGameLatency()
+    {
+        return gameLatency;
+    }
+
+    @Override
+    public void reset()
+    {
+        rowsDealt.reset();
+        misfortunes.reset();
+        savesAttempted.reset();
+        savesSucceeded.reset();
+        jackpots.reset();
+        jackpotPoints.reset();
+        cashOuts.reset();
+        cashOutPoints.reset();
+        games.reset();
+        dealLatency.reset();
+        gameLatency.reset();
+    }
+
+    /**
+     * Writes the metrics in the Prometheus text format.
+     * @param b where to write them
+     */
+    public void writeText(StringBuilder b)
+    {
+        counter(b, "rows_dealt_total", "Rows dealt", getRowsDealt());
+        counter(b, "misfortunes_total", "Misfortunes found", getMisfortunes());
+        counter(b, "saves_attempted_total", "Gate card saves attempted", getSavesAttempted());
+        counter(b, "saves_succeeded_total", "Gate card saves that cleared the misfortune", getSavesSucceeded());
+        counter(b, "jackpots_total", "Jackpots won", getJackpots());
+        counter(b, "jackpot_points_total", "Points won from jackpots", getJackpotPoints());
+        counter(b, "cash_outs_total", "Games cashed out", getCashOuts());
+        counter(b, "cash_out_points_total", "Points won by cashing out", getCashOutPoints());
+        counter(b, "games_total", "Simulated games finished", getGames());
+        histogram(b, "deal_seconds", "Time to deal a row", dealLatency);
+        histogram(b, "game_seconds", "Time to play a simulated game", gameLatency);
+    }
+
+    private static void counter(StringBuilder b, String name, String help, long value)
+    {
+        b.append("# HELP fortunestower_").append(name).append(' ').append(help).append('\n');
+        b.append("# TYPE fortunestower_").append(name).append(" counter\n");
+        b.append("fortunestower_").append(name).append(' ').append(value).append('\n');
+    }
+
+    /*
+        Writes cumulative buckets, skipping the empty ones past the last duration seen.
+     */
+    private static void histogram(StringBuilder b, String name, String help, LatencyHistogram h)
+    {
+        String metric = "fortunestower_" + name;
+        b.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        b.append("# TYPE ").append(metric).append(" histogram\n");
+
+        int last = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++)
+        {
+            if (h.getBucket(i) != 0)
+                last = i;
+        }
+        long seen = 0;
+        for (int i = 0; i <= last; i++)
+        {
+            seen += h.getBucket(i);
+            b.append(metric).append("_bucket{le=\"")
+                    .append(LatencyHistogram.upperBound(i) / 1e9).append("\"} ").append(seen).append('\n');
+        }
+        b.append(metric).append("_bucket{le=\"+Inf\"} ").append(h.getCount()).append('\n');
+        b.append(metric).append("_sum ").append(h.getSum() / 1e9).append('\n');
+        b.append(metric).append("_count ").append(h.getCount()).append('\n');
+    }
+}
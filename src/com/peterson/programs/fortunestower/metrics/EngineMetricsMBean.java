@@ -0,0 +1,56 @@
+package com.peterson.programs.fortunestower.metrics;
+
+/**
+ * The management interface of EngineMetrics.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public interface EngineMetricsMBean
+{
+    long getRowsDealt();
+
+    long getMisfortunes();
+
+    long getSavesAttempted();
+
+    long getSavesSucceeded();
+
+    long getJackpots();
+
+    long getJackpotPoints();
+
+    long getCashOuts();
+
+    long getCashOutPoints();
+
+    long getGames();
+
+    /**
+     * Gets the median time to deal a row.
+     * @return nanoseconds, to the nearest power of two
+     */
+    long getDealLatencyP50Nanos();
+
+    /**
+     * Gets the 99th percentile of the time to deal a row.
+     * @return nanoseconds, to the nearest power of two
+     */
+    long getDealLatencyP99Nanos();
+
+    /**
+     * Gets the 99th percentile of the time a simulated game takes.
+     * @return nanoseconds, to the nearest power of two
+     */
+    long getGameLatencyP99Nanos();
+
+    /**
+     * Gets the counts of the buckets of the time to deal a row.
+     * @return bucket i holds deals that took less than 2^i nanoseconds
+     */
+    long[] getDealLatencyBuckets();
+
+    /**
+     * Sets every counter and histogram back to 0.
+     */
+    void reset();
+}
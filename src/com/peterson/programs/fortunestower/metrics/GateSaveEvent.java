@@ -0,0 +1,30 @@
+package com.peterson.programs.fortunestower.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for the gate card being used.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+@Name("com.peterson.fortunestower.GateSave")
+@Label("Gate Save")
+@Category("Fortunes Tower")
+@Description("The gate card was used to try to save the board")
+@StackTrace(false)
+class GateSaveEvent extends jdk.jfr.Event
+{
+    @Label("Row")
+    int row;
+
+    @Label("Column")
+    int col;
+
+    @Label("Succeeded")
+    @Description("True if the gate card cleared the misfortune")
+    boolean succeeded;
+}
@@ -0,0 +1,23 @@
+package com.peterson.programs.fortunestower.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a jackpot.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+@Name("com.peterson.fortunestower.Jackpot")
+@Label("Jackpot")
+@Category("Fortunes Tower")
+@Description("The board was completed without using the gate card")
+@StackTrace(false)
+class JackpotEvent extends jdk.jfr.Event
+{
+    @Label("Value")
+    int value;
+}
@@ -0,0 +1,123 @@
+package com.peterson.programs.fortunestower.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations that any number of threads can record into.
+ * Bucket i counts durations of less than 2^i nanoseconds that aren't in
+ * a smaller bucket, so 40 buckets reach past ten minutes.
+ * The buckets are LongAdders, so threads recording at once don't contend.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class LatencyHistogram
+{
+    /**
+     * The number of buckets.
+     */
+    public static final int BUCKETS = 40;
+
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram()
+    {
+        buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            buckets[i] = new LongAdder();
+        count = new LongAdder();
+        sum = new LongAdder();
+    }
+
+    /**
+     * Records a duration.
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+            nanos = 0;
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+        buckets[bucket].increment();
+        count.increment();
+        sum.add(nanos);
+    }
+
+    /**
+     * Gets the upper bound of a bucket.
+     * @param bucket the bucket
+     * @return the largest duration in the bucket, in nanoseconds, plus one
+     */
+    public static long upperBound(int bucket)
+    {
+        return 1L << bucket;
+    }
+
+    /**
+     * Gets the number of durations in a bucket.
+     * @param bucket the bucket
+     * @return the number of durations
+     */
+    public long getBucket(int bucket)
+    {
+        return buckets[bucket].sum();
+    }
+
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    /**
+     * Gets the total of every duration recorded.
+     * @return the sum in nanoseconds
+     */
+    public long getSum()
+    {
+        return sum.sum();
+    }
+
+    /**
+     * Gets a percentile, to the nearest bucket.
+     * @param p the percentile, from 0 to 1
+     * @return the upper bound of the bucket the percentile is in, in nanoseconds,
+     *         or 0 if nothing has been recorded
+     */
+    public long percentile(double p)
+    {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(p * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += counts[i];
+            if (seen >= rank)
+                return upperBound(i);
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Sets every bucket back to 0.
+     */
+    public void reset()
+    {
+        for (LongAdder b : buckets)
+            b.reset();
+        count.reset();
+        sum.reset();
+    }
+}
@@ -0,0 +1,88 @@
+package com.peterson.programs.fortunestower.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the engine metrics as plain text at /metrics, in the
+ * format Prometheus scrapes.
+ * The server runs on a single daemon thread so it never keeps a game open.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class MetricsServer
+{
+    private final HttpServer server;
+    private final EngineMetrics metrics;
+
+    private MetricsServer(EngineMetrics metrics, int port) throws IOException
+    {
+        this.metrics = metrics;
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(Executors.newSingleThreadExecutor(r ->
+        {
+            Thread t = new Thread(r, "metrics-server");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    /**
+     * Starts serving metrics.
+     * @param metrics the metrics to serve
+     * @param port the port to listen on, 0 for any free port
+     * @return the server, or null if it could not be started
+     */
+    public static MetricsServer start(EngineMetrics metrics, int port)
+    {
+        try
+        {
+            MetricsServer s = new MetricsServer(metrics, port);
+            s.server.start();
+            return s;
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not start the metrics server on port " + port + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Gets the port being listened on.
+     * @return the port
+     */
+    public int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops serving metrics.
+     */
+    public void stop()
+    {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        StringBuilder b = new StringBuilder();
+        metrics.writeText(b);
+        byte[] body = b.toString().getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody())
+        {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.peterson.programs.fortunestower.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a misfortune being found.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+@Name("com.peterson.fortunestower.Misfortune")
+@Label("Misfortune")
+@Category("Fortunes Tower")
+@Description("A misfortune was found on the last row dealt")
+@StackTrace(false)
+class MisfortuneEvent extends jdk.jfr.Event
+{
+    @Label("Row")
+    int row;
+
+    @Label("Column")
+    int col;
+
+    @Label("Gate Available")
+    @Description("True if the gate card can still be used to save the board")
+    boolean gateAvailable;
+}
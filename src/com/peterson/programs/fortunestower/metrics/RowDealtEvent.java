@@ -0,0 +1,31 @@
+package com.peterson.programs.fortunestower.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for a row being dealt.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+@Name("com.peterson.fortunestower.RowDealt")
+@Label("Row Dealt")
+@Category("Fortunes Tower")
+@Description("A row of cards was dealt")
+@StackTrace(false)
+class RowDealtEvent extends jdk.jfr.Event
+{
+    @Label("Row")
+    int row;
+
+    @Label("Value")
+    int value;
+
+    @Label("Deal Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long dealTime;
+}
@@ -0,0 +1,102 @@
+package com.peterson.programs.fortunestower.replay;
+
+import com.peterson.programs.fortunestower.ArrayDeck;
+import com.peterson.programs.fortunestower.Board;
+import com.peterson.programs.fortunestower.Board2D;
+import com.peterson.programs.fortunestower.Deck;
+import com.peterson.programs.fortunestower.simulation.CashOutStrategy;
+import com.peterson.programs.fortunestower.simulation.GameOutcome;
+import com.peterson.programs.fortunestower.simulation.GameSimulator;
+import com.peterson.programs.fortunestower.simulation.SimulationStats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Replay log runner.
+ * Plays seeded games on a Diamond deck, cashing out after a random row half
+ * of the time, and records them to a log. Then reads the log back, plays
+ * every game again on a Board2D and checks each one ends the same way.
+ * Arguments are the number of games, the log file, and "seed" to record
+ * games by their seed instead of their cards. The log is replaced if it exists.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class Main
+{
+    private static final long DEFAULT_GAMES = 1_000_000;
+    private static final String DEFAULT_FILE = "games.ftr";
+
+    public static void main(String[] args) throws IOException
+    {
+        long games = DEFAULT_GAMES;
+        if (args.length > 0)
+            games = Long.parseLong(args[0]);
+        Path file = Paths.get(args.length > 1 ? args[1] : DEFAULT_FILE);
+        boolean bySeed = args.length > 2 && args[2].equalsIgnoreCase("seed");
+
+        Files.deleteIfExists(file);
+        final Random decisions = new Random(1);
+        final int[] cashOutRow = new int[1];
+        GameSimulator simulator = new GameSimulator(new CashOutStrategy()
+        {
+            @Override
+            public boolean cashOut(Board board)
+            {
+                return board.getLastRow().length - 1 == cashOutRow[0];
+            }
+        }, new SimulationStats());
+
+        Random seeds = new Random(42);
+        ArrayDeck deck = new ArrayDeck(Deck.DIAMOND_DECK, 0);
+        ReplayRecord record = new ReplayRecord();
+
+        long start = System.nanoTime();
+        try (ReplayWriter writer = new ReplayWriter(file))
+        {
+            for (long i = 0; i < games; i++)
+            {
+                long seed = seeds.nextLong();
+                cashOutRow[0] = decisions.nextBoolean() ? 0 : 1 + decisions.nextInt(6);
+
+                deck.reset(seed);
+                Board board = new Board2D(deck);
+                GameOutcome outcome = simulator.play(board);
+                int row = outcome == GameOutcome.CASHED_OUT ? cashOutRow[0] : 0;
+                boolean gateUsed = board.getCardsInRow(0)[0] == null;
+
+                if (bySeed)
+                    record.setSeed(seed, Deck.DIAMOND_DECK, row, gateUsed, outcome);
+                else
+                    record.setDeal(deck, row, gateUsed, outcome);
+                writer.write(record);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Played and recorded %d games by %s in %.2f seconds%n", games,
+                bySeed ? "seed" : "cards", seconds);
+        System.out.printf("Log size: %d bytes, %.1f bytes per game%n%n", Files.size(file),
+                (double) Files.size(file) / games);
+
+        Replayer replayer = new Replayer();
+        long mismatches = 0;
+        start = System.nanoTime();
+        try (ReplayReader reader = new ReplayReader(file))
+        {
+            while (reader.next(record))
+            {
+                if (!replayer.verify(record))
+                    mismatches++;
+            }
+        }
+        seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.print(replayer.getStats());
+        System.out.printf("Replayed %d games in %.2f seconds, %.0f games/sec%n",
+                replayer.getStats().getGames(), seconds, replayer.getStats().getGames() / seconds);
+        System.out.println("Games that ended differently: " + mismatches);
+    }
+}
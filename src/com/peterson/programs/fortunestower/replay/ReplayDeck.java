@@ -0,0 +1,77 @@
+package com.peterson.programs.fortunestower.replay;
+
+import com.peterson.programs.fortunestower.Card;
+import com.peterson.programs.fortunestower.Deck;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A Deck that deals the cards of a recorded game, in order.
+ * The cards it deals are the shared Cards, so loading a game
+ * and dealing it makes nothing.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class ReplayDeck extends Deck
+{
+    private final int[] codes;
+    private int next;
+
+    /**
+     * Creates a deck with nothing loaded into it.
+     */
+    public ReplayDeck()
+    {
+        super();
+        codes = new int[ReplayRecord.CARDS];
+        next = ReplayRecord.CARDS;
+    }
+
+    /**
+     * Loads the cards of a dealt game, ready to deal from the first.
+     * @param record a record of a dealt game
+     * @throws IllegalArgumentException if the record is of a seeded game
+     */
+    public void load(ReplayRecord record)
+    {
+        if (record.isSeeded())
+            throw new IllegalArgumentException("A seeded game is dealt by an ArrayDeck");
+
+        for (int i = 0; i < codes.length; i++)
+            codes[i] = record.getCode(i);
+        next = 0;
+    }
+
+    @Override
+    public Card draw()
+    {
+        return Card.valueOf(drawCode());
+    }
+
+    @Override
+    public int drawCode()
+    {
+        if (next == codes.length)
+            throw new NoSuchElementException("Every recorded card has been dealt");
+        return codes[next++];
+    }
+
+    @Override
+    public boolean hasMoreCards()
+    {
+        return next != codes.length;
+    }
+
+    public String toString()
+    {
+        StringBuilder b = new StringBuilder();
+        for (int i = next; i < codes.length; i++)
+        {
+            b.append(Card.valueOf(codes[i]));
+            b.append("\n");
+        }
+
+        return b.toString();
+    }
+}
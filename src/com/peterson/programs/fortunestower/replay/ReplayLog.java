@@ -0,0 +1,105 @@
+package com.peterson.programs.fortunestower.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random access to the games in a replay log.
+ * The file is memory mapped, so reading a game anywhere in it
+ * only touches the page the game is on.
+ * Records are all the same size, so where a game is is worked out
+ * rather than searched for; the only index is a table of the mapped chunks,
+ * one for every gigabyte of the file, since a single mapping can't be larger than 2GB.
+ * The games in the file when it was opened are the only ones seen.
+ * A log is not thread safe.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class ReplayLog implements Closeable
+{
+    /*
+        Records in a mapped chunk; a little over a gigabyte.
+     */
+    private static final long CHUNK_RECORDS = (1L << 30) / ReplayRecord.BYTES;
+
+    private final FileChannel channel;
+    //null once the log is closed
+    private ByteBuffer[] chunks;
+    private final long size;
+
+    /**
+     * Opens and maps a log.
+     * @param file the log file
+     * @throws IOException if the file can't be opened or mapped
+     */
+    public ReplayLog(Path file) throws IOException
+    {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try
+        {
+            size = channel.size() / ReplayRecord.BYTES;
+            int count = (int) ((size + CHUNK_RECORDS - 1) / CHUNK_RECORDS);
+            chunks = new ByteBuffer[count];
+            for (int i = 0; i < count; i++)
+            {
+                long first = i * CHUNK_RECORDS;
+                long records = Math.min(CHUNK_RECORDS, size - first);
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY,
+                        first * ReplayRecord.BYTES, records * ReplayRecord.BYTES);
+                chunks[i] = map;
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of games in the log.
+     * @return the number of whole records
+     */
+    public long size()
+    {
+        return size;
+    }
+
+    /**
+     * Reads a game.
+     * @param index the game to read, 0 being the first
+     * @param record the record to read into
+     * @throws IndexOutOfBoundsException if there is no such game
+     * @throws IllegalArgumentException if the bytes there aren't a record
+     * @throws IllegalStateException if the log has been closed
+     */
+    public void read(long index, ReplayRecord record)
+    {
+        if (chunks == null)
+            throw new IllegalStateException("The replay log is closed");
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Game " + index + " of " + size);
+
+        ByteBuffer chunk = chunks[(int) (index / CHUNK_RECORDS)];
+        chunk.position((int) (index % CHUNK_RECORDS) * ReplayRecord.BYTES);
+        record.read(chunk);
+    }
+
+    /**
+     * Closes the file, after which no more games can be read.
+     * The log lets go of the mapping, which stays until it is garbage collected.
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        chunks = null;
+        channel.close();
+    }
+}
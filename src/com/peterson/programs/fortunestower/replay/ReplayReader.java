@@ -0,0 +1,109 @@
+package com.peterson.programs.fortunestower.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the ReplayRecords in a log file, in order.
+ * The file is read through its channel into a direct buffer many records at a time.
+ * A record cut short at the end of the file, from a writer that didn't finish,
+ * is ignored.
+ * A reader is not thread safe.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class ReplayReader implements Closeable
+{
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Opens a log to read from the start.
+     * @param file the log file
+     * @throws IOException if the file can't be opened
+     */
+    public ReplayReader(Path file) throws IOException
+    {
+        this(file, ReplayWriter.DEFAULT_BATCH);
+    }
+
+    /**
+     * Opens a log to read from the start.
+     * @param file the log file
+     * @param batch the number of records read from the file at a time
+     * @throws IOException if the file can't be opened
+     */
+    public ReplayReader(Path file, int batch) throws IOException
+    {
+        if (batch < 1)
+            throw new IllegalArgumentException("A batch needs at least one record");
+
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer = ByteBuffer.allocateDirect(batch * ReplayRecord.BYTES);
+        buffer.limit(0);
+    }
+
+    /**
+     * Gets the number of whole records in the log.
+     * @return the number of records
+     * @throws IOException if the size of the file can't be read
+     */
+    public long size() throws IOException
+    {
+        return channel.size() / ReplayRecord.BYTES;
+    }
+
+    /**
+     * Moves to a record, so it is the next one read.
+     * @param index the record to read next, 0 being the first
+     * @throws IOException if the file can't be moved in
+     */
+    public void seek(long index) throws IOException
+    {
+        channel.position(index * ReplayRecord.BYTES);
+        buffer.clear();
+        buffer.limit(0);
+    }
+
+    /**
+     * Reads the next record.
+     * @param record the record to read into
+     * @return true if a record was read, false at the end of the log
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the bytes read aren't a record
+     */
+    public boolean next(ReplayRecord record) throws IOException
+    {
+        if (buffer.remaining() < ReplayRecord.BYTES && !fill())
+            return false;
+
+        record.read(buffer);
+        return true;
+    }
+
+    /*
+        Reads as much of the file as fits in the buffer, keeping what was left.
+        Returns false if there isn't a whole record left.
+     */
+    private boolean fill() throws IOException
+    {
+        buffer.compact();
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+        {
+            //keep reading until the buffer is full or the file ends
+        }
+        buffer.flip();
+        return buffer.remaining() >= ReplayRecord.BYTES;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+}
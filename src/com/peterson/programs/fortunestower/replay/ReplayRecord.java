@@ -0,0 +1,251 @@
+package com.peterson.programs.fortunestower.replay;
+
+import com.peterson.programs.fortunestower.ArrayDeck;
+import com.peterson.programs.fortunestower.simulation.GameOutcome;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A game of Fortune's Tower in 20 bytes.
+ * A game is recorded either by the seed of the ArrayDeck it was played with,
+ * or by the 36 cards that deck dealt, so it can be played again exactly,
+ * along with the row the player cashed out after, whether the gate card was used
+ * and how the game ended, which a replay can be checked against.
+ * A dealt game is laid out as:
+ *   bytes 0-17   the codes of the 36 cards in the order they were dealt, two to a byte,
+ *                the first card in the low 4 bits
+ *   byte 18      the row cashed out after, or 0 if the player didn't cash out
+ *   byte 19      flags; bit 0 is set if the gate card was used, bits 1-2 are the
+ *                GameOutcome and bit 7 is clear
+ * A seeded game is laid out as:
+ *   bytes 0-7    the seed
+ *   bytes 8-9    the number of cards in the deck
+ *   bytes 10-17  unused, 0
+ *   bytes 18-19  the same as a dealt game, but with bit 7 of the flags set
+ * Numbers are big endian, as ByteBuffer writes them.
+ * A record is meant to be reused; reading into it replaces everything in it.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class ReplayRecord
+{
+    /**
+     * The size of a record in bytes.
+     */
+    public static final int BYTES = 20;
+
+    /**
+     * The number of cards dealt on a whole board.
+     */
+    public static final int CARDS = 36;
+
+    private static final int DECISION_BYTE = 18;
+    private static final int GATE_USED = 0x01;
+    private static final int OUTCOME_SHIFT = 1;
+    private static final int OUTCOME_MASK = 0x03;
+    private static final int SEEDED = 0x80;
+
+    private static final GameOutcome[] OUTCOMES = GameOutcome.values();
+
+    private final int[] codes;
+    private boolean seeded;
+    private long seed;
+    private int deckSize;
+    private int cashOutRow;
+    private boolean gateUsed;
+    private GameOutcome outcome;
+
+    /**
+     * Creates an empty record of a dealt game where every card is a knight.
+     */
+    public ReplayRecord()
+    {
+        codes = new int[CARDS];
+        outcome = GameOutcome.COMPLETE;
+    }
+
+    /**
+     * Records a game by the cards it was dealt.
+     * Any of the 36 cards the game didn't get to are drawn from the deck,
+     * so the record holds everything the board would have dealt.
+     * @param deck the deck the game was played with, reset before the game
+     * @param cashOutRow the row cashed out after, or 0 if the player didn't cash out
+     * @param gateUsed true if the gate card was used
+     * @param outcome how the game ended
+     * @throws java.util.NoSuchElementException if the deck has fewer than 36 cards
+     */
+    public void setDeal(ArrayDeck deck, int cashOutRow, boolean gateUsed, GameOutcome outcome)
+    {
+        while (deck.drawnCount() < CARDS)
+            deck.drawCode();
+        for (int i = 0; i < CARDS; i++)
+            codes[i] = deck.drawnCode(i);
+
+        seeded = false;
+        seed = 0;
+        deckSize = 0;
+        setDecisions(cashOutRow, gateUsed, outcome);
+    }
+
+    /**
+     * Records a game by the seed of its deck.
+     * @param seed the seed the ArrayDeck was made or reset with
+     * @param deckSize the number of cards in the deck
+     * @param cashOutRow the row cashed out after, or 0 if the player didn't cash out
+     * @param gateUsed true if the gate card was used
+     * @param outcome how the game ended
+     */
+    public void setSeed(long seed, int deckSize, int cashOutRow, boolean gateUsed, GameOutcome outcome)
+    {
+        if (deckSize < CARDS || deckSize > 0xFFFF)
+            throw new IllegalArgumentException("A deck must have between " + CARDS + " and 65535 cards");
+
+        seeded = true;
+        this.seed = seed;
+        this.deckSize = deckSize;
+        setDecisions(cashOutRow, gateUsed, outcome);
+    }
+
+    private void setDecisions(int cashOutRow, boolean gateUsed, GameOutcome outcome)
+    {
+        if (cashOutRow < 0 || cashOutRow > 7)
+            throw new IllegalArgumentException("The cash out row must be between 0 and 7");
+
+        this.cashOutRow = cashOutRow;
+        this.gateUsed = gateUsed;
+        this.outcome = outcome;
+    }
+
+    /**
+     * Writes the record at the buffer's position.
+     * @param buffer the buffer to write to, with at least BYTES remaining
+     */
+    public void write(ByteBuffer buffer)
+    {
+        if (seeded)
+        {
+            buffer.putLong(seed);
+            buffer.putShort((short) deckSize);
+            buffer.putLong(0);
+        }
+        else
+        {
+            for (int i = 0; i < CARDS; i += 2)
+                buffer.put((byte) (codes[i] | (codes[i + 1] << 4)));
+        }
+
+        int flags = (outcome.ordinal() << OUTCOME_SHIFT) | (gateUsed ? GATE_USED : 0) | (seeded ? SEEDED : 0);
+        buffer.put((byte) cashOutRow);
+        buffer.put((byte) flags);
+    }
+
+    /**
+     * Reads a record from the buffer's position into this record.
+     * @param buffer the buffer to read from, with at least BYTES remaining
+     * @throws IllegalArgumentException if the bytes aren't a record
+     */
+    public void read(ByteBuffer buffer)
+    {
+        int start = buffer.position();
+        int cashOut = buffer.get(start + DECISION_BYTE);
+        int flags = buffer.get(start + DECISION_BYTE + 1) & 0xFF;
+        if (cashOut < 0 || cashOut > 7 || (flags & ~(SEEDED | GATE_USED | (OUTCOME_MASK << OUTCOME_SHIFT))) != 0)
+            throw new IllegalArgumentException("Not a replay record at byte " + start);
+
+        seeded = (flags & SEEDED) != 0;
+        if (seeded)
+        {
+            seed = buffer.getLong();
+            deckSize = buffer.getShort() & 0xFFFF;
+            buffer.position(start + DECISION_BYTE);
+        }
+        else
+        {
+            seed = 0;
+            deckSize = 0;
+            for (int i = 0; i < CARDS; i += 2)
+            {
+                int b = buffer.get();
+                codes[i] = b & 0x0F;
+                codes[i + 1] = (b >>> 4) & 0x0F;
+            }
+        }
+        buffer.get();
+        buffer.get();
+
+        cashOutRow = cashOut;
+        gateUsed = (flags & GATE_USED) != 0;
+        outcome = OUTCOMES[(flags >>> OUTCOME_SHIFT) & OUTCOME_MASK];
+    }
+
+    /**
+     * Determines if this game is recorded by its seed rather than its cards.
+     * @return true for a seeded game
+     */
+    public boolean isSeeded()
+    {
+        return seeded;
+    }
+
+    /**
+     * Gets the seed of a seeded game.
+     * @return the seed, or 0 for a dealt game
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * Gets the size of the deck of a seeded game.
+     * @return the number of cards, or 0 for a dealt game
+     */
+    public int getDeckSize()
+    {
+        return deckSize;
+    }
+
+    /**
+     * Gets a card of a dealt game.
+     * @param index which card, 0 being the gate card and the rest going row by row
+     * @return the code of the card, which is its value
+     */
+    public int getCode(int index)
+    {
+        return codes[index];
+    }
+
+    public int getCashOutRow()
+    {
+        return cashOutRow;
+    }
+
+    public boolean isGateUsed()
+    {
+        return gateUsed;
+    }
+
+    public GameOutcome getOutcome()
+    {
+        return outcome;
+    }
+
+    public String toString()
+    {
+        StringBuilder b = new StringBuilder();
+        if (seeded)
+        {
+            b.append("seed ").append(seed).append(", ").append(deckSize).append(" cards");
+        }
+        else
+        {
+            b.append("cards ");
+            for (int c : codes)
+                b.append(c);
+        }
+        b.append(", cash out row ").append(cashOutRow);
+        b.append(gateUsed ? ", gate used, " : ", ").append(outcome);
+        return b.toString();
+    }
+}
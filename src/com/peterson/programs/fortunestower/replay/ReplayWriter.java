@@ -0,0 +1,110 @@
+package com.peterson.programs.fortunestower.replay;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends ReplayRecords to a log file.
+ * Records are gathered in a direct buffer and written to the file's
+ * channel a batch at a time, so writing a game is usually just copying 20 bytes.
+ * The file is only ever added to; records already in it are left alone.
+ * Records still in the buffer are lost if the writer isn't flushed or closed.
+ * A writer is not thread safe.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class ReplayWriter implements Closeable, Flushable
+{
+    /**
+     * The number of records in a batch by default.
+     */
+    public static final int DEFAULT_BATCH = 4096;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long written;
+
+    /**
+     * Opens a log to add to, creating it if it isn't there.
+     * @param file the log file
+     * @throws IOException if the file can't be opened
+     */
+    public ReplayWriter(Path file) throws IOException
+    {
+        this(file, DEFAULT_BATCH);
+    }
+
+    /**
+     * Opens a log to add to, creating it if it isn't there.
+     * @param file the log file
+     * @param batch the number of records written to the file at a time
+     * @throws IOException if the file can't be opened
+     */
+    public ReplayWriter(Path file, int batch) throws IOException
+    {
+        if (batch < 1)
+            throw new IllegalArgumentException("A batch needs at least one record");
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        buffer = ByteBuffer.allocateDirect(batch * ReplayRecord.BYTES);
+    }
+
+    /**
+     * Adds a record to the log.
+     * @param record the game to add
+     * @throws IOException if a full batch can't be written
+     */
+    public void write(ReplayRecord record) throws IOException
+    {
+        if (buffer.remaining() < ReplayRecord.BYTES)
+            flush();
+        record.write(buffer);
+        written++;
+    }
+
+    /**
+     * Writes every buffered record to the file.
+     * @throws IOException if the records can't be written
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Gets the number of records written by this writer.
+     * @return the number of records, including any still in the buffer
+     */
+    public long getRecordsWritten()
+    {
+        return written;
+    }
+
+    /**
+     * Writes every buffered record and closes the file.
+     * @throws IOException if the records can't be written
+     */
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            flush();
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.peterson.programs.fortunestower.replay;
+
+import com.peterson.programs.fortunestower.ArrayDeck;
+import com.peterson.programs.fortunestower.Board;
+import com.peterson.programs.fortunestower.Board2D;
+import com.peterson.programs.fortunestower.Deck;
+import com.peterson.programs.fortunestower.simulation.CashOutStrategy;
+import com.peterson.programs.fortunestower.simulation.GameOutcome;
+import com.peterson.programs.fortunestower.simulation.GameSimulator;
+import com.peterson.programs.fortunestower.simulation.SimulationStats;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Plays recorded games again on a Board2D.
+ * A dealt game is dealt from a ReplayDeck, and a seeded game from an ArrayDeck
+ * reset with its seed, and the player cashes out after the recorded row.
+ * The decks are kept between games, so replaying makes nothing but the board.
+ * Every replayed game is added to the replayer's stats.
+ * A replayer is not thread safe; each thread should use its own.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class Replayer
+{
+    private final ReplayDeck replayDeck;
+    private final Map<Integer, ArrayDeck> seededDecks;
+    private final SimulationStats stats;
+    private final GameSimulator simulator;
+
+    private int cashOutRow;
+    private Board board;
+
+    /**
+     * Creates a replayer with its own stats.
+     */
+    public Replayer()
+    {
+        this(new SimulationStats());
+    }
+
+    /**
+     * Creates a replayer.
+     * @param stats where every replayed game is recorded
+     */
+    public Replayer(SimulationStats stats)
+    {
+        replayDeck = new ReplayDeck();
+        seededDecks = new HashMap<>();
+        this.stats = stats;
+        simulator = new GameSimulator(new RecordedStrategy(), stats);
+    }
+
+    /**
+     * Plays a recorded game again.
+     * @param record the game to play
+     * @return how the game ended when played again
+     */
+    public GameOutcome replay(ReplayRecord record)
+    {
+        cashOutRow = record.getCashOutRow();
+        board = new Board2D(deckFor(record));
+        return simulator.play(board);
+    }
+
+    /**
+     * Deals a recorded game up to a row, for looking at rather than scoring.
+     * The gate card is used on the first misfortune and the game stops at the second,
+     * but the player's cash out is ignored, so the rest of the board can be seen
+     * like the "What if?" of the game. Nothing is added to the stats.
+     * @param record the game to deal
+     * @param row the last row to deal, from 1 to 7
+     * @return the board, with rows dealt up to row or the row that ended the game
+     */
+    public Board dealTo(ReplayRecord record, int row)
+    {
+        board = new Board2D(deckFor(record));
+        boolean saved = false;
+        while (!board.isComplete() && board.getLastRow().length - 1 < row)
+        {
+            board.nextRow();
+            if (board.misFortune())
+            {
+                if (saved)
+                    break;
+                saved = true;
+                board.trySave();
+                if (board.misFortune())
+                    break;
+            }
+        }
+        return board;
+    }
+
+    /*
+        Gets a deck ready to deal a recorded game from the start.
+     */
+    private Deck deckFor(ReplayRecord record)
+    {
+        if (!record.isSeeded())
+        {
+            replayDeck.load(record);
+            return replayDeck;
+        }
+
+        ArrayDeck deck = seededDecks.get(record.getDeckSize());
+        if (deck == null)
+        {
+            deck = new ArrayDeck(record.getDeckSize(), record.getSeed());
+            seededDecks.put(record.getDeckSize(), deck);
+        }
+        deck.reset(record.getSeed());
+        return deck;
+    }
+
+    /**
+     * Plays a recorded game again and checks it ends the way it was recorded.
+     * @param record the game to play
+     * @return true if the outcome and the use of the gate card match the record
+     */
+    public boolean verify(ReplayRecord record)
+    {
+        GameOutcome outcome = replay(record);
+        boolean gateUsed = board.getCardsInRow(0)[0] == null;
+        return outcome == record.getOutcome() && gateUsed == record.isGateUsed();
+    }
+
+    /**
+     * Gets the board of the last game replayed.
+     * @return the board, as it was when the game ended
+     */
+    public Board getBoard()
+    {
+        return board;
+    }
+
+    /**
+     * Gets the stats of every game replayed.
+     * @return the stats
+     */
+    public SimulationStats getStats()
+    {
+        return stats;
+    }
+
+    /*
+        Cashes out after the row of the game being replayed.
+     */
+    private class RecordedStrategy implements CashOutStrategy
+    {
+        @Override
+        public boolean cashOut(Board board)
+        {
+            return cashOutRow != 0 && board.getLastRow().length - 1 == cashOutRow;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.peterson.programs.fortunestower.simulation;
+
+import com.peterson.programs.fortunestower.Board;
+
+/**
+ * Decides when a simulated player cashes out.
+ * The strategy is asked before every deal, so the
+ * last dealt row of the board is the row that would be won.
+ * Strategies are shared between simulation threads, so
+ * implementations must be stateless or thread safe.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public interface CashOutStrategy
+{
+    /**
+     * A strategy that never cashes out, playing every game
+     * until it is complete or ends in a misfortune.
+     */
+    CashOutStrategy NEVER = new CashOutStrategy()
+    {
+        @Override
+        public boolean cashOut(Board board)
+        {
+            return false;
+        }
+    };
+
+    /**
+     * Determines if the player should cash out instead of dealing the next row.
+     * @param board the board of the game in progress
+     * @return true to cash out and win the value of the last dealt row
+     */
+    boolean cashOut(Board board);
+}
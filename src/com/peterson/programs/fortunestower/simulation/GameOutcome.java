@@ -0,0 +1,30 @@
+package com.peterson.programs.fortunestower.simulation;
+
+/**
+ * The ways a single game of Fortune's Tower can end.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public enum GameOutcome
+{
+    /**
+     * All rows were dealt and the gate card was never used.
+     */
+    JACKPOT,
+
+    /**
+     * All rows were dealt, but the gate card was used to save the board.
+     * The player wins the value of the last row.
+     */
+    COMPLETE,
+
+    /**
+     * The player cashed out before the board was complete.
+     */
+    CASHED_OUT,
+
+    /**
+     * A misfortune could not be saved, and the player wins nothing.
+     */
+    MISFORTUNE
+}
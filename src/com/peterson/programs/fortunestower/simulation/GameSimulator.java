@@ -0,0 +1,166 @@
+package com.peterson.programs.fortunestower.simulation;
+
+import com.peterson.programs.fortunestower.Board;
+import com.peterson.programs.fortunestower.metrics.AllocationMeter;
+import com.peterson.programs.fortunestower.metrics.EngineEvents;
+
+/**
+ * Plays complete games of Fortune's Tower without any input.
+ * The game follows the same steps as the command line and Swing
+ * games: deal a row, check for a misfortune, use the gate card
+ * on the first misfortune and end the game on the second.
+ * See the file "fortunes tower algorithm" for the details.
+ * A simulator is not thread safe; each thread should use its own.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class GameSimulator
+{
+    private final CashOutStrategy strategy;
+    private final SimulationStats stats;
+    private final StreamingStats detail;
+    private final AllocationMeter meter;
+    private long started;
+
+    /**
+     * Creates a simulator that records into the given stats.
+     * @param strategy decides when the player cashes out
+     * @param stats where the result of every game is recorded
+     */
+    public GameSimulator(CashOutStrategy strategy, SimulationStats stats)
+    {
+        this(strategy, stats, null);
+    }
+
+    /**
+     * Creates a simulator that also records the details of every game.
+     * @param strategy decides when the player cashes out
+     * @param stats where the result of every game is recorded
+     * @param detail where the payouts and the places of misfortunes and saves
+     *               are recorded, or null to not record them
+     */
+    public GameSimulator(CashOutStrategy strategy, SimulationStats stats, StreamingStats detail)
+    {
+        this(strategy, stats, detail, null);
+    }
+
+    /**
+     * Creates a simulator that also charges what every step of a game allocates to a meter.
+     * The meter is only charged; starting and ending its games is up to the caller,
+     * so making the deck and board can be counted too.
+     * @param strategy decides when the player cashes out
+     * @param stats where the result of every game is recorded
+     * @param detail where the payouts and the places of misfortunes and saves
+     *               are recorded, or null to not record them
+     * @param meter the meter of the thread playing, or null to not account for allocations
+     */
+    public GameSimulator(CashOutStrategy strategy, SimulationStats stats, StreamingStats detail,
+                         AllocationMeter meter)
+    {
+        this.strategy = strategy;
+        this.stats = stats;
+        this.detail = detail;
+        this.meter = meter;
+    }
+
+    /**
+     * Plays a game on a freshly constructed board until it ends.
+     * The result is recorded in this simulator's stats.
+     * @param board the board to play on, with the first two rows dealt
+     * @return how the game ended
+     */
+    public GameOutcome play(Board board)
+    {
+        boolean saveAttempted = false;
+        boolean saveSucceeded = false;
+        started = EngineEvents.gameStarted();
+
+        while (!board.isComplete())
+        {
+            boolean cashOut = strategy.cashOut(board);
+            account("strategy.cashOut");
+            if (cashOut)
+                return end(board, GameOutcome.CASHED_OUT, board.lastRowValue(), saveAttempted, saveSucceeded);
+
+            board.nextRow();
+            account("board.nextRow");
+
+            boolean misfortune = board.misFortune();
+            account("board.misFortune");
+            if (misfortune)
+            {
+                if (detail != null)
+                    detail.recordMisfortune(board.getMisfortuneRow(), board.getMisfortuneCol());
+                EngineEvents.misfortune(board.getMisfortuneRow(), board.getMisfortuneCol(), board.getGatesLeft() > 0);
+
+                //each gate card makes one save, a misfortune with none left ends the game
+                if (board.getGatesLeft() == 0)
+                    return end(board, GameOutcome.MISFORTUNE, 0, saveAttempted, saveSucceeded);
+
+                saveAttempted = true;
+                int row = board.getMisfortuneRow();
+                int col = board.getMisfortuneCol();
+                if (detail != null)
+                    detail.recordSave(row, col);
+                board.trySave();
+                misfortune = board.misFortune();
+                account("board.trySave");
+
+                if (misfortune)
+                {
+                    EngineEvents.gateSave(row, col, false);
+                    if (detail != null)
+                        detail.recordMisfortune(board.getMisfortuneRow(), board.getMisfortuneCol());
+                    EngineEvents.misfortune(board.getMisfortuneRow(), board.getMisfortuneCol(), false);
+                    return end(board, GameOutcome.MISFORTUNE, 0, true, false);
+                }
+                EngineEvents.gateSave(row, col, true);
+                saveSucceeded = true;
+            }
+        }
+
+        if (board.hitJackpot())
+            return end(board, GameOutcome.JACKPOT, board.jackpotValue(), saveAttempted, saveSucceeded);
+
+        return end(board, GameOutcome.COMPLETE, board.lastRowValue(), saveAttempted, saveSucceeded);
+    }
+
+    /*
+        Records the end of a game.
+     */
+    private GameOutcome end(Board board, GameOutcome outcome, int payout, boolean saveAttempted,
+                            boolean saveSucceeded)
+    {
+        account("board.payout");
+        stats.record(outcome, payout, saveAttempted, saveSucceeded);
+        if (detail != null)
+            detail.recordGame(outcome, payout, board.getLastRow().length - 1);
+
+        if (outcome == GameOutcome.CASHED_OUT)
+            EngineEvents.cashOut(board.getLastRow().length - 1, payout);
+        else if (outcome == GameOutcome.JACKPOT)
+            EngineEvents.jackpot(payout);
+        EngineEvents.gameEnded(started);
+        account("stats.record");
+        return outcome;
+    }
+
+    /*
+        Charges what was allocated since the last step to a step of the game.
+     */
+    private void account(String operation)
+    {
+        if (meter != null)
+            meter.record(operation);
+    }
+
+    /**
+     * Gets the stats this simulator records into.
+     * @return the stats of every game played so far
+     */
+    public SimulationStats getStats()
+    {
+        return stats;
+    }
+}
@@ -0,0 +1,126 @@
+package com.peterson.programs.fortunestower.simulation;
+
+import com.peterson.programs.fortunestower.Board;
+import com.peterson.programs.fortunestower.Board2D;
+import com.peterson.programs.fortunestower.BoardType;
+import com.peterson.programs.fortunestower.Deck;
+import com.peterson.programs.fortunestower.GameSession;
+import com.peterson.programs.fortunestower.RandomStreams;
+import com.peterson.programs.fortunestower.RuleSet;
+import com.peterson.programs.fortunestower.metrics.AllocationMeter;
+import com.peterson.programs.fortunestower.metrics.Footprint;
+import com.peterson.programs.fortunestower.solver.CashOutSolver;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless simulation runner.
+ * Plays a number of games with each of the standard deck sizes,
+ * spread over every core, and prints the results.
+ * The number of games per deck can be passed as the first argument,
+ * the name of a BoardType to play on as the second, and "solver"
+ * as the third to cash out whenever CashOutSolver says to instead of never.
+ * Passing "detail" as the fourth also prints payout percentiles and heatmaps
+ * of where misfortunes happen and the gate card goes.
+ * Running with -Dfortunestower.accounting=true also plays games on one thread
+ * with an AllocationMeter, and prints the bytes allocated per game and per
+ * step of a game, and the retained size of a GameSession.
+ * The games are dealt from the streams of a seed, which is printed; running with
+ * -Dfortunestower.seed=n plays the same games again, on any number of threads.
+ * Running with -Dfortunestower.rules=file plays the variant in a properties file
+ * read by RuleSet.load(Path) instead of the standard game.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class Main
+{
+    private static final long DEFAULT_GAMES = 10_000_000;
+
+    /**
+     * The system property that sets the seed of the games.
+     */
+    public static final String SEED_PROPERTY = "fortunestower.seed";
+
+    //games played before metering, so the JIT has removed what it can
+    private static final long ACCOUNTING_WARM_UP = 200_000;
+    private static final long ACCOUNTING_GAMES = 100_000;
+
+    private static final int[] DECKS = {Deck.DIAMOND_DECK, Deck.EMERALD_DECK, Deck.RUBY_DECK};
+    private static final String[] DECK_NAMES = {"Diamond", "Emerald", "Ruby"};
+
+    public static void main(String[] args) throws IOException
+    {
+        long games = DEFAULT_GAMES;
+        if (args.length > 0)
+            games = Long.parseLong(args[0]);
+        BoardType boardType = BoardType.BOARD_2D;
+        if (args.length > 1)
+            boardType = BoardType.valueOf(args[1].toUpperCase());
+        boolean solve = args.length > 2 && args[2].equalsIgnoreCase("solver");
+        boolean details = args.length > 3 && args[3].equalsIgnoreCase("detail");
+        RuleSet rules = RuleSet.fromSystemProperty();
+        if (details && rules.getLevels() > Board2D.LAST_LEVEL)
+        {
+            System.out.println("Details are only kept of towers of up to " + Board2D.LAST_LEVEL + " levels");
+            details = false;
+        }
+
+        String seedValue = System.getProperty(SEED_PROPERTY);
+        RandomStreams streams = seedValue == null ? new RandomStreams() : new RandomStreams(Long.parseLong(seedValue));
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        System.out.println("Simulating " + games + " games per deck on "
+                + pool.getParallelism() + " threads using " + boardType);
+        if (!rules.isStandard())
+            System.out.println("Rules: " + rules);
+        System.out.println("Seed: " + streams.getSeed() + "\n");
+
+        for (int i = 0; i < DECKS.length; i++)
+        {
+            CashOutStrategy strategy = solve ? new CashOutSolver(DECKS[i], rules) : CashOutStrategy.NEVER;
+            long start = System.nanoTime();
+            StripedStats detail = details ? new StripedStats() : null;
+            SimulationStats stats = pool.invoke(new SimulationTask(DECKS[i], games, strategy, boardType,
+                    rules, detail, streams));
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.println(DECK_NAMES[i] + " Deck: " + DECKS[i] + " Cards");
+            System.out.print(stats);
+            System.out.printf("Games/sec: %.0f%n", stats.getGames() / seconds);
+            if (detail != null)
+                System.out.print(detail.total());
+            if (AllocationMeter.isRequested())
+                System.out.print(account(DECKS[i], boardType, rules, strategy));
+            System.out.println();
+        }
+    }
+
+    /*
+        Plays games on this thread with a meter, the same way SimulationTask does,
+        and reports what they allocated and what one session retains.
+     */
+    private static String account(final int deckSize, final BoardType boardType, final RuleSet rules,
+                                  CashOutStrategy strategy)
+    {
+        GameSession session = new GameSession(deckSize, boardType, rules, new Random());
+        GameSimulator warm = new GameSimulator(strategy, new SimulationStats());
+        for (long i = 0; i < ACCOUNTING_WARM_UP; i++)
+            warm.play(session.newGame());
+
+        AllocationMeter meter = new AllocationMeter();
+        GameSimulator simulator = new GameSimulator(strategy, new SimulationStats(), null, meter);
+        for (long i = 0; i < ACCOUNTING_GAMES; i++)
+        {
+            meter.begin();
+            Board board = session.newGame();
+            meter.record("session.newGame");
+            simulator.play(board);
+            meter.endGame();
+        }
+
+        long retained = Footprint.retainedBytes(() -> new GameSession(deckSize, boardType, rules, new Random()));
+        return meter + String.format("Retained by a live %s session: %d bytes%n", boardType, retained);
+    }
+}
@@ -0,0 +1,159 @@
+package com.peterson.programs.fortunestower.simulation;
+
+/**
+ * Counters gathered while simulating games.
+ * Each simulation task keeps its own instance, and the
+ * instances are merged together once the tasks are done,
+ * so no locking is needed while games are played.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class SimulationStats
+{
+    private long games;
+    private long jackpots;
+    private long completions;
+    private long cashOuts;
+    private long misfortunes;
+    private long savesAttempted;
+    private long savesSucceeded;
+    private long totalPayout;
+
+    /**
+     * Records the result of a single game.
+     * @param outcome how the game ended
+     * @param payout the points won in the game
+     * @param saveAttempted true if the gate card was used during the game
+     * @param saveSucceeded true if the gate card cleared the misfortune it was used on
+     */
+    public void record(GameOutcome outcome, int payout, boolean saveAttempted, boolean saveSucceeded)
+    {
+        games++;
+        totalPayout += payout;
+
+        switch (outcome)
+        {
+            case JACKPOT:
+                jackpots++;
+                break;
+            case COMPLETE:
+                completions++;
+                break;
+            case CASHED_OUT:
+                cashOuts++;
+                break;
+            case MISFORTUNE:
+                misfortunes++;
+                break;
+        }
+
+        if (saveAttempted)
+            savesAttempted++;
+        if (saveSucceeded)
+            savesSucceeded++;
+    }
+
+    /**
+     * Adds the counters of another set of stats into this one.
+     * @param other the stats to merge in
+     * @return this, for chaining
+     */
+    public SimulationStats merge(SimulationStats other)
+    {
+        games += other.games;
+        jackpots += other.jackpots;
+        completions += other.completions;
+        cashOuts += other.cashOuts;
+        misfortunes += other.misfortunes;
+        savesAttempted += other.savesAttempted;
+        savesSucceeded += other.savesSucceeded;
+        totalPayout += other.totalPayout;
+        return this;
+    }
+
+    public long getGames()
+    {
+        return games;
+    }
+
+    public long getJackpots()
+    {
+        return jackpots;
+    }
+
+    public long getCompletions()
+    {
+        return completions;
+    }
+
+    public long getCashOuts()
+    {
+        return cashOuts;
+    }
+
+    public long getMisfortunes()
+    {
+        return misfortunes;
+    }
+
+    public long getSavesAttempted()
+    {
+        return savesAttempted;
+    }
+
+    public long getSavesSucceeded()
+    {
+        return savesSucceeded;
+    }
+
+    public long getTotalPayout()
+    {
+        return totalPayout;
+    }
+
+    /**
+     * Gets the fraction of games that hit the jackpot.
+     * @return the jackpot rate, or 0 if no games were played
+     */
+    public double jackpotRate()
+    {
+        return rate(jackpots);
+    }
+
+    /**
+     * Gets the fraction of games that ended in a misfortune.
+     * @return the misfortune rate, or 0 if no games were played
+     */
+    public double misfortuneRate()
+    {
+        return rate(misfortunes);
+    }
+
+    /**
+     * Gets the average number of points won per game.
+     * @return the mean payout, or 0 if no games were played
+     */
+    public double meanPayout()
+    {
+        return rate(totalPayout);
+    }
+
+    private double rate(long count)
+    {
+        if (games == 0)
+            return 0;
+        return (double) count / games;
+    }
+
+    public String toString()
+    {
+        StringBuilder b = new StringBuilder();
+        b.append("Games: ").append(games).append("\n");
+        b.append(String.format("Jackpot rate: %.6f%n", jackpotRate()));
+        b.append(String.format("Misfortune rate: %.6f%n", misfortuneRate()));
+        b.append(String.format("Mean payout: %.4f%n", meanPayout()));
+        b.append("Saves attempted: ").append(savesAttempted);
+        b.append(", succeeded: ").append(savesSucceeded).append("\n");
+        return b.toString();
+    }
+}
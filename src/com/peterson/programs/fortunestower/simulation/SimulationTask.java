@@ -0,0 +1,179 @@
+package com.peterson.programs.fortunestower.simulation;
+
+import com.peterson.programs.fortunestower.BoardType;
+import com.peterson.programs.fortunestower.GameSession;
+import com.peterson.programs.fortunestower.RandomStreams;
+import com.peterson.programs.fortunestower.RuleSet;
+import com.peterson.programs.fortunestower.SessionPool;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A fork-join task that plays a number of games.
+ * Large tasks are split in half until they are small enough
+ * to be played on a single thread, and the stats of the halves
+ * are merged together on the way back up.
+ * Every task split from the same task shares a SessionPool, so a
+ * thread plays its games on a deck and board it has played on before.
+ * The games are numbered, and every block of BLOCK games is dealt from
+ * its own stream of a RandomStreams. Tasks are only split between blocks,
+ * so for a seed the stats are the same however many threads play them.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class SimulationTask extends RecursiveTask<SimulationStats>
+{
+    /*
+        Number of games below which the task is no longer split.
+        Large enough that the cost of forking is noise compared
+        to the games played.
+     */
+    private static final long THRESHOLD = 50_000;
+
+    /**
+     * The number of games dealt from each stream.
+     */
+    public static final long BLOCK = 4096;
+
+    private final int deckSize;
+    private final long first;
+    private final long games;
+    private final CashOutStrategy strategy;
+    private final BoardType boardType;
+    private final StripedStats detail;
+    private final SessionPool sessions;
+    private final RandomStreams streams;
+
+    /**
+     * Creates a task to play games on Board2D.
+     * @param deckSize the number of cards in the deck. Use the constants from the Deck class
+     *                 for the standard sizes.
+     * @param games the number of games to play
+     * @param strategy decides when the player cashes out
+     */
+    public SimulationTask(int deckSize, long games, CashOutStrategy strategy)
+    {
+        this(deckSize, games, strategy, BoardType.BOARD_2D);
+    }
+
+    /**
+     * Creates a task to play games.
+     * @param deckSize the number of cards in the deck. Use the constants from the Deck class
+     *                 for the standard sizes.
+     * @param games the number of games to play
+     * @param strategy decides when the player cashes out
+     * @param boardType the kind of board to play on
+     */
+    public SimulationTask(int deckSize, long games, CashOutStrategy strategy, BoardType boardType)
+    {
+        this(deckSize, games, strategy, boardType, null);
+    }
+
+    /**
+     * Creates a task to play games and record their details.
+     * @param deckSize the number of cards in the deck. Use the constants from the Deck class
+     *                 for the standard sizes.
+     * @param games the number of games to play
+     * @param strategy decides when the player cashes out
+     * @param boardType the kind of board to play on
+     * @param detail where each thread records the details of its games, or null to not record them
+     */
+    public SimulationTask(int deckSize, long games, CashOutStrategy strategy, BoardType boardType,
+                          StripedStats detail)
+    {
+        this(deckSize, games, strategy, boardType, detail, new RandomStreams());
+    }
+
+    /**
+     * Creates a task to play games dealt from the streams of a seed.
+     * Two tasks with streams of the same seed play the same games.
+     * @param deckSize the number of cards in the deck. Use the constants from the Deck class
+     *                 for the standard sizes.
+     * @param games the number of games to play
+     * @param strategy decides when the player cashes out
+     * @param boardType the kind of board to play on
+     * @param detail where each thread records the details of its games, or null to not record them
+     * @param streams where the cards of each block of games come from
+     */
+    public SimulationTask(int deckSize, long games, CashOutStrategy strategy, BoardType boardType,
+                          StripedStats detail, RandomStreams streams)
+    {
+        this(deckSize, games, strategy, boardType, RuleSet.STANDARD, detail, streams);
+    }
+
+    /**
+     * Creates a task to play games of a variant dealt from the streams of a seed.
+     * @param deckSize the number of cards in the deck
+     * @param games the number of games to play
+     * @param strategy decides when the player cashes out
+     * @param boardType the kind of board to play on
+     * @param rules the rules of the variant
+     * @param detail where each thread records the details of its games, or null to not record them.
+     *               Details are only kept of games with the standard number of levels.
+     * @param streams where the cards of each block of games come from
+     */
+    public SimulationTask(int deckSize, long games, CashOutStrategy strategy, BoardType boardType,
+                          RuleSet rules, StripedStats detail, RandomStreams streams)
+    {
+        this(deckSize, 0, games, strategy, boardType, detail,
+                new SessionPool(deckSize, boardType, rules, Runtime.getRuntime().availableProcessors()), streams);
+    }
+
+    private SimulationTask(int deckSize, long first, long games, CashOutStrategy strategy, BoardType boardType,
+                           StripedStats detail, SessionPool sessions, RandomStreams streams)
+    {
+        this.sessions = sessions;
+        this.streams = streams;
+        this.deckSize = deckSize;
+        this.first = first;
+        this.games = games;
+        this.strategy = strategy;
+        this.boardType = boardType;
+        this.detail = detail;
+    }
+
+    @Override
+    protected SimulationStats compute()
+    {
+        if (games <= THRESHOLD)
+            return playAll();
+
+        //split between blocks, so every block is dealt by one task
+        long half = games / 2 / BLOCK * BLOCK;
+        SimulationTask left = new SimulationTask(deckSize, first, half, strategy, boardType,
+                detail, sessions, streams);
+        SimulationTask right = new SimulationTask(deckSize, first + half, games - half, strategy, boardType,
+                detail, sessions, streams);
+        left.fork();
+        SimulationStats stats = right.compute();
+        return stats.merge(left.join());
+    }
+
+    /*
+        Plays every game of this task on the current thread.
+        One session is reset between games instead of building a new deck and board,
+        and its deck is given the stream of each block as the block starts.
+     */
+    private SimulationStats playAll()
+    {
+        SimulationStats stats = new SimulationStats();
+        GameSimulator simulator = new GameSimulator(strategy, stats, detail == null ? null : detail.get());
+        GameSession session = sessions.acquire();
+        try
+        {
+            for (long i = first; i < first + games; i++)
+            {
+                if (i % BLOCK == 0)
+                    simulator.play(session.newGame(streams.stream(i / BLOCK)));
+                else
+                    simulator.play(session.newGame());
+            }
+        }
+        finally
+        {
+            sessions.release(session);
+        }
+        return stats;
+    }
+}
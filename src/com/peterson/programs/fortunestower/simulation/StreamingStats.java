@@ -0,0 +1,272 @@
+package com.peterson.programs.fortunestower.simulation;
+
+import com.peterson.programs.fortunestower.Board2D;
+import com.peterson.programs.fortunestower.Card;
+
+/**
+ * Detailed counters gathered while simulating games.
+ * Every result is counted into a fixed set of primitive counters rather than kept,
+ * so the memory used is the same for a thousand games or a few billion:
+ * histograms of the payouts and the jackpot values, the row of the misfortune
+ * that ended each game, and two heatmaps over the 36 slots of the board,
+ * one of where misfortunes are found and one of where the gate card is placed.
+ * Percentiles are read from the histograms, so they are exact.
+ * Like SimulationStats, an instance is only ever touched by one thread,
+ * and instances are merged once the threads are done; see StripedStats.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class StreamingStats
+{
+    /**
+     * One more than the largest payout possible; every card on the board a 7.
+     */
+    public static final int MAX_PAYOUT = Card.MAX_VALUE * Board2D.LAST_LEVEL * (Board2D.LAST_LEVEL + 1) / 2 + 1;
+
+    /**
+     * The number of slots on the board, gate card included.
+     */
+    public static final int SLOTS = Board2D.LAST_LEVEL * (Board2D.LAST_LEVEL + 1) / 2;
+
+    private long games;
+    private final long[] payouts;
+    private final long[] jackpots;
+    private final long[] misfortuneRows;
+    private final long[] misfortuneSlots;
+    private final long[] gateSlots;
+
+    /**
+     * Creates stats with every counter at 0.
+     */
+    public StreamingStats()
+    {
+        payouts = new long[MAX_PAYOUT];
+        jackpots = new long[MAX_PAYOUT];
+        misfortuneRows = new long[Board2D.LAST_LEVEL];
+        misfortuneSlots = new long[SLOTS];
+        gateSlots = new long[SLOTS];
+    }
+
+    /**
+     * Gets the slot of a card on the board, counting row by row from the gate card.
+     * @param row the row of the card
+     * @param col the column of the card
+     * @return the slot, from 0 to 35
+     */
+    public static int slot(int row, int col)
+    {
+        return row * (row + 1) / 2 + col;
+    }
+
+    /**
+     * Records the end of a game.
+     * @param outcome how the game ended
+     * @param payout the points won in the game
+     * @param lastRow the last row dealt
+     */
+    public void recordGame(GameOutcome outcome, int payout, int lastRow)
+    {
+        games++;
+        payouts[payout]++;
+        if (outcome == GameOutcome.JACKPOT)
+            jackpots[payout]++;
+        else if (outcome == GameOutcome.MISFORTUNE)
+            misfortuneRows[lastRow]++;
+    }
+
+    /**
+     * Records a misfortune being found, whether or not it ends the game.
+     * @param row the row of the card the misfortune was found on
+     * @param col the column of the card
+     */
+    public void recordMisfortune(int row, int col)
+    {
+        misfortuneSlots[slot(row, col)]++;
+    }
+
+    /**
+     * Records the gate card being placed on the board by trySave().
+     * @param row the row the gate card was placed on
+     * @param col the column it was placed in
+     */
+    public void recordSave(int row, int col)
+    {
+        gateSlots[slot(row, col)]++;
+    }
+
+    /**
+     * Adds the counters of another set of stats into this one.
+     * @param other the stats to merge in
+     * @return this, for chaining
+     */
+    public StreamingStats merge(StreamingStats other)
+    {
+        games += other.games;
+        add(payouts, other.payouts);
+        add(jackpots, other.jackpots);
+        add(misfortuneRows, other.misfortuneRows);
+        add(misfortuneSlots, other.misfortuneSlots);
+        add(gateSlots, other.gateSlots);
+        return this;
+    }
+
+    private static void add(long[] into, long[] from)
+    {
+        for (int i = 0; i < into.length; i++)
+            into[i] += from[i];
+    }
+
+    public long getGames()
+    {
+        return games;
+    }
+
+    /**
+     * Gets the number of games that paid an exact number of points.
+     * @param payout the points won
+     * @return the number of games, 0 if the payout is out of range
+     */
+    public long getPayoutCount(int payout)
+    {
+        return count(payouts, payout);
+    }
+
+    /**
+     * Gets the number of games that hit a jackpot of an exact value.
+     * @param value the value of the jackpot
+     * @return the number of games, 0 if the value is out of range
+     */
+    public long getJackpotCount(int value)
+    {
+        return count(jackpots, value);
+    }
+
+    /**
+     * Gets the number of games ended by a misfortune on a row.
+     * @param row the row, from 3 to 7
+     * @return the number of games
+     */
+    public long getMisfortuneRowCount(int row)
+    {
+        return count(misfortuneRows, row);
+    }
+
+    /**
+     * Gets the number of misfortunes found on a slot.
+     * @param slot the slot, see slot(int, int)
+     * @return the number of misfortunes, including ones the gate card saved
+     */
+    public long getMisfortuneSlotCount(int slot)
+    {
+        return count(misfortuneSlots, slot);
+    }
+
+    /**
+     * Gets the number of times the gate card was placed on a slot.
+     * @param slot the slot, see slot(int, int)
+     * @return the number of saves
+     */
+    public long getGateSlotCount(int slot)
+    {
+        return count(gateSlots, slot);
+    }
+
+    private static long count(long[] counts, int i)
+    {
+        if (i < 0 || i >= counts.length)
+            return 0;
+        return counts[i];
+    }
+
+    /**
+     * Gets a percentile of the payouts.
+     * @param p the percentile, from 0 to 1
+     * @return the smallest payout at least p of the games paid no more than,
+     *         or -1 if no games have been recorded
+     */
+    public int payoutPercentile(double p)
+    {
+        return percentile(payouts, p);
+    }
+
+    /**
+     * Gets a percentile of the jackpot values, out of the games that hit one.
+     * @param p the percentile, from 0 to 1
+     * @return the smallest value at least p of the jackpots were no more than,
+     *         or -1 if there have been no jackpots
+     */
+    public int jackpotPercentile(double p)
+    {
+        return percentile(jackpots, p);
+    }
+
+    private static int percentile(long[] histogram, double p)
+    {
+        if (p < 0 || p > 1)
+            throw new IllegalArgumentException("A percentile must be between 0 and 1");
+
+        long total = 0;
+        for (long c : histogram)
+            total += c;
+        if (total == 0)
+            return -1;
+
+        //the rank of the value wanted, at least the first
+        long rank = Math.max(1, (long) Math.ceil(p * total));
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++)
+        {
+            seen += histogram[i];
+            if (seen >= rank)
+                return i;
+        }
+        return histogram.length - 1;
+    }
+
+    /**
+     * Draws a heatmap of the board as text.
+     * @param misfortunes true for where misfortunes were found,
+     *                    false for where the gate card was placed
+     * @return the percentage of the total on each slot, row by row
+     */
+    public String heatmap(boolean misfortunes)
+    {
+        long[] counts = misfortunes ? misfortuneSlots : gateSlots;
+        long total = 0;
+        for (long c : counts)
+            total += c;
+
+        StringBuilder b = new StringBuilder();
+        for (int row = 0; row < Board2D.LAST_LEVEL; row++)
+        {
+            for (int i = row; i < Board2D.LAST_LEVEL - 1; i++)
+                b.append("   ");
+            for (int col = 0; col <= row; col++)
+            {
+                double percent = total == 0 ? 0 : 100.0 * counts[slot(row, col)] / total;
+                b.append(String.format("%5.1f ", percent));
+            }
+            b.append("\n");
+        }
+        return b.toString();
+    }
+
+    public String toString()
+    {
+        StringBuilder b = new StringBuilder();
+        b.append("Games: ").append(games).append("\n");
+        b.append(String.format("Payout percentiles: 50%% %d, 90%% %d, 99%% %d, 99.9%% %d%n",
+                payoutPercentile(0.5), payoutPercentile(0.9), payoutPercentile(0.99), payoutPercentile(0.999)));
+        b.append(String.format("Jackpot percentiles: 50%% %d, 90%% %d, 99%% %d%n",
+                jackpotPercentile(0.5), jackpotPercentile(0.9), jackpotPercentile(0.99)));
+        b.append("Games ended by a misfortune on row:");
+        for (int row = 0; row < misfortuneRows.length; row++)
+        {
+            if (misfortuneRows[row] != 0)
+                b.append(" ").append(row).append(": ").append(misfortuneRows[row]);
+        }
+        b.append("\nWhere misfortunes are found (%):\n").append(heatmap(true));
+        b.append("Where the gate card is placed (%):\n").append(heatmap(false));
+        return b.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.peterson.programs.fortunestower.simulation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * StreamingStats striped across threads.
+ * Every thread that asks for its stats gets an instance of its own,
+ * made the first time it asks, so recording a game never locks or
+ * shares a cache line with another thread.
+ * The stripes are merged when the totals are asked for; the totals
+ * are exact once every thread recording into them is done.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class StripedStats
+{
+    private final List<StreamingStats> stripes;
+    private final ThreadLocal<StreamingStats> local;
+
+    /**
+     * Creates stats with no stripes yet.
+     */
+    public StripedStats()
+    {
+        stripes = new CopyOnWriteArrayList<>();
+        local = new ThreadLocal<StreamingStats>()
+        {
+            @Override
+            protected StreamingStats initialValue()
+            {
+                StreamingStats stats = new StreamingStats();
+                stripes.add(stats);
+                return stats;
+            }
+        };
+    }
+
+    /**
+     * Gets the stats of the calling thread.
+     * They must only be recorded into from this thread.
+     * @return this thread's stripe
+     */
+    public StreamingStats get()
+    {
+        return local.get();
+    }
+
+    /**
+     * Gets the number of threads that have recorded stats.
+     * @return the number of stripes
+     */
+    public int getStripes()
+    {
+        return stripes.size();
+    }
+
+    /**
+     * Merges every stripe into new stats.
+     * @return the totals over every thread
+     */
+    public StreamingStats total()
+    {
+        StreamingStats total = new StreamingStats();
+        for (StreamingStats s : stripes)
+            total.merge(s);
+        return total;
+    }
+}
@@ -0,0 +1,650 @@
+package com.peterson.programs.fortunestower.solver;
+
+import com.peterson.programs.fortunestower.Board;
+import com.peterson.programs.fortunestower.Card;
+import com.peterson.programs.fortunestower.RuleSet;
+import com.peterson.programs.fortunestower.simulation.CashOutStrategy;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes the expected value of dealing the next row compared to cashing out now.
+ * Only what the player can see is used: the face up cards on the board,
+ * any other cards known to be out of the deck, and whether the gate card
+ * has been used. Every other card is equally likely to be anywhere, including
+ * under the gate card.
+ * The value of dealing is the value of the best play from then on: after each
+ * row that could be dealt the player cashes out or deals again, whichever is
+ * worth more, down to the row that completes the board. This is worked out by
+ * following every ordering of every row but the last, since the order of a row
+ * decides the misfortunes of the row after it. The last row has no row after it,
+ * so it is worked out one card at a time over the multiset of cards drawn.
+ * Following the orderings only finishes in time near the end of a game, when the
+ * rows left before the last can be dealt in at most MAX_ORDERINGS orders; in the
+ * standard tower that is only the deal of the last row. Earlier than that, the
+ * value of dealing is the expected payout of dealing exactly one more row and then
+ * stopping, which can advise cashing out when playing on would pay better.
+ * Evaluation.isBestPlay() tells the two apart.
+ * Results are memoized on the unseen cards, the gate card, the last row and the
+ * jackpot so far, so asking about the same state again costs a map lookup.
+ * Once the gate card is used a row and its mirror image have the same future,
+ * so they share a memo entry.
+ * A solver can be made for a RuleSet with one gate card and up to 16 levels, dealt from a shoe
+ * of up to 255 cards of a kind; the number of levels, the cards of the shoe and the value
+ * of a knight come from the rules.
+ * A solver is thread safe and can be shared by simulation threads.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class CashOutSolver implements CashOutStrategy
+{
+    /**
+     * The most orderings of the rows before the last that are followed to find the best play.
+     * Each one deals the last row, so this many take under half a second.
+     */
+    public static final double MAX_ORDERINGS = 1 << 10;
+
+    /*
+        Card codes are the card values, 0 for a knight and 1-7 for a number card.
+     */
+    private static final int TYPES = Card.MAX_VALUE + 1;
+    private static final int KNIGHT = 0;
+
+    /*
+        State of the gate card. A known gate card uses its code instead.
+     */
+    private static final int GATE_USED = -1;
+    private static final int GATE_HIDDEN = -2;
+
+    /*
+        Status of the row being dealt. A row with one misfortune keeps
+        the column it is in, as FIRST_MISFORTUNE + col, so the save can be worked out.
+     */
+    private static final int CLEAR = 0;
+    private static final int IMMUNE = 1;
+    private static final int MISFORTUNES = 2;
+    private static final int FIRST_MISFORTUNE = 3;
+
+    //a memo this large is cleared rather than grown
+    private static final int MAX_MEMO = 1 << 20;
+
+    /*
+        A state of the row being dealt: the cards of each kind in it, 5 bits to a kind,
+        and its status above them.
+     */
+    private static final int STATUS_SHIFT = TYPES * 5;
+    private static final long DRAWN_MASK = (1L << STATUS_SHIFT) - 1;
+
+    private final int[] composition;
+    //what each card code adds to a row
+    private final int[] values;
+    private final int levels;
+    //the value of dealing one row and stopping
+    private final Map<StateKey, Double> memo;
+    //the value of dealing and then playing as well as possible
+    private final Map<StateKey, Double> best;
+
+    /**
+     * Creates a solver for a deck.
+     * @param deckSize the number of cards in the deck. Use the constants from the Deck class
+     *                 for the standard sizes.
+     */
+    public CashOutSolver(int deckSize)
+    {
+        this(deckSize, RuleSet.STANDARD);
+    }
+
+    /**
+     * Creates a solver for a deck of a variant.
+     * @param deckSize the number of cards in the deck
+     * @param rules the rules of the variant
+     * @throws IllegalArgumentException if the rules have more than one gate card or 16 levels,
+     * or the deck has more cards of a kind than the solver can count
+     */
+    public CashOutSolver(int deckSize, RuleSet rules)
+    {
+        if (rules.getGateCards() != 1)
+            throw new IllegalArgumentException("The solver only knows games with one gate card");
+        //the cards of a row are counted 5 bits to a kind, and the last row is memoized 4 bits to a card
+        if (rules.getLevels() > 16)
+            throw new IllegalArgumentException("The solver only knows towers of up to 16 levels");
+
+        //the same cards Deck makes
+        composition = rules.composition(deckSize);
+        //the cards left of a kind are memoized 8 bits to a kind; a row of up to 16 cards fits in its 5 bits
+        for (int count : composition)
+        {
+            if (count > 0xFF)
+                throw new IllegalArgumentException("The solver only knows shoes of up to 255 cards of a kind");
+        }
+        values = new int[TYPES];
+        for (int t = 0; t < TYPES; t++)
+            values[t] = rules.value(t);
+        levels = rules.getLevels();
+
+        memo = new ConcurrentHashMap<>();
+        best = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Evaluates the board using only the cards on the board.
+     * @param board the board of the game in progress
+     * @return the values of cashing out and of dealing
+     */
+    public Evaluation evaluate(Board board)
+    {
+        return evaluate(board, Collections.<Card>emptyList());
+    }
+
+    /**
+     * Evaluates cashing out against dealing the next row.
+     * @param board the board of the game in progress
+     * @param seen cards known to be out of the deck that are not face up on the board.
+     *             Face up cards on the board should not be passed.
+     * @return the values of cashing out and of dealing
+     * @throws IllegalArgumentException if there are more cards of a kind than the deck has
+     */
+    public Evaluation evaluate(Board board, Collection<? extends Card> seen)
+    {
+        int cashOut = board.lastRowValue();
+        if (board.isComplete())
+            return new Evaluation(cashOut, 0, true);
+
+        int[] unseen = composition.clone();
+        for (Card c : seen)
+            unseen[c.getValue()]--;
+
+        int gate = GATE_HIDDEN;
+        Card gateCard = board.getCardsInRow(0)[0];
+        if (gateCard == null)
+            gate = GATE_USED;
+        else if (board.isFaceUp(0, 0))
+            gate = gateCard.getValue();
+
+        int jackpot = 0;
+        for (int r = 0; r < levels; r++)
+        {
+            Card[] row = board.getCardsInRow(r);
+            if (row[0] == null && r > 0)
+                break;
+            for (int c = 0; c < row.length; c++)
+            {
+                if (row[c] != null && board.isFaceUp(r, c))
+                    unseen[row[c].getValue()]--;
+            }
+            if (r > 0)
+                jackpot += board.rowValue(r);
+        }
+
+        int total = 0;
+        for (int t = 0; t < TYPES; t++)
+        {
+            if (unseen[t] < 0)
+                throw new IllegalArgumentException("More cards have been seen than the deck holds");
+            total += unseen[t];
+        }
+
+        Card[] last = board.getLastRow();
+        int[] parent = new int[last.length];
+        for (int i = 0; i < parent.length; i++)
+            parent[i] = last[i].getValue();
+
+        if (orderings(parent.length) <= MAX_ORDERINGS)
+            return new Evaluation(cashOut, bestDeal(unseen, total, gate, parent, jackpot), true);
+        return new Evaluation(cashOut, oneRow(unseen, total, gate, parent, jackpot), false);
+    }
+
+    /**
+     * Determines if cashing out is worth at least as much as dealing,
+     * by the value of the best play when it can be found in time and of dealing
+     * one row and stopping otherwise.
+     * @param board the board of the game in progress
+     * @return true to cash out
+     */
+    @Override
+    public boolean cashOut(Board board)
+    {
+        return evaluate(board).shouldCashOut();
+    }
+
+    /*
+        An upper bound on the orderings of the rows before the last, dealt after a row of
+        the given length: every row can be dealt in every order of its kinds of cards,
+        and every ordering of a row is followed by every ordering of the next.
+     */
+    private double orderings(int dealt)
+    {
+        double orderings = 1;
+        for (int cards = dealt + 1; cards < levels; cards++)
+            orderings *= Math.pow(TYPES, cards);
+        return orderings;
+    }
+
+    /*
+        Expected payout of dealing one more row and then stopping, memoized.
+     */
+    private double oneRow(int[] unseen, int total, int gate, int[] parent, int jackpot)
+    {
+        //the jackpot so far only matters if the next row can win it
+        boolean lastDeal = parent.length + 1 == levels;
+        if (!lastDeal || gate == GATE_USED)
+            jackpot = 0;
+
+        StateKey key = new StateKey(unseen, gate, parent, jackpot);
+        Double deal = memo.get(key);
+        if (deal == null)
+        {
+            deal = dealValue(unseen, total, gate, parent, jackpot, lastDeal);
+            remember(memo, key, deal);
+        }
+        return deal;
+    }
+
+    /*
+        Expected payout of dealing the next row and then playing as well as possible.
+        Dealing the last row is the same as dealing one row and stopping;
+        every other row is dealt in every order.
+     */
+    private double bestDeal(int[] unseen, int total, int gate, int[] parent, int jackpot)
+    {
+        if (parent.length + 1 == levels)
+            return oneRow(unseen, total, gate, parent, jackpot);
+
+        StateKey key = new StateKey(unseen, gate, parent, gate == GATE_USED ? 0 : jackpot);
+        Double deal = best.get(key);
+        if (deal != null)
+            return deal;
+
+        deal = dealEvery(unseen, total, gate, parent, jackpot, new int[parent.length + 1], 0, 1);
+        remember(best, key, deal);
+        return deal;
+    }
+
+    /*
+        Deals every ordering of the rest of the next row, from col on, weighing each by its
+        probability, and adds up what each is worth to a player who then plays as well as possible.
+        unseen already has the cards before col taken out.
+     */
+    private double dealEvery(int[] unseen, int total, int gate, int[] parent, int jackpot,
+                             int[] row, int col, double prob)
+    {
+        if (col == row.length)
+            return prob * settle(unseen, total, gate, parent, jackpot, row);
+
+        double value = 0;
+        for (int t = 0; t < TYPES; t++)
+        {
+            if (unseen[t] == 0)
+                continue;
+
+            double p = (double) unseen[t] / (total - col);
+            row[col] = t;
+            unseen[t]--;
+            value += dealEvery(unseen, total, gate, parent, jackpot, row, col + 1, prob * p);
+            unseen[t]++;
+        }
+        return value;
+    }
+
+    /*
+        What a dealt row that isn't the last is worth: the better of cashing it out
+        and dealing again, after the gate card is used on a misfortune in it.
+        unseen has the row's cards taken out.
+     */
+    private double settle(int[] unseen, int total, int gate, int[] parent, int jackpot, int[] row)
+    {
+        int left = total - row.length;
+        int col = firstMisfortune(parent, row);
+        if (col < 0)
+            return playOn(unseen, left, gate, row, jackpot);
+        if (gate == GATE_USED)
+            return 0;
+
+        //the gate card replaces the first misfortune, then the row is checked again
+        int[] saved = row.clone();
+        double value = 0;
+        for (int g = 0; g < TYPES; g++)
+        {
+            double p;
+            if (gate == GATE_HIDDEN)
+            {
+                if (unseen[g] == 0)
+                    continue;
+                p = (double) unseen[g] / left;
+            }
+            else if (g == gate)
+                p = 1;
+            else
+                continue;
+
+            saved[col] = g;
+            if (firstMisfortune(parent, saved) >= 0)
+                continue;
+
+            if (gate == GATE_HIDDEN)
+            {
+                unseen[g]--;
+                value += p * playOn(unseen, left - 1, GATE_USED, saved, 0);
+                unseen[g]++;
+            }
+            else
+                value += p * playOn(unseen, left, GATE_USED, saved, 0);
+        }
+        return value;
+    }
+
+    /*
+        The better of cashing out a row that has just been dealt and dealing the next.
+     */
+    private double playOn(int[] unseen, int total, int gate, int[] row, int jackpot)
+    {
+        int cashOut = 0;
+        for (int t : row)
+            cashOut += values[t];
+        return Math.max(cashOut, bestDeal(unseen, total, gate, row, jackpot + cashOut));
+    }
+
+    /*
+        Adds a value to a memo, clearing it first if it is full.
+     */
+    private static void remember(Map<StateKey, Double> memo, StateKey key, double value)
+    {
+        if (memo.size() >= MAX_MEMO)
+            memo.clear();
+        memo.put(key, value);
+    }
+
+    /*
+        Expected payout of dealing one more row, then cashing it out.
+        The row is dealt a card at a time; each state is the multiset of cards
+        drawn so far packed 5 bits per kind, with the misfortune status above it.
+        Each state keeps its probability, and its probability times the row value
+        and times the card the gate would replace, since the payout is linear in both.
+     */
+    private double dealValue(int[] unseen, int total, int gate, int[] parent, int jackpot, boolean lastDeal)
+    {
+        int childRow = parent.length;
+        //misfortunes can't happen in the first three rows
+        boolean checked = childRow > 2;
+
+        StateTable states = new StateTable(16);
+        states.add(0L, 1, 0, 0);
+
+        for (int k = 0; k <= childRow; k++)
+        {
+            StateTable next = new StateTable(states.size() * 4);
+            for (int i = 0; i < states.capacity(); i++)
+            {
+                long key = states.key(i);
+                if (key == StateTable.EMPTY)
+                    continue;
+
+                long drawn = key & DRAWN_MASK;
+                int status = (int) (key >>> STATUS_SHIFT);
+                double prob = states.prob(i);
+                double mass = states.mass(i);
+                double replaced = states.replaced(i);
+
+                for (int t = 0; t < TYPES; t++)
+                {
+                    int left = unseen[t] - drawn(drawn, t);
+                    if (left <= 0)
+                        continue;
+
+                    double p = (double) left / (total - k);
+                    int nextStatus = checked ? advance(status, k, t, parent) : status;
+                    long nextKey = ((long) nextStatus << STATUS_SHIFT) | (drawn + (1L << (t * 5)));
+
+                    //the first misfortune remembers the card it happened on
+                    double nextReplaced = replaced * p;
+                    if (status == CLEAR && nextStatus >= FIRST_MISFORTUNE)
+                        nextReplaced = prob * values[t] * p;
+
+                    next.add(nextKey, prob * p, (mass + prob * values[t]) * p, nextReplaced);
+                }
+            }
+            states = next;
+        }
+
+        double value = 0;
+        int gateTotal = total - (childRow + 1);
+        for (int i = 0; i < states.capacity(); i++)
+        {
+            long key = states.key(i);
+            if (key == StateTable.EMPTY)
+                continue;
+
+            long drawn = key & DRAWN_MASK;
+            int status = (int) (key >>> STATUS_SHIFT);
+            double prob = states.prob(i);
+            double mass = states.mass(i);
+
+            if (status == CLEAR || status == IMMUNE)
+            {
+                //a jackpot is every row and the gate card
+                if (lastDeal && gate != GATE_USED)
+                    value += mass + prob * (jackpot + gateValue(unseen, drawn, gate, gateTotal));
+                else
+                    value += mass;
+                continue;
+            }
+            if (gate == GATE_USED)
+                continue;
+
+            //the gate card replaces the first misfortune, then the row is checked again
+            double kept = mass - states.replaced(i);
+            for (int g = 0; g < TYPES; g++)
+            {
+                double p;
+                if (gate == GATE_HIDDEN)
+                {
+                    int left = unseen[g] - drawn(drawn, g);
+                    if (left <= 0)
+                        continue;
+                    p = (double) left / gateTotal;
+                }
+                else if (g == gate)
+                    p = 1;
+                else
+                    continue;
+
+                if (g == KNIGHT || (status != MISFORTUNES && !equalsParent(g, status - FIRST_MISFORTUNE, parent)))
+                    value += p * (kept + prob * values[g]);
+            }
+        }
+
+        return value;
+    }
+
+    /*
+        The expected value of the gate card, once the cards drawn are out of the deck.
+     */
+    private double gateValue(int[] unseen, long drawn, int gate, int gateTotal)
+    {
+        if (gate != GATE_HIDDEN)
+            return values[gate];
+
+        double value = 0;
+        for (int g = 0; g < TYPES; g++)
+            value += (double) (unseen[g] - drawn(drawn, g)) * values[g] / gateTotal;
+        return value;
+    }
+
+    /*
+        The number of cards of a kind in a packed row.
+     */
+    private static int drawn(long drawn, int t)
+    {
+        return (int) (drawn >>> (t * 5)) & 0x1F;
+    }
+
+    /*
+        Updates the status of the row being dealt with the card
+        of the given kind placed at col.
+     */
+    private static int advance(int status, int col, int t, int[] parent)
+    {
+        if (status == IMMUNE || t == KNIGHT)
+            return IMMUNE;
+
+        if (!equalsParent(t, col, parent))
+            return status;
+
+        if (status == CLEAR)
+            return FIRST_MISFORTUNE + col;
+        return MISFORTUNES;
+    }
+
+    /*
+        The column Board2D.misFortune() would report, or -1 if there is no misfortune.
+        Misfortunes can't happen in the first three rows.
+     */
+    private static int firstMisfortune(int[] parent, int[] row)
+    {
+        if (row.length <= 3)
+            return -1;
+
+        for (int t : row)
+        {
+            if (t == KNIGHT)
+                return -1;
+        }
+
+        for (int i = 0; i < row.length; i++)
+        {
+            if (equalsParent(row[i], i, parent))
+                return i;
+        }
+        return -1;
+    }
+
+    /*
+        Determines if a card at col is equal to either of the cards above it.
+     */
+    private static boolean equalsParent(int t, int col, int[] parent)
+    {
+        return (col > 0 && parent[col - 1] == t) || (col < parent.length && parent[col] == t);
+    }
+
+    /**
+     * The values of the two choices the player has.
+     */
+    public static class Evaluation
+    {
+        private final double cashOutValue;
+        private final double dealValue;
+        private final boolean bestPlay;
+
+        private Evaluation(double cashOutValue, double dealValue, boolean bestPlay)
+        {
+            this.cashOutValue = cashOutValue;
+            this.dealValue = dealValue;
+            this.bestPlay = bestPlay;
+        }
+
+        /**
+         * Gets the points won by cashing out now.
+         * @return the value of the last dealt row
+         */
+        public double getCashOutValue()
+        {
+            return cashOutValue;
+        }
+
+        /**
+         * Gets the expected points won by dealing the next row and then playing
+         * as well as possible, or if isBestPlay() is false, by dealing the next row and stopping.
+         * @return the expected value of dealing, or 0 if the board is complete
+         */
+        public double getDealValue()
+        {
+            return dealValue;
+        }
+
+        /**
+         * Determines if the value of dealing is that of the best play from here,
+         * rather than of dealing one row and stopping.
+         * @return true if cashing out or dealing as advised is the best play
+         */
+        public boolean isBestPlay()
+        {
+            return bestPlay;
+        }
+
+        /**
+         * Determines if cashing out is worth at least as much as dealing.
+         * @return true if cashing out is worth at least as much as the value of dealing
+         */
+        public boolean shouldCashOut()
+        {
+            return cashOutValue >= dealValue;
+        }
+
+        public String toString()
+        {
+            return String.format("Cash out: %.0f, " + (bestPlay ? "Deal and play on: %.3f" : "Deal one row: %.3f"),
+                    cashOutValue, dealValue);
+        }
+    }
+
+    /*
+        Memo key for a board state.
+     */
+    private static class StateKey
+    {
+        //the unseen cards, 8 bits to a kind
+        private final long cards;
+        private final long row;
+        private final int gate;
+        private final int jackpot;
+
+        public StateKey(int[] unseen, int gate, int[] parent, int jackpot)
+        {
+            long c = 0;
+            for (int t = 0; t < TYPES; t++)
+                c |= (long) unseen[t] << (t * 8);
+            cards = c;
+            this.gate = gate;
+            this.jackpot = jackpot;
+
+            //once the gate card is used, a row read either way has the same future
+            boolean mirror = gate == GATE_USED && isMirrorFirst(parent);
+            long r = parent.length;
+            for (int i = 0; i < parent.length; i++)
+                r |= (long) parent[mirror ? parent.length - 1 - i : i] << (4 + i * 4);
+            row = r;
+        }
+
+        /*
+            Determines if a row read from the right comes before it read from the left.
+         */
+        private static boolean isMirrorFirst(int[] row)
+        {
+            for (int i = 0, j = row.length - 1; i < j; i++, j--)
+            {
+                if (row[i] != row[j])
+                    return row[j] < row[i];
+            }
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof StateKey))
+                return false;
+            StateKey other = (StateKey) o;
+            return cards == other.cards && row == other.row && gate == other.gate && jackpot == other.jackpot;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Long.hashCode(((cards * 31 + row) * 31 + gate) * 31 + jackpot);
+        }
+    }
+}
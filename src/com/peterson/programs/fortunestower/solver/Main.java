@@ -0,0 +1,42 @@
+package com.peterson.programs.fortunestower.solver;
+
+import com.peterson.programs.fortunestower.Deck;
+
+/**
+ * Exact outcome runner.
+ * Works out the exact outcome probabilities for each of the
+ * standard deck sizes and prints them, with the number of deals each payout is out of.
+ * The row to cash out after is the only argument, from 2 to
+ * TowerEnumerator.MAX_CASH_OUT_ROW; rows past that, and playing the whole
+ * tower, take too long to count exactly.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class Main
+{
+    private static final int[] DECKS = {Deck.DIAMOND_DECK, Deck.EMERALD_DECK, Deck.RUBY_DECK};
+    private static final String[] DECK_NAMES = {"Diamond", "Emerald", "Ruby"};
+
+    public static void main(String[] args)
+    {
+        int row = args.length == 1 ? Integer.parseInt(args[0]) : 0;
+        if (row < 2 || row > TowerEnumerator.MAX_CASH_OUT_ROW)
+        {
+            System.err.println("Give the row to cash out after, from 2 to " + TowerEnumerator.MAX_CASH_OUT_ROW);
+            System.exit(1);
+        }
+
+        System.out.println("Exact outcomes when cashing out after row " + row + "\n");
+        for (int i = 0; i < DECKS.length; i++)
+        {
+            long start = System.nanoTime();
+            OutcomeDistribution dist = new TowerEnumerator(DECKS[i], row).enumerate();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.println(DECK_NAMES[i] + " Deck: " + DECKS[i] + " Cards");
+            System.out.print(dist);
+            System.out.printf("Total probability: %.15f, every deal counted: %b%n", dist.total(), dist.isComplete());
+            System.out.printf("Seconds: %.2f%n%n", seconds);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.peterson.programs.fortunestower.solver;
+
+import com.peterson.programs.fortunestower.Board2D;
+import com.peterson.programs.fortunestower.Card;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+
+/**
+ * Exact probabilities of how a game ends.
+ * Holds the number of deals that end in a misfortune on each row, that use
+ * the gate card and that it saves, and that win every possible payout,
+ * all out of the same number of deals, so each probability is an exact fraction.
+ * The counts are BigIntegers, since they count deals of many cards drawn in order.
+ * The double getters are the nearest double to each fraction.
+ * Distributions are built up by adding counted parts together.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class OutcomeDistribution
+{
+    /**
+     * One more than the largest payout of cashing out; every card of the last row a 7.
+     */
+    public static final int MAX_PAYOUT = Card.MAX_VALUE * Board2D.LAST_LEVEL + 1;
+
+    private final BigInteger deals;
+    private final BigInteger[] misfortunes;
+    private final BigInteger[] payouts;
+    private BigInteger saveAttempted;
+    private BigInteger saveSucceeded;
+
+    /**
+     * Creates an empty distribution, with every count 0.
+     * @param deals the number of deals every count is out of
+     * @throws IllegalArgumentException if deals isn't positive
+     */
+    public OutcomeDistribution(BigInteger deals)
+    {
+        if (deals.signum() <= 0)
+            throw new IllegalArgumentException("A distribution must be out of at least one deal");
+
+        this.deals = deals;
+        misfortunes = new BigInteger[Board2D.LAST_LEVEL];
+        payouts = new BigInteger[MAX_PAYOUT];
+        Arrays.fill(misfortunes, BigInteger.ZERO);
+        Arrays.fill(payouts, BigInteger.ZERO);
+        saveAttempted = BigInteger.ZERO;
+        saveSucceeded = BigInteger.ZERO;
+    }
+
+    /*
+        A distribution of the deals that follow a state, which is never read on its own.
+     */
+    OutcomeDistribution()
+    {
+        this(BigInteger.ONE);
+    }
+
+    /**
+     * Adds the counts of another distribution into this one.
+     * @param other the distribution to add
+     * @param ways the number of ways the other distribution's deals can start
+     */
+    public void add(OutcomeDistribution other, long ways)
+    {
+        BigInteger w = BigInteger.valueOf(ways);
+        for (int i = 0; i < misfortunes.length; i++)
+        {
+            if (other.misfortunes[i].signum() != 0)
+                misfortunes[i] = misfortunes[i].add(other.misfortunes[i].multiply(w));
+        }
+        for (int i = 0; i < payouts.length; i++)
+        {
+            if (other.payouts[i].signum() != 0)
+                payouts[i] = payouts[i].add(other.payouts[i].multiply(w));
+        }
+        saveAttempted = saveAttempted.add(other.saveAttempted.multiply(w));
+        saveSucceeded = saveSucceeded.add(other.saveSucceeded.multiply(w));
+    }
+
+    void addMisfortune(int row, BigInteger count)
+    {
+        misfortunes[row] = misfortunes[row].add(count);
+        payouts[0] = payouts[0].add(count);
+    }
+
+    void addPayout(int payout, BigInteger count)
+    {
+        payouts[payout] = payouts[payout].add(count);
+    }
+
+    void addSaveAttempted(BigInteger count)
+    {
+        saveAttempted = saveAttempted.add(count);
+    }
+
+    void addSaveSucceeded(BigInteger count)
+    {
+        saveSucceeded = saveSucceeded.add(count);
+    }
+
+    /**
+     * Gets the number of deals every count is out of.
+     * @return the denominator of every probability
+     */
+    public BigInteger getDeals()
+    {
+        return deals;
+    }
+
+    /**
+     * Gets the number of deals that end in a misfortune on a row.
+     * @param row the row, from 3 to 7, since earlier rows can't have one
+     * @return the number of deals with a misfortune ending the game on that row
+     */
+    public BigInteger misfortuneCount(int row)
+    {
+        return misfortunes[row];
+    }
+
+    /**
+     * Gets the number of deals that use the gate card.
+     * @return the number of deals a save is attempted in
+     */
+    public BigInteger saveAttemptedCount()
+    {
+        return saveAttempted;
+    }
+
+    /**
+     * Gets the number of deals the gate card clears the misfortune it was used on.
+     * @return the number of deals a save succeeds in
+     */
+    public BigInteger saveSucceededCount()
+    {
+        return saveSucceeded;
+    }
+
+    /**
+     * Gets the number of deals that win an exact number of points.
+     * @param payout the points won
+     * @return the number of deals with that payout, 0 if it is out of range
+     */
+    public BigInteger payoutCount(int payout)
+    {
+        if (payout < 0 || payout >= payouts.length)
+            return BigInteger.ZERO;
+        return payouts[payout];
+    }
+
+    /**
+     * Gets the probability of a game ending in a misfortune on a row.
+     * @param row the row, from 3 to 7, since earlier rows can't have one
+     * @return the probability of a misfortune ending the game on that row
+     */
+    public double misfortune(int row)
+    {
+        return probability(misfortunes[row]);
+    }
+
+    /**
+     * Gets the probability of a game ending in a misfortune on any row.
+     * @return the probability of a misfortune
+     */
+    public double misfortune()
+    {
+        BigInteger total = BigInteger.ZERO;
+        for (BigInteger count : misfortunes)
+            total = total.add(count);
+        return probability(total);
+    }
+
+    /**
+     * Gets the probability of the gate card being used.
+     * @return the probability of a save being attempted
+     */
+    public double saveAttempted()
+    {
+        return probability(saveAttempted);
+    }
+
+    /**
+     * Gets the probability of the gate card clearing the misfortune it was used on.
+     * @return the probability of a save succeeding
+     */
+    public double saveSucceeded()
+    {
+        return probability(saveSucceeded);
+    }
+
+    /**
+     * Gets the probability of winning an exact number of points.
+     * @param payout the points won
+     * @return the probability of that payout, 0 if it is out of range
+     */
+    public double payout(int payout)
+    {
+        return probability(payoutCount(payout));
+    }
+
+    /**
+     * Gets the expected number of points won.
+     * @return the mean payout
+     */
+    public double meanPayout()
+    {
+        BigInteger points = BigInteger.ZERO;
+        for (int i = 1; i < payouts.length; i++)
+        {
+            if (payouts[i].signum() != 0)
+                points = points.add(payouts[i].multiply(BigInteger.valueOf(i)));
+        }
+        return probability(points);
+    }
+
+    /**
+     * Gets the total probability held; 1 for a complete distribution.
+     * @return the sum of the payout probabilities
+     */
+    public double total()
+    {
+        return probability(totalCount());
+    }
+
+    /**
+     * Determines if every deal is counted once, so the probabilities add up to exactly 1.
+     * @return true if the payout counts add up to the number of deals
+     */
+    public boolean isComplete()
+    {
+        return totalCount().equals(deals);
+    }
+
+    private BigInteger totalCount()
+    {
+        BigInteger total = BigInteger.ZERO;
+        for (BigInteger count : payouts)
+            total = total.add(count);
+        return total;
+    }
+
+    /*
+        The nearest double to a count out of the deals.
+     */
+    private double probability(BigInteger count)
+    {
+        return new BigDecimal(count).divide(new BigDecimal(deals), MathContext.DECIMAL64).doubleValue();
+    }
+
+    public String toString()
+    {
+        StringBuilder b = new StringBuilder();
+        b.append(String.format("Deals: %s%n", deals));
+        b.append(String.format("Save attempted: %.12f, succeeded: %.12f%n", saveAttempted(), saveSucceeded()));
+        for (int i = 0; i < misfortunes.length; i++)
+        {
+            if (misfortunes[i].signum() != 0)
+                b.append(String.format("Misfortune on row %d: %.12f%n", i, misfortune(i)));
+        }
+        b.append(String.format("Mean payout: %.12f%n", meanPayout()));
+        b.append("Payouts:\n");
+        for (int i = 0; i < payouts.length; i++)
+        {
+            if (payouts[i].signum() != 0)
+                b.append(String.format("  %3d: %.12f  %s%n", i, payout(i), payouts[i]));
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.peterson.programs.fortunestower.solver;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing table from a packed state to three masses,
+ * so dealing a row a card at a time doesn't box a value for every state.
+ * Keys must not be negative.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+class StateTable
+{
+    static final long EMPTY = -1;
+
+    private long[] keys;
+    private double[] values;
+    private int size;
+
+    public StateTable(int expected)
+    {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new double[capacity * 3];
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public int capacity()
+    {
+        return keys.length;
+    }
+
+    public long key(int i)
+    {
+        return keys[i];
+    }
+
+    public double prob(int i)
+    {
+        return values[i * 3];
+    }
+
+    public double mass(int i)
+    {
+        return values[i * 3 + 1];
+    }
+
+    public double replaced(int i)
+    {
+        return values[i * 3 + 2];
+    }
+
+    /*
+        Adds the masses to the state, creating it if needed.
+     */
+    public void add(long key, double prob, double mass, double replaced)
+    {
+        if (size * 2 >= keys.length)
+            grow();
+
+        int i = slot(keys, key);
+        if (keys[i] == EMPTY)
+        {
+            keys[i] = key;
+            size++;
+        }
+        values[i * 3] += prob;
+        values[i * 3 + 1] += mass;
+        values[i * 3 + 2] += replaced;
+    }
+
+    private static int slot(long[] keys, long key)
+    {
+        int mask = keys.length - 1;
+        int i = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        while (keys[i] != EMPTY && keys[i] != key)
+            i = (i + 1) & mask;
+        return i;
+    }
+
+    private void grow()
+    {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        values = new double[keys.length * 3];
+
+        for (int j = 0; j < oldKeys.length; j++)
+        {
+            if (oldKeys[j] == EMPTY)
+                continue;
+            int i = slot(keys, oldKeys[j]);
+            keys[i] = oldKeys[j];
+            System.arraycopy(oldValues, j * 3, values, i * 3, 3);
+        }
+    }
+}
@@ -0,0 +1,494 @@
+package com.peterson.programs.fortunestower.solver;
+
+import com.peterson.programs.fortunestower.Card;
+import com.peterson.programs.fortunestower.RuleSet;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Works out the exact probabilities of how a game ends, without sampling.
+ * The player deals every row up to a chosen row and then cashes out,
+ * following the rules of Board2D.
+ * Deals are counted, not weighed: every outcome is the number of ways of drawing
+ * the cards of a game in order, out of every way of drawing as many cards as the
+ * longest game takes, so the distribution is exact fractions with no rounding.
+ * A game that ends sooner counts every way the cards it didn't draw could have come.
+ * Deals are walked by the counts of each kind of card drawn rather than
+ * by individual cards, and a state is only the cards drawn so far, the gate card
+ * and the last row, so deals that reach the same state in a different order
+ * are worked out once and shared:
+ * the order of a row only matters to the misfortune check of the row after it,
+ * so the first two rows are kept as counts alone, and the last row, which has no
+ * row after it, is dealt a card at a time over the multiset of cards drawn.
+ * The gate card is treated as drawn when it is used, which gives the same
+ * probabilities as drawing it first.
+ * Once the gate card is used a row and its mirror image lead to the same outcomes,
+ * since a mirrored row has the same misfortunes, so they share one state. While it is
+ * hidden they don't, since the gate card replaces the leftmost misfortune, which is a
+ * different card in the mirror image.
+ * The top of the search is split across cores with fork-join.
+ * Every other row still has to be followed in every order it can be dealt in,
+ * up to its mirror image, so the work grows by about 8^n for each row added before the last.
+ * Cashing out after row 3 takes seconds, but after row 4 a single deck takes more than
+ * a quarter of an hour, so the enumerator stops at MAX_CASH_OUT_ROW. The whole eight row
+ * tower, and so the chance of a jackpot, is left to sampling.
+ *
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class TowerEnumerator
+{
+    /**
+     * The last row the enumerator can cash out after.
+     */
+    public static final int MAX_CASH_OUT_ROW = 3;
+
+    private static final int TYPES = Card.MAX_VALUE + 1;
+    private static final int KNIGHT = 0;
+
+    /*
+        Rows at or above this are split into fork-join tasks
+     */
+    private static final int SPLIT_ROW = 2;
+
+    /*
+        Status of the last row as it is dealt. Misfortunes keep the code of the
+        card the gate would replace, and a single misfortune its column too.
+     */
+    private static final int CLEAR = 0;
+    private static final int IMMUNE = 1;
+    private static final int MISFORTUNES = 2;
+    private static final int FIRST_MISFORTUNE = MISFORTUNES + TYPES;
+
+    private final int[] composition;
+    private final int total;
+    private final int lastRow;
+    //the cards drawn by a game that deals every row and uses the gate card
+    private final int cards;
+    //fallingFactorial[n][k] is the number of ways of drawing k of n cards in order
+    private final BigInteger[][] fallingFactorial;
+    private final Map<Long, OutcomeDistribution> memo;
+
+    /**
+     * Creates an enumerator for cashing out after a row.
+     * @param deckSize the number of cards in the deck. Use the constants from the Deck class
+     *                 for the standard sizes.
+     * @param cashOutRow the row to cash out after, from 2 to MAX_CASH_OUT_ROW
+     * @throws IllegalArgumentException if cashOutRow is out of range, or the deck has more than
+     * 15 cards of a kind, or so many cards that the ways of dealing a row don't fit in a double exactly
+     */
+    public TowerEnumerator(int deckSize, int cashOutRow)
+    {
+        if (cashOutRow < 2 || cashOutRow > MAX_CASH_OUT_ROW)
+            throw new IllegalArgumentException("Can only cash out after rows 2 to " + MAX_CASH_OUT_ROW);
+
+        //the same cards Deck makes
+        composition = RuleSet.STANDARD.composition(deckSize);
+
+        //the cards of a kind drawn are counted 4 bits to a kind
+        for (int count : composition)
+        {
+            if (count > 0xF)
+                throw new IllegalArgumentException("The enumerator only knows decks of up to 15 cards of a kind");
+        }
+
+        total = deckSize;
+        lastRow = cashOutRow;
+        cards = 1 + cashOutRow * (cashOutRow + 3) / 2;
+        fallingFactorial = new BigInteger[total + 1][];
+        for (int n = 0; n <= total; n++)
+        {
+            fallingFactorial[n] = new BigInteger[Math.min(n, cards) + 1];
+            fallingFactorial[n][0] = BigInteger.ONE;
+            for (int k = 1; k < fallingFactorial[n].length; k++)
+                fallingFactorial[n][k] = fallingFactorial[n][k - 1].multiply(BigInteger.valueOf(n - k + 1));
+        }
+        //the last row is dealt in doubles, which hold whole numbers exactly up to 2^53
+        if (total >= cards && fallingFactorial[total][cashOutRow + 1].bitLength() > 53)
+            throw new IllegalArgumentException("The deck has too many cards to count the deals of a row exactly");
+        memo = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Works out the distribution over every deal.
+     * @return the exact probabilities of each outcome, out of every way of drawing
+     * the cards of the longest game in order
+     * @throws IllegalStateException if the deck doesn't have the cards of the longest game
+     */
+    public OutcomeDistribution enumerate()
+    {
+        if (total < cards)
+            throw new IllegalStateException("A deck of " + total + " cards can't deal " + cards + " cards");
+
+        //the gate card isn't drawn until it is used, so the first row dealt is row 1
+        OutcomeDistribution deals = ForkJoinPool.commonPool().invoke(new StateTask(0, true, new int[1]));
+        OutcomeDistribution dist = new OutcomeDistribution(fallingFactorial[total][cards]);
+        dist.add(deals, 1);
+        return dist;
+    }
+
+    /*
+        Solves the game from a state. drawn has the counts of every card out of
+        the deck packed 4 bits per kind, parent is the last row dealt.
+        The distribution counts the ways of drawing the rest of the longest game's cards.
+     */
+    private OutcomeDistribution solve(int drawn, boolean gateHidden, int[] parent)
+    {
+        int child = parent.length;
+        if (child == lastRow)
+            return dealLast(drawn, gateHidden, parent);
+
+        long key = key(drawn, gateHidden, parent);
+        OutcomeDistribution dist = memo.get(key);
+        if (dist != null)
+            return dist;
+
+        dist = new OutcomeDistribution();
+        List<Branch> dealt = new ArrayList<>();
+        deal(gateHidden, parent, new int[child + 1], 0, drawn, 1L, dist, dealt);
+
+        //rows that lead to the same state are only solved once
+        Map<Long, Branch> merged = new LinkedHashMap<>();
+        for (Branch b : dealt)
+        {
+            long k = key(b.drawn, b.gateHidden, b.row);
+            Branch same = merged.get(k);
+            if (same == null)
+                merged.put(k, b);
+            else
+                same.weight += b.weight;
+        }
+        List<Branch> branches = new ArrayList<>(merged.values());
+
+        if (child <= SPLIT_ROW)
+        {
+            List<StateTask> tasks = new ArrayList<>();
+            for (Branch b : branches)
+                tasks.add(new StateTask(b.drawn, b.gateHidden, b.row));
+            RecursiveTask.invokeAll(tasks);
+            for (int i = 0; i < tasks.size(); i++)
+                dist.add(tasks.get(i).join(), branches.get(i).weight);
+        }
+        else
+        {
+            for (Branch b : branches)
+                dist.add(solve(b.drawn, b.gateHidden, b.row), b.weight);
+        }
+
+        memo.put(key, dist);
+        return dist;
+    }
+
+    /*
+        Deals every ordering of the next row, a card at a time, counting the ways
+        each is drawn. Rows that end the game are added to dist, the rest are added to branches.
+     */
+    private void deal(boolean gateHidden, int[] parent, int[] row, int k,
+                      int soFar, long ways, OutcomeDistribution dist, List<Branch> branches)
+    {
+        if (k == row.length)
+        {
+            settle(soFar, gateHidden, parent, row, ways, dist, branches);
+            return;
+        }
+
+        for (int t = 0; t < TYPES; t++)
+        {
+            int count = composition[t] - count(soFar, t);
+            if (count <= 0)
+                continue;
+
+            row[k] = t;
+            deal(gateHidden, parent, row, k + 1, soFar + (1 << (t * 4)),
+                    ways * count, dist, branches);
+        }
+    }
+
+    /*
+        Checks a fully dealt row for a misfortune and uses the gate card if needed.
+     */
+    private void settle(int drawn, boolean gateHidden, int[] parent, int[] row, long ways,
+                        OutcomeDistribution dist, List<Branch> branches)
+    {
+        int col = firstMisfortune(parent, row);
+        if (col < 0)
+        {
+            branches.add(new Branch(drawn, gateHidden, row.clone(), ways));
+            return;
+        }
+
+        if (!gateHidden)
+        {
+            dist.addMisfortune(row.length - 1, deals(ways, drawn));
+            return;
+        }
+
+        dist.addSaveAttempted(deals(ways, drawn));
+        for (int g = 0; g < TYPES; g++)
+        {
+            int count = composition[g] - count(drawn, g);
+            if (count <= 0)
+                continue;
+
+            long w = ways * count;
+            int withGate = drawn + (1 << (g * 4));
+            int[] saved = row.clone();
+            saved[col] = g;
+            if (firstMisfortune(parent, saved) < 0)
+            {
+                dist.addSaveSucceeded(deals(w, withGate));
+                branches.add(new Branch(withGate, false, saved, w));
+            }
+            else
+                dist.addMisfortune(row.length - 1, deals(w, withGate));
+        }
+    }
+
+    /*
+        Deals the last row a card at a time over the multiset of cards in it,
+        since its order doesn't matter to any row after it. The ways of dealing
+        each multiset and status are whole numbers, which the doubles of a StateTable hold exactly.
+     */
+    private OutcomeDistribution dealLast(int drawn, boolean gateHidden, int[] parent)
+    {
+        int child = parent.length;
+        boolean checked = child > 2;
+
+        StateTable states = new StateTable(16);
+        states.add(0L, 1, 0, 0);
+        for (int k = 0; k <= child; k++)
+        {
+            StateTable next = new StateTable(states.size() * 4);
+            for (int i = 0; i < states.capacity(); i++)
+            {
+                long key = states.key(i);
+                if (key == StateTable.EMPTY)
+                    continue;
+
+                int row = (int) key;
+                int status = (int) (key >>> 32);
+                double ways = states.prob(i);
+
+                for (int t = 0; t < TYPES; t++)
+                {
+                    int count = composition[t] - count(drawn, t) - count(row, t);
+                    if (count <= 0)
+                        continue;
+
+                    int nextStatus = checked ? advance(status, k, t, parent) : status;
+                    long nextKey = ((long) nextStatus << 32) | ((row + (1 << (t * 4))) & 0xFFFFFFFFL);
+                    next.add(nextKey, ways * count, 0, 0);
+                }
+            }
+            states = next;
+        }
+
+        OutcomeDistribution dist = new OutcomeDistribution();
+
+        for (int i = 0; i < states.capacity(); i++)
+        {
+            long key = states.key(i);
+            if (key == StateTable.EMPTY)
+                continue;
+
+            int row = (int) key;
+            int status = (int) (key >>> 32);
+            long ways = (long) states.prob(i);
+            int dealt = drawn + row;
+            int value = sum(row);
+
+            if (status == CLEAR || status == IMMUNE)
+            {
+                dist.addPayout(value, deals(ways, dealt));
+                continue;
+            }
+            if (!gateHidden)
+            {
+                dist.addMisfortune(child, deals(ways, dealt));
+                continue;
+            }
+
+            dist.addSaveAttempted(deals(ways, dealt));
+            int code;
+            int col = -1;
+            if (status < FIRST_MISFORTUNE)
+                code = status - MISFORTUNES;
+            else
+            {
+                col = (status - FIRST_MISFORTUNE) / TYPES;
+                code = (status - FIRST_MISFORTUNE) % TYPES;
+            }
+
+            for (int g = 0; g < TYPES; g++)
+            {
+                int count = composition[g] - count(dealt, g);
+                if (count <= 0)
+                    continue;
+
+                BigInteger d = deals(ways * count, dealt + (1 << (g * 4)));
+                if (g == KNIGHT || (col >= 0 && !equalsParent(g, col, parent)))
+                {
+                    dist.addSaveSucceeded(d);
+                    dist.addPayout(value - code + g, d);
+                }
+                else
+                    dist.addMisfortune(child, d);
+            }
+        }
+
+        return dist;
+    }
+
+    /*
+        Updates the status of the last row with the card of the given kind placed at col.
+     */
+    private static int advance(int status, int col, int t, int[] parent)
+    {
+        if (status == IMMUNE || t == KNIGHT)
+            return IMMUNE;
+
+        if (!equalsParent(t, col, parent))
+            return status;
+
+        if (status == CLEAR)
+            return FIRST_MISFORTUNE + col * TYPES + t;
+        if (status >= FIRST_MISFORTUNE)
+            return MISFORTUNES + (status - FIRST_MISFORTUNE) % TYPES;
+        return status;
+    }
+
+    /*
+        The column Board2D.misFortune() would report, or -1 if there is no misfortune.
+        Misfortunes can't happen in the first three rows.
+     */
+    private static int firstMisfortune(int[] parent, int[] row)
+    {
+        if (row.length <= 3)
+            return -1;
+
+        for (int t : row)
+        {
+            if (t == KNIGHT)
+                return -1;
+        }
+
+        for (int i = 0; i < row.length; i++)
+        {
+            if (equalsParent(row[i], i, parent))
+                return i;
+        }
+        return -1;
+    }
+
+    private static boolean equalsParent(int t, int col, int[] parent)
+    {
+        return (col > 0 && parent[col - 1] == t) || (col < parent.length && parent[col] == t);
+    }
+
+    private static int count(int packed, int t)
+    {
+        return (packed >>> (t * 4)) & 0xF;
+    }
+
+    /*
+        The number of deals of the longest game's cards that start with a way of
+        drawing the cards out of the deck, counting every way the rest could come.
+     */
+    private BigInteger deals(long ways, int drawn)
+    {
+        int left = remaining(drawn);
+        return BigInteger.valueOf(ways).multiply(fallingFactorial[left][cards - (total - left)]);
+    }
+
+    private int remaining(int drawn)
+    {
+        int left = total;
+        for (int t = 0; t < TYPES; t++)
+            left -= count(drawn, t);
+        return left;
+    }
+
+    private static int sum(int packed)
+    {
+        int sum = 0;
+        for (int t = 1; t < TYPES; t++)
+            sum += t * count(packed, t);
+        return sum;
+    }
+
+    /*
+        Memo key of a state. A row that the next row isn't checked against
+        only matters through the counts, so its cards are left out.
+        Once the gate card is used, a row and its mirror image have the same key.
+     */
+    private static long key(int drawn, boolean gateHidden, int[] parent)
+    {
+        long key = (drawn & 0xFFFFFFFFL) | ((long) parent.length << 32) | (gateHidden ? 1L << 36 : 0);
+        if (parent.length > 2)
+        {
+            boolean mirror = !gateHidden && isMirrorFirst(parent);
+            for (int i = 0; i < parent.length; i++)
+                key |= (long) parent[mirror ? parent.length - 1 - i : i] << (37 + i * 3);
+        }
+        return key;
+    }
+
+    /*
+        Determines if a row read from the right comes before it read from the left.
+     */
+    private static boolean isMirrorFirst(int[] row)
+    {
+        for (int i = 0, j = row.length - 1; i < j; i++, j--)
+        {
+            if (row[i] != row[j])
+                return row[j] < row[i];
+        }
+        return false;
+    }
+
+    /*
+        A row that was dealt without ending the game, and the ways of dealing it.
+     */
+    private static class Branch
+    {
+        private final int drawn;
+        private final boolean gateHidden;
+        private final int[] row;
+        private long weight;
+
+        public Branch(int drawn, boolean gateHidden, int[] row, long weight)
+        {
+            this.drawn = drawn;
+            this.gateHidden = gateHidden;
+            this.row = row;
+            this.weight = weight;
+        }
+    }
+
+    private class StateTask extends RecursiveTask<OutcomeDistribution>
+    {
+        private final int drawn;
+        private final boolean gateHidden;
+        private final int[] parent;
+
+        public StateTask(int drawn, boolean gateHidden, int[] parent)
+        {
+            this.drawn = drawn;
+            this.gateHidden = gateHidden;
+            this.parent = parent;
+        }
+
+        @Override
+        protected OutcomeDistribution compute()
+        {
+            return solve(drawn, gateHidden, parent);
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package com.peterson.programs.fortunestower.testgame;
 
-import com.peterson.programs.fortunestower.Board2D;
+import com.peterson.programs.fortunestower.BoardType;
 import com.peterson.programs.fortunestower.Deck;
-import com.peterson.programs.fortunestower.TestDeck;
+import com.peterson.programs.fortunestower.GameSession;
+import com.peterson.programs.fortunestower.events.EngineEventSubscriber;
+import com.peterson.programs.fortunestower.events.EventBoard;
+import com.peterson.programs.fortunestower.events.EventLog;
+import com.peterson.programs.fortunestower.events.GameEvent;
+import com.peterson.programs.fortunestower.events.GameEventSubscriber;
+import com.peterson.programs.fortunestower.metrics.AllocationMeter;
+import com.peterson.programs.fortunestower.metrics.EngineEvents;
+import com.peterson.programs.fortunestower.metrics.Footprint;
+import com.peterson.programs.fortunestower.solver.CashOutSolver;
 
 import java.util.Scanner;
 
@@ -11,17 +20,29 @@ import java.util.Scanner;
  * This will manage the game of Fortunes Tower,
  * and run it via the command line.
  * This is mostly for demonstration purposes.
- * The Deck will be an instance of TestDeck, using a standard
- * Diamond deck.
+ * The Deck will be an instance of ArrayDeck, using a standard
+ * Diamond deck, and it and the board are reused for every game
+ * through a GameSession.
+ * Running with -Dfortunestower.accounting=true prints the bytes each game
+ * allocated, and when the player stops, the bytes per game and per step
+ * and the retained size of a session.
+ * The board publishes what happens to it, and the game reacts to its events
+ * rather than checking the board after every deal; running with
+ * -Dfortunestower.eventlog=true also logs the events.
  *
  * @author Peterson, Ryan
  *         Created 7/25/2014
  */
 public class GameManager implements Runnable
 {
-    private Deck deck;
-    private Board2D board2D;
+    private GameSession session;
+    private EventBoard board2D;
+    private BoardType boardType;
+    private CashOutSolver solver;
     private Scanner cin;
+    private AllocationMeter meter;
+    //set by the GameListener once the game is over
+    private boolean done;
 
     /**
      * Prepares the GameManager for running.
@@ -30,9 +51,28 @@ public class GameManager implements Runnable
      */
     public GameManager()
     {
-        deck = new TestDeck(Deck.DIAMOND_DECK);
-        board2D = new Board2D(deck);
+        this(BoardType.BOARD_2D);
+    }
+
+    /**
+     * Prepares the GameManager for running on a specific kind of Board.
+     * The Deck and Board are initialized,
+     * as well as the command line input.
+     * @param type the kind of Board to play on
+     */
+    public GameManager(BoardType type)
+    {
+        boardType = type;
+        session = new GameSession(Deck.DIAMOND_DECK, boardType);
+        board2D = new EventBoard(session.newGame());
+        board2D.subscribe(new GameListener());
+        board2D.subscribe(new EngineEventSubscriber());
+        if (EventLog.isRequested())
+            board2D.subscribe(new EventLog(System.err));
+        solver = new CashOutSolver(Deck.DIAMOND_DECK);
         cin = new Scanner(System.in);
+        if (AllocationMeter.isRequested())
+            meter = new AllocationMeter();
     }
 
     /**
@@ -41,10 +81,11 @@ public class GameManager implements Runnable
     public void run()
     {
         boolean keepGoing = true;
+        if (meter != null)
+            meter.begin();
         while (keepGoing)
         {
-            boolean done = false;
-            boolean trySave = false;
+            done = false;
 
             //while the game is not complete.
             while (!done)
@@ -52,77 +93,67 @@ public class GameManager implements Runnable
                 //print out the board and the current line's points
                 System.out.println("Current Board:\n");
                 System.out.print(board2D);
-                System.out.println("\nPoints: " + board2D.rowValue());
+                System.out.println("\nPoints: " + board2D.lastRowValue());
+                account("print");
 
                 //if the user wants to quit the game, cashing in on the current points
                 //let them
-                if (cashIn())
+                boolean cashIn = cashIn();
+                account("prompt");
+                if (cashIn)
                 {
                     done = true;
-                    System.out.println("You won: " + board2D.rowValue());
+                    System.out.println("You won: " + board2D.lastRowValue());
+                    EngineEvents.cashOut(board2D.getLastRow().length - 1, board2D.lastRowValue());
                 }
                 else
                 {
-                    //Main game logic.
-
-                    //deal the next row, and check for misfortune
+                    //deal the next row; the GameListener handles whatever it leads to
                     board2D.nextRow();
-
-                    if (board2D.misFortune() && !trySave) //if its a misfortune and no attempt to save has been made
-                    {
-                        trySave = true;
-                        System.out.println("Yikes! A potential Misfortune!\n" + board2D);
-
-                        //try to save the row
-                        board2D.trySave();
-
-                        //if, even after the row has been changed to save it, its a misfortune, game over
-                        if (board2D.misFortune())
-                        {
-                            System.out.println("MISFORTUNE");
-                            System.out.println(board2D);
-                            done = true;
-                        }
-
-                        System.out.println("\n\n\n\n");
-                    }
-                }
-
-                //if all 36 cards have been used, then the game is complete without misfortune
-                if (board2D.isComplete() && !board2D.misFortune())
-                {
-                    //if there was a jackpot (the gate card isn't used)
-                    if (board2D.hitJackpot())
-                    {
-                        System.out.println("Hit the Jack Pot!");
-                        System.out.println("Jackpot Value: " + board2D.jackpotValue());
-                    }
-                    else
-                    {
-                        //if the gate card is used, then summate the last row as points
-                        System.out.println("\n\n" + board2D);
-                        System.out.print("Board is complete\nFinal Points:");
-                        System.out.println(board2D.rowValue());
-                    }
-                    done = true;
+                    account("board.nextRow");
                 }
             }
 
+            if (meter != null)
+                System.out.println("Allocated this game: " + meter.endGame() + " bytes");
+
             keepGoing = playAgain();
 
             if (keepGoing)
             {
-                deck = new TestDeck(Deck.DIAMOND_DECK);
-                board2D = new Board2D(deck);
+                if (meter != null)
+                    meter.begin();
+                session.newGame();
+                board2D.refresh();
+                account("session.newGame");
             }
         }
+
+        if (meter != null)
+        {
+            System.out.print(meter);
+            System.out.println("Retained by a live " + boardType + " session: "
+                    + Footprint.retainedBytes(() -> new GameSession(Deck.DIAMOND_DECK, boardType)) + " bytes");
+        }
+    }
+
+    /*
+        Charges what was allocated since the last step to a step of the game.
+     */
+    private void account(String operation)
+    {
+        if (meter != null)
+            meter.record(operation);
     }
 
     /*
         Asks the user to input Y or N to not continue or continue, respectivly.
+        The solver's advice is shown first.
      */
     private boolean cashIn()
     {
+        System.out.println("Hint: " + solver.evaluate(board2D));
+
         /*
          * This loop will end once a Y or N is entered.
          */
@@ -161,4 +192,52 @@ public class GameManager implements Runnable
                 System.out.println("Invalid character. Try again!\n\n\n");
         }
     }
+
+    /*
+        Plays out what a deal leads to: a misfortune is saved with the gate card
+        if one is left, and the game ends on a misfortune that can't be, or a complete tower.
+     */
+    private class GameListener extends GameEventSubscriber
+    {
+        @Override
+        protected void onEvent(GameEvent event)
+        {
+            switch (event.getType())
+            {
+                case MISFORTUNE:
+                    if (event.isGateAvailable())
+                    {
+                        System.out.println("Yikes! A potential Misfortune!\n" + board2D);
+                        //try to save the row; how it went is the next event
+                        board2D.trySave();
+                    }
+                    else
+                    {
+                        System.out.println("MISFORTUNE");
+                        System.out.println(board2D);
+                        done = true;
+                    }
+                    break;
+                case GATE_SAVED:
+                    System.out.println("\n\n\n\n");
+                    break;
+                case JACKPOT:
+                    System.out.println("Hit the Jack Pot!");
+                    System.out.println("Jackpot Value: " + event.getValue());
+                    break;
+                case COMPLETE:
+                    //if the gate card is used, then the last row is the points
+                    if (!event.isJackpot())
+                    {
+                        System.out.println("\n\n" + board2D);
+                        System.out.print("Board is complete\nFinal Points:");
+                        System.out.println(event.getValue());
+                    }
+                    done = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
 }
@@ -1,7 +1,11 @@
 package com.peterson.programs.fortunestower.testgame;
 
+import com.peterson.programs.fortunestower.BoardType;
+
 /**
  * Application Runner Class.
+ * The name of a BoardType can be passed as the first argument
+ * to play on something other than Board2D.
  * @author Peterson, Ryan
  *         Created 7/26/2014
  */
@@ -12,7 +16,11 @@ public class Main
         /*
          * Run this on a thread for shits and grins. ;-)
          */
-        Thread t = new Thread(new GameManager());
+        BoardType type = BoardType.BOARD_2D;
+        if (args.length > 0)
+            type = BoardType.valueOf(args[0].toUpperCase());
+
+        Thread t = new Thread(new GameManager(type));
         t.start();
         try
         {
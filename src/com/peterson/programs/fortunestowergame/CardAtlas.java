@@ -0,0 +1,112 @@
+package com.peterson.programs.fortunestowergame;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * The card images, decoded once for the whole program.
+ * The stitched card file is read the first time the atlas is used,
+ * and cut into the nine card images in the order of CardLoader.CardSequence.
+ * Every deck and board after that shares the same images,
+ * so making a new deck or resetting a game does not read anything.
+ * The images and icons handed out are shared; they must not be drawn on
+ * or have their image set. To resize a card, wrap its image in a new ImageIcon.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public final class CardAtlas
+{
+    /*
+        This constants should never be messed with
+        unless the card's image file is resized.
+     */
+    private static final int DELTA_X = 100;
+    private static final int DELTA_Y = 150;
+    private static final int CARDS_PER_ROW = 3;
+
+    private final Image[] images;
+    private final ImageIcon[] icons;
+
+    /*
+        The holder class is only loaded, and the file only read,
+        the first time getInstance() is called.
+     */
+    private static class Holder
+    {
+        private static final CardAtlas INSTANCE = new CardAtlas();
+    }
+
+    private CardAtlas()
+    {
+        BufferedImage mainImage;
+        try
+        {
+            URL imgURL = CardAtlas.class.getResource(CardLoader.FILE);
+            mainImage = ImageIO.read(imgURL);
+        }
+        catch (IOException e)
+        {
+            //the file is packaged with the game, so this should never happen
+            throw new RuntimeException(e);
+        }
+
+        CardLoader.CardSequence[] sequence = CardLoader.CardSequence.values();
+        images = new Image[sequence.length];
+        icons = new ImageIcon[sequence.length];
+
+        /*
+            Reads across the stitched cards,
+            then advances down to read the next
+            3 cards
+         */
+        for (int i = 0; i < sequence.length; i++)
+        {
+            int x = (i % CARDS_PER_ROW) * DELTA_X;
+            int y = (i / CARDS_PER_ROW) * DELTA_Y;
+            images[i] = mainImage.getSubimage(x, y, DELTA_X, DELTA_Y);
+            icons[i] = new ImageIcon(images[i]);
+        }
+    }
+
+    /**
+     * Gets the atlas, decoding the card images if this is the first call.
+     * @return the only CardAtlas
+     */
+    public static CardAtlas getInstance()
+    {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Gets the full size image of a card.
+     * @param card the card to get
+     * @return the shared image of the card
+     */
+    public Image getImage(CardLoader.CardSequence card)
+    {
+        return images[card.ordinal()];
+    }
+
+    /**
+     * Gets the full size icon of a card.
+     * @param card the card to get
+     * @return the shared icon of the card
+     */
+    public ImageIcon getIcon(CardLoader.CardSequence card)
+    {
+        return icons[card.ordinal()];
+    }
+
+    /**
+     * Gets the number of card images in the atlas.
+     * @return the number of cards, 9
+     */
+    public int size()
+    {
+        return images.length;
+    }
+}
@@ -0,0 +1,512 @@
+package com.peterson.programs.fortunestowergame;
+
+import com.peterson.programs.fortunestower.metrics.LatencyHistogram;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.InvocationEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the event dispatch thread for slow events and stalls.
+ * The monitor is an EventQueue pushed in front of the system queue,
+ * so it times every event the EDT handles, including the paint events
+ * that lay out and repaint the frame.
+ * <p>
+ * An event that takes longer than the slow threshold is logged with
+ * its time split into the phases the handler marked with mark(String).
+ * A handler that opens a modal dialog keeps running while the dialog's own
+ * event loop waits for the player, so the time from the first event the dialog
+ * handles to the last one is counted as modal time, not as the handler's own.
+ * <p>
+ * A watchdog thread checks the EDT every SAMPLE_MILLIS. When one event has kept
+ * the EDT busy for longer than the stall threshold, the stack of the EDT is
+ * logged, and it is sampled until the event finishes; the frames the
+ * samples were in are logged with the end of the stall. A modal loop waiting for the
+ * player isn't a stall, but once one of its events is handled the handler that opened
+ * it is busy again, so a stall after a dialog closes is caught too.
+ * <p>
+ * The thresholds come from the system properties fortunestower.edt.slow and
+ * fortunestower.edt.stall, in milliseconds, and the log goes to System.err
+ * unless fortunestower.edt.log names a file.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class EdtMonitor extends EventQueue
+{
+    /**
+     * The default time, in milliseconds, an event can take before it is slow;
+     * about three frames at 60 frames a second.
+     */
+    public static final long DEFAULT_SLOW_MILLIS = 50;
+
+    /**
+     * The default time, in milliseconds, an event can take before the EDT is stalled.
+     */
+    public static final long DEFAULT_STALL_MILLIS = 500;
+
+    /**
+     * How often, in milliseconds, the watchdog checks the EDT.
+     */
+    public static final long SAMPLE_MILLIS = 50;
+
+    //nested events deeper than this are timed, but not split into phases
+    private static final int MAX_DEPTH = 16;
+    private static final int MAX_PHASES = 16;
+    private static final int MAX_FRAMES = 24;
+
+    private static volatile EdtMonitor installed;
+
+    private final long slowNanos;
+    private final long stallNanos;
+    private final PrintStream log;
+    private final ScheduledExecutorService watchdog;
+
+    //only used on the EDT
+    private final Dispatch[] dispatches;
+    private int depth;
+    private final LatencyHistogram latency;
+    private long maxNanos;
+    private int slowEvents;
+    private String lastSlow;
+
+    //read by the watchdog
+    private volatile Thread edt;
+    private volatile long busySince;
+    private volatile AWTEvent busyEvent;
+    private volatile int stalls;
+
+    //only used by the watchdog
+    private long stallStart;
+    private final Map<String, Integer> samples;
+
+    /**
+     * Creates a monitor. It does nothing until it is installed.
+     * @param slowMillis how long an event can take before it is logged as slow
+     * @param stallMillis how long an event can take before the EDT is stalled
+     * @param log where slow events and stalls are logged
+     */
+    public EdtMonitor(long slowMillis, long stallMillis, PrintStream log)
+    {
+        slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+        stallNanos = TimeUnit.MILLISECONDS.toNanos(stallMillis);
+        this.log = log;
+
+        dispatches = new Dispatch[MAX_DEPTH];
+        for (int i = 0; i < MAX_DEPTH; i++)
+            dispatches[i] = new Dispatch();
+        latency = new LatencyHistogram();
+        lastSlow = "";
+        samples = new HashMap<>();
+
+        watchdog = Executors.newSingleThreadScheduledExecutor(r ->
+        {
+            Thread t = new Thread(r, "edt-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Installs a monitor configured from the system properties, if one isn't
+     * installed already.
+     * @return the installed monitor
+     */
+    public static synchronized EdtMonitor install()
+    {
+        if (installed != null)
+            return installed;
+
+        PrintStream log = System.err;
+        String file = System.getProperty("fortunestower.edt.log");
+        if (file != null && !file.isEmpty())
+        {
+            try
+            {
+                log = new PrintStream(new FileOutputStream(file, true), true);
+            }
+            catch (FileNotFoundException e)
+            {
+                System.err.println("Could not open the EDT log " + file + ": " + e.getMessage());
+            }
+        }
+
+        EdtMonitor monitor = new EdtMonitor(Long.getLong("fortunestower.edt.slow", DEFAULT_SLOW_MILLIS),
+                Long.getLong("fortunestower.edt.stall", DEFAULT_STALL_MILLIS), log);
+        monitor.start();
+        installed = monitor;
+        return monitor;
+    }
+
+    /**
+     * Gets the installed monitor.
+     * @return the monitor, or null if none is installed
+     */
+    public static synchronized EdtMonitor getInstalled()
+    {
+        return installed;
+    }
+
+    /**
+     * Ends a phase of the event being dispatched.
+     * The time since the event started, or since the last mark,
+     * is logged under the name if the event turns out to be slow.
+     * This does nothing off the EDT or when no monitor is installed.
+     * @param phase the name of the phase that just ended
+     */
+    public static void mark(String phase)
+    {
+        EdtMonitor m = installed;
+        if (m != null && Thread.currentThread() == m.edt && m.depth > 0 && m.depth <= MAX_DEPTH)
+            m.dispatches[m.depth - 1].mark(phase, System.nanoTime());
+    }
+
+    /**
+     * Puts this monitor in front of the system event queue and starts the watchdog.
+     */
+    public void start()
+    {
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(this);
+        watchdog.scheduleAtFixedRate(this::sample, SAMPLE_MILLIS, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for the next event. A modal loop waiting for the player isn't
+     * the handler that opened it being busy, so the watchdog is told it is idle.
+     * @return the next event
+     * @throws InterruptedException if the EDT is interrupted while waiting
+     */
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException
+    {
+        if (depth > 0)
+            busySince = 0;
+        AWTEvent event = super.getNextEvent();
+        if (depth > 0)
+            busySince = System.nanoTime();
+        return event;
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event)
+    {
+        long start = System.nanoTime();
+        if (depth == 0)
+            edt = Thread.currentThread();
+        else if (depth <= MAX_DEPTH)
+            dispatches[depth - 1].nestedStarted(start);
+
+        Dispatch d = depth < MAX_DEPTH ? dispatches[depth] : null;
+        if (d != null)
+            d.start(event, start);
+        depth++;
+        //the handler that opened a modal loop, if this is one of its events
+        AWTEvent outer = busyEvent;
+        busyEvent = event;
+        busySince = start;
+
+        try
+        {
+            super.dispatchEvent(event);
+        }
+        finally
+        {
+            long end = System.nanoTime();
+            depth--;
+            if (depth > 0)
+            {
+                //back in the handler that opened the modal loop, until the loop waits again
+                busySince = end;
+                busyEvent = outer;
+            }
+            else
+            {
+                //back to waiting for the next event
+                busySince = 0;
+                busyEvent = null;
+            }
+            if (depth > 0 && depth <= MAX_DEPTH)
+                dispatches[depth - 1].nestedEnded(end);
+
+            if (d != null)
+                finish(d, end);
+        }
+    }
+
+    /*
+        Records how long a dispatch took, and logs it if it was slow.
+     */
+    private void finish(Dispatch d, long end)
+    {
+        long own = d.own(end);
+        latency.record(own);
+        if (own > maxNanos)
+            maxNanos = own;
+
+        if (own >= slowNanos)
+        {
+            slowEvents++;
+            lastSlow = String.format("%.1f ms %s", own / 1e6, describe(d.event));
+            log.println(d.report(end, describe(d.event)));
+        }
+        d.event = null;
+    }
+
+    /*
+        Names an event by what it is and the component it went to.
+     */
+    private static String describe(AWTEvent event)
+    {
+        if (event instanceof InvocationEvent)
+        {
+            //repaints and layouts are run by RepaintManager's runnable
+            String param = event.paramString();
+            int at = param.indexOf("runnable=");
+            if (at >= 0)
+            {
+                String runnable = param.substring(at + 9).split("[@,]", 2)[0];
+                if (runnable.startsWith("javax.swing.RepaintManager"))
+                    return "paint";
+                return "invocation " + runnable;
+            }
+            return "invocation";
+        }
+
+        String id = event.paramString().split(",", 2)[0];
+        Object source = event.getSource();
+        String target = source == null ? "" : source.getClass().getSimpleName();
+        if (source instanceof AbstractButton)
+            target += " \"" + ((AbstractButton) source).getText() + "\"";
+        if (event instanceof MouseEvent || event instanceof KeyEvent || source != null)
+            return id + " on " + target;
+        return id;
+    }
+
+    /*
+        Checks the EDT from the watchdog thread, sampling its stack while it is stalled.
+     */
+    private void sample()
+    {
+        long since = busySince;
+        if (stallStart != 0 && since != stallStart)
+            endStall();
+        if (since == 0 || System.nanoTime() - since < stallNanos)
+            return;
+
+        Thread t = edt;
+        if (t == null)
+            return;
+        StackTraceElement[] stack = t.getStackTrace();
+
+        if (stallStart == 0)
+        {
+            stallStart = since;
+            stalls++;
+            AWTEvent e = busyEvent;
+            String what = e == null ? "" : e.getClass().getSimpleName() + " on "
+                    + (e.getSource() == null ? "nothing" : e.getSource().getClass().getSimpleName());
+            StringBuilder b = new StringBuilder();
+            b.append(String.format("[edt] stalled for %d ms handling %s%n",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - since), what));
+            appendStack(b, stack);
+            log.print(b);
+        }
+
+        String frame = topFrame(stack);
+        Integer count = samples.get(frame);
+        samples.put(frame, count == null ? 1 : count + 1);
+    }
+
+    /*
+        Logs the end of a stall and where the samples found the EDT.
+     */
+    private void endStall()
+    {
+        StringBuilder b = new StringBuilder();
+        b.append(String.format("[edt] stall ended after about %d ms, %d samples:%n",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stallStart), total(samples)));
+        samples.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(e -> b.append(String.format("    %4d  %s%n", e.getValue(), e.getKey())));
+        log.print(b);
+
+        samples.clear();
+        stallStart = 0;
+    }
+
+    private static int total(Map<String, Integer> samples)
+    {
+        int total = 0;
+        for (int c : samples.values())
+            total += c;
+        return total;
+    }
+
+    /*
+        The frame a sample is counted under; the first frame outside the JDK
+        and this monitor, or the top frame if there isn't one.
+     */
+    private static String topFrame(StackTraceElement[] stack)
+    {
+        if (stack.length == 0)
+            return "(no stack)";
+        for (StackTraceElement e : stack)
+        {
+            if (!isPlatform(e.getClassName()) && !e.getClassName().equals(EdtMonitor.class.getName()))
+                return e.toString();
+        }
+        return stack[0].toString();
+    }
+
+    private static boolean isPlatform(String className)
+    {
+        return className.startsWith("java.") || className.startsWith("javax.")
+                || className.startsWith("sun.") || className.startsWith("jdk.");
+    }
+
+    /*
+        Appends the frames above this monitor's dispatch.
+     */
+    private static void appendStack(StringBuilder b, StackTraceElement[] stack)
+    {
+        for (int i = 0; i < stack.length && i < MAX_FRAMES; i++)
+        {
+            if (stack[i].getClassName().equals(EdtMonitor.class.getName()))
+                break;
+            b.append("    at ").append(stack[i]).append('\n');
+        }
+    }
+
+    /**
+     * Gets the histogram of the time events took, not counting time in modal dialogs.
+     * Only use this on the EDT.
+     * @return the latency of every event dispatched
+     */
+    public LatencyHistogram getLatency()
+    {
+        return latency;
+    }
+
+    /**
+     * Gets the longest time an event took, not counting time in modal dialogs.
+     * @return the time in nanoseconds
+     */
+    public long getMaxNanos()
+    {
+        return maxNanos;
+    }
+
+    /**
+     * Gets the number of slow events.
+     * @return the number of events that took longer than the slow threshold
+     */
+    public int getSlowEvents()
+    {
+        return slowEvents;
+    }
+
+    /**
+     * Gets the time and name of the last slow event.
+     * @return the last slow event, or an empty string if there hasn't been one
+     */
+    public String getLastSlow()
+    {
+        return lastSlow;
+    }
+
+    /**
+     * Gets the number of times the EDT has stalled.
+     * @return the number of stalls
+     */
+    public int getStalls()
+    {
+        return stalls;
+    }
+
+    /*
+        The timing of one event being dispatched.
+        Time from the first nested event to the last is modal time.
+     */
+    private static class Dispatch
+    {
+        private AWTEvent event;
+        private long start;
+        private long own;
+        private long resumed;
+        private boolean nested;
+
+        private final String[] phases = new String[MAX_PHASES];
+        private final long[] times = new long[MAX_PHASES];
+        private int phaseCount;
+
+        void start(AWTEvent e, long now)
+        {
+            event = e;
+            start = now;
+            own = 0;
+            resumed = now;
+            nested = false;
+            phaseCount = 0;
+        }
+
+        void nestedStarted(long now)
+        {
+            //the gaps between nested events are a modal loop waiting, not work
+            if (!nested)
+                own += now - resumed;
+            nested = true;
+        }
+
+        void nestedEnded(long now)
+        {
+            resumed = now;
+        }
+
+        long own(long end)
+        {
+            if (!nested)
+                return end - start;
+            return own + end - resumed;
+        }
+
+        void mark(String phase, long now)
+        {
+            if (phaseCount < MAX_PHASES)
+            {
+                phases[phaseCount] = phase;
+                times[phaseCount] = now;
+                phaseCount++;
+            }
+        }
+
+        String report(long end, String what)
+        {
+            long own = own(end);
+            StringBuilder b = new StringBuilder();
+            b.append(String.format("[edt] slow %.1f ms", own / 1e6));
+            if (nested)
+                b.append(String.format(" (%.1f ms in modal dialogs)", (end - start - own) / 1e6));
+            b.append(' ').append(what);
+
+            long last = start;
+            for (int i = 0; i < phaseCount; i++)
+            {
+                b.append(i == 0 ? ": " : ", ");
+                b.append(String.format("%s %.1f ms", phases[i], (times[i] - last) / 1e6));
+                last = times[i];
+            }
+            if (phaseCount > 0)
+                b.append(String.format(", rest %.1f ms", (end - last) / 1e6));
+            return b.toString();
+        }
+    }
+}
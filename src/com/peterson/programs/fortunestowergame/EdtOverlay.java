@@ -0,0 +1,73 @@
+package com.peterson.programs.fortunestowergame;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Shows what an EdtMonitor has seen in the corner of a frame.
+ * The overlay is meant to be a frame's glass pane; it has no listeners,
+ * so clicks go through it to the game underneath.
+ * It refreshes itself twice a second while it is showing.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class EdtOverlay extends JComponent
+{
+    private static final int REFRESH_MILLIS = 500;
+    private static final int PADDING = 8;
+    private static final Color BOX = new Color(0, 0, 0, 170);
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+
+    private final EdtMonitor monitor;
+    private final Timer refresh;
+
+    /**
+     * Creates an overlay of a monitor.
+     * @param monitor the monitor to show
+     */
+    public EdtOverlay(EdtMonitor monitor)
+    {
+        this.monitor = monitor;
+        refresh = new Timer(REFRESH_MILLIS, e -> repaint());
+        setOpaque(false);
+    }
+
+    @Override
+    public void setVisible(boolean visible)
+    {
+        super.setVisible(visible);
+        if (visible)
+            refresh.start();
+        else
+            refresh.stop();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g)
+    {
+        String[] lines = {
+                String.format("EDT p50 %.1f ms  p99 %.1f ms  max %.1f ms",
+                        monitor.getLatency().percentile(0.5) / 1e6,
+                        monitor.getLatency().percentile(0.99) / 1e6,
+                        monitor.getMaxNanos() / 1e6),
+                String.format("slow %d  stalls %d", monitor.getSlowEvents(), monitor.getStalls()),
+                "last " + monitor.getLastSlow()
+        };
+
+        g.setFont(FONT);
+        FontMetrics fm = g.getFontMetrics();
+        int width = 0;
+        for (String line : lines)
+            width = Math.max(width, fm.stringWidth(line));
+        int height = fm.getHeight() * lines.length;
+
+        int x = getWidth() - width - PADDING * 3;
+        int y = PADDING;
+        g.setColor(BOX);
+        g.fillRect(x, y, width + PADDING * 2, height + PADDING * 2);
+
+        g.setColor(Color.WHITE);
+        for (int i = 0; i < lines.length; i++)
+            g.drawString(lines[i], x + PADDING, y + PADDING + fm.getAscent() + i * fm.getHeight());
+    }
+}
@@ -2,10 +2,8 @@ package com.peterson.programs.fortunestowergame;
 
 import com.peterson.programs.fortunestower.Board;
 import com.peterson.programs.fortunestower.Card;
-import com.peterson.programs.fortunestower.Face;
 
 import javax.swing.*;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -18,14 +16,14 @@ import java.util.List;
 public class GameBoard
 {
     private Board boardMap;
-    private List<ImageIcon> list;
+    private ImageCard[] cards;
 
     /**
      * Constructs a GameBoard object.
      * Using the reference to the Board which
-     * contains the states of the game, this loads the images that
-     * are the desired size and prepares the object to map
-     * row by row to the Board
+     * contains the states of the game, this gets the images that
+     * are the desired size from the SpriteCache, makes an ImageCard for each
+     * of them, and prepares the object to map row by row to the Board
      * @param ref a reference to the Board being used in the game
      * @param width the width the cards are to be
      * @param height the height the cards are to be
@@ -33,64 +31,41 @@ public class GameBoard
     public GameBoard(Board ref, int width, int height)
     {
         boardMap = ref;
-        list = new ArrayList<>();
 
-        //load the single images into the list
-        CardLoader.loadImages(list);
+        //the cards at this size are only scaled the first time they are asked for
+        List<ImageIcon> list = SpriteCache.getInstance().getIcons(width, height);
 
-        //resize the card's images
-        ImageResizer.resize(list, width, height);
+        /*
+            The stitched cards happen to be in index incrementation order; index 0 is the back,
+            index 1 has a face of 1, index 2 has a face of 2, etc, and the knight is last
+         */
+        cards = new ImageCard[Card.BACK_CODE + 1];
+        cards[0] = new ImageCard(Card.KNIGHT, list.get(list.size() - 1));
+        for(int i = 1; i <= Card.MAX_VALUE; i++)
+            cards[i] = new ImageCard(Card.valueOf(i), list.get(i));
+        cards[Card.BACK_CODE] = new ImageCard(Card.BACK, list.get(0));
     }
 
     /**
      * Maps the current row in the Board to the ImageCards.
      * This is a 1:1 mapping, meaning that each card in the current row in the Board
-     * are mapped to a ImageCard that shows their face value.
-     * This is done because of an incompatibility with the Board object,
-     * which only references Card object, and cant cast to ImageCards.
-     * That fail should be re-done so its not a fail.
+     * is mapped to the ImageCard that shows it: its face if it is face up,
+     * or the back of a card if it is face down or is a used gate card.
+     * The ImageCards are shared, so only the array is new.
      * @param rowNum the row of the Board to map
      * @return array of ImageCards to represent the row with ImageIcons
      */
     public ImageCard[] mapRow(int rowNum)
     {
-        //the mapping arrays. The 'mapping' array is mapped to 'mapped' 1:1
         Card []mapping = boardMap.getCardsInRow(rowNum);
         ImageCard []mapped = new ImageCard[mapping.length];
 
-
         for(int i = 0; i < mapping.length; i++)
         {
-            if (!mapping[i].isFaceUp())
-            {
-                /*
-                    If the Card is face down, the image will be of a face down card
-                 */
-                if (mapping[i].isKnight())
-                {
-                    mapped[i] = new ImageCard(Face.KNIGHT, 0, list.get(0));
-                }
-                else
-                {
-                    mapped[i] = new ImageCard(Face.NORMAL, mapping[i].getValue(), list.get(0));
-                }
-            }
+            if (mapping[i] == null || !boardMap.isFaceUp(rowNum, i))
+                mapped[i] = cards[Card.BACK_CODE];
             else
-            {
-                /*
-                    If the card is face up, map it to its face. The stitched cards happen to be
-                    in index incrementation order; index 1 has a face of 1, index 2 has a face of 2, etc
-                 */
-                if (mapping[i].isKnight())
-                {
-                    mapped[i] = new ImageCard(Face.KNIGHT, 0, list.get(list.size() - 1));
-                }
-                else
-                {
-                    mapped[i] = new ImageCard(Face.NORMAL, mapping[i].getValue(), list.get(mapping[i].getValue()));
-                }
-            }
-
+                mapped[i] = cards[mapping[i].getCode()];
         }
 
         return mapped;
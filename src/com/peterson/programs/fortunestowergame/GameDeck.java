@@ -1,21 +1,18 @@
 package com.peterson.programs.fortunestowergame;
 
-import com.peterson.programs.fortunestower.Card;
-import com.peterson.programs.fortunestower.Deck;
-import com.peterson.programs.fortunestower.Face;
-
-import javax.swing.*;
-import java.util.ArrayList;
-import java.util.List;
+import com.peterson.programs.fortunestower.ArrayDeck;
 
 /**
+ * A Deck for the Swing game.
+ * The deck is reused between games; call reset() to
+ * put the cards back instead of making a new one.
+ * The cards are the shared Cards; GameBoard and TowerView
+ * find their pictures in the SpriteCache by their values.
  * @author Peterson, Ryan
  *         Created 8/12/2014
  */
-public class GameDeck extends Deck
+public class GameDeck extends ArrayDeck
 {
-    private List<ImageIcon> images;
-
     /**
      * Creates a Deck.
      * The Deck will have numCards cards,
@@ -28,19 +25,4 @@ public class GameDeck extends Deck
     {
         super(numCards);
     }
-
-    @Override
-    protected Card makeKnight()
-    {
-        //ugly hack that I didn't anticipate...
-        images = new ArrayList<>();
-        CardLoader.loadImages(images);
-        return new ImageCard(Face.KNIGHT, 0, images.get(images.size() - 1));
-    }
-
-    @Override
-    protected Card makeNumber(int value)
-    {
-        return new ImageCard(Face.NORMAL, value, images.get(value));
-    }
 }
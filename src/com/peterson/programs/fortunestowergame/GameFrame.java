@@ -2,8 +2,19 @@ package com.peterson.programs.fortunestowergame;
 
 import com.peterson.programs.fortunestower.Board;
 import com.peterson.programs.fortunestower.Board2D;
-import com.peterson.programs.fortunestower.Deck;
-import com.peterson.programs.fortunestower.TestDeck;
+import com.peterson.programs.fortunestower.BoardType;
+import com.peterson.programs.fortunestower.GameSession;
+import com.peterson.programs.fortunestower.PersistentBoard;
+import com.peterson.programs.fortunestower.events.EngineEventSubscriber;
+import com.peterson.programs.fortunestower.events.EventBoard;
+import com.peterson.programs.fortunestower.events.EventLog;
+import com.peterson.programs.fortunestower.events.GameEvent;
+import com.peterson.programs.fortunestower.events.GameEventSubscriber;
+import com.peterson.programs.fortunestower.metrics.EngineEvents;
+import com.peterson.programs.fortunestower.replay.ReplayLog;
+import com.peterson.programs.fortunestower.replay.ReplayRecord;
+import com.peterson.programs.fortunestower.replay.Replayer;
+import com.peterson.programs.fortunestower.solver.CashOutSolver;
 
 import javax.swing.*;
 import java.awt.*;
@@ -12,13 +23,21 @@ import java.awt.event.ActionListener;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
  * Main GUI class for the game of Fortune's Tower.
  * This will display a frame that will allow the user
  * to play game of Fortunes Tower.
+ * Played on a PersistentBoard, which it is by default, every deal and gate save
+ * can be undone and redone; each move keeps a snapshot of the board from before it,
+ * so going back or forward only puts a snapshot back and redraws the tower.
+ * The frame deals and saves, and redraws the tower from the events the board
+ * publishes; running with -Dfortunestower.eventlog=true also logs them.
  * @author Peterson, Ryan
  *         Created 7/26/2014
  */
@@ -28,9 +47,14 @@ public class GameFrame extends JFrame
         Logic Objects
      */
     private GamePanel panel;
+    private TowerView view;
+    //the board shown: the game's EventBoard, or a board of the replay
     private Board board;
-    private Deck deck;
+    private EventBoard events;
+    private BoardType boardType;
+    private GameSession session;
     private GameBoard map;
+    private CashOutSolver solver;
 
     /*
         Display Objects
@@ -42,14 +66,34 @@ public class GameFrame extends JFrame
     private JButton drawButton;
     private JButton cashOutButton;
     private JButton reset;
+    private JButton undoButton;
+    private JButton redoButton;
     private Container cp;
-    private ActionListener draw;
+    private DealListener draw;
     private int rowPtr;
-    private int numCards;
 
     private long playerPoints;
     private JLabel pointLabel;
 
+    /*
+        Replay Objects
+     */
+    private ReplayLog replayLog;
+    private ReplayRecord replayRecord;
+    private Replayer replayer;
+    private long replayGame;
+    private int replayRow;
+    private JPanel replayPanel;
+    private JTextField gameField;
+    private JLabel replayLabel;
+
+    /*
+        Undo Objects
+     */
+    private Deque<Turn> undoStack;
+    private Deque<Turn> redoStack;
+    //true when the board was put back to a misfortune before its save, and the save is next
+    private boolean pendingSave;
 
 
     /*
@@ -77,11 +121,36 @@ public class GameFrame extends JFrame
     /**
      * Creates the window to play the game of Fortunes Tower.
      * This will do the necessary steps to construct the frame and add action listeners
-     * for the user to draw cards, cash out, and reset the board
+     * for the user to draw cards, cash out, reset the board, and undo and redo moves
      * @param numberCards the number of cards to play with. Use the constants from the Deck class
      *                    for the standard sizes.
      */
     public GameFrame(final int numberCards)
+    {
+        this(numberCards, BoardType.PERSISTENT);
+    }
+
+    /**
+     * Creates the window to play the game of Fortunes Tower on a specific kind of Board.
+     * Moves can only be undone on a PersistentBoard.
+     * @param numberCards the number of cards to play with. Use the constants from the Deck class
+     *                    for the standard sizes.
+     * @param type the kind of Board to play on
+     */
+    public GameFrame(final int numberCards, BoardType type)
+    {
+        this(numberCards, type, false);
+    }
+
+    /**
+     * Creates the window to play the game of Fortunes Tower.
+     * @param numberCards the number of cards to play with. Use the constants from the Deck class
+     *                    for the standard sizes.
+     * @param type the kind of Board to play on
+     * @param painted true to show the cards with a single painted TowerView
+     *                rather than a GamePanel of labels
+     */
+    public GameFrame(final int numberCards, BoardType type, boolean painted)
     {
         super("Fortunes Tower");
 
@@ -89,9 +158,25 @@ public class GameFrame extends JFrame
         pointLabel = new JLabel("Points: " + playerPoints);
 
 
-        deck = new GameDeck(numberCards);
-        panel = new GamePanel();
-        board = new Board2D(deck);
+        boardType = type;
+        session = new GameSession(new GameDeck(numberCards), boardType);
+        solver = new CashOutSolver(numberCards);
+        events = new EventBoard(session.newGame());
+        events.subscribe(new GameListener());
+        events.subscribe(new EngineEventSubscriber());
+        if (EventLog.isRequested())
+            events.subscribe(new EventLog(System.err));
+        board = events;
+        if (painted)
+        {
+            double pWidth = getToolkit().getScreenSize().getWidth();
+            double pHeight = getToolkit().getScreenSize().getHeight();
+            view = new TowerView((int) pWidth / WIDTH_COEFF, (int) pHeight / HEIGHT_COEFF);
+        }
+        else
+        {
+            panel = new GamePanel();
+        }
 
 
         fields = new JTextField[8];
@@ -109,8 +194,9 @@ public class GameFrame extends JFrame
         fields[0].setForeground(Color.WHITE);
         fields[0].setEnabled(false);
 
-        numCards = numberCards;
         rowPtr = 1;
+        undoStack = new ArrayDeque<>();
+        redoStack = new ArrayDeque<>();
         create();
 
     }
@@ -123,9 +209,17 @@ public class GameFrame extends JFrame
         cp = getContentPane();
         cp.setLayout(new BorderLayout());
         cp.setBackground(BACKGROUND);
-        panel.setBackground(BACKGROUND);
-        panel.setBackgroundColor(FOREGROUND);
-        cp.add(panel, BorderLayout.CENTER);
+        if (view != null)
+        {
+            view.setBackground(FOREGROUND);
+            cp.add(view, BorderLayout.CENTER);
+        }
+        else
+        {
+            panel.setBackground(BACKGROUND);
+            panel.setBackgroundColor(FOREGROUND);
+            cp.add(panel, BorderLayout.CENTER);
+        }
 
         sidePanel = new JPanel();
         sidePanel.setLayout(new GridLayout(8, 1, 100, 100));
@@ -158,6 +252,31 @@ public class GameFrame extends JFrame
         reset.addActionListener(new ResetListener());
         buttonPanel.add(reset);
 
+        undoButton = new JButton("Undo");
+        undoButton.setFont(FONTZ);
+        undoButton.addActionListener(new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                undo();
+            }
+        });
+        buttonPanel.add(undoButton);
+
+        redoButton = new JButton("Redo");
+        redoButton.setFont(FONTZ);
+        redoButton.addActionListener(new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                redo();
+            }
+        });
+        buttonPanel.add(redoButton);
+        updateHistory();
+
         buttonPanel.add(pointLabel);
         pointLabel.setFont(FONTZ);
         pointLabel.setForeground(Color.BLUE);
@@ -179,8 +298,63 @@ public class GameFrame extends JFrame
             }
         });
         m.add(i);
+
+        JMenuItem hint = new JMenuItem("Hint");
+        hint.addActionListener(new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                if (!drawButton.isEnabled())
+                    return;
+                CashOutSolver.Evaluation eval = solver.evaluate(board);
+                String advice = eval.shouldCashOut() ? "Cash Out" : "Deal Next Row";
+                JOptionPane.showMessageDialog(null, eval + "\n" + advice, "Hint",
+                        JOptionPane.INFORMATION_MESSAGE);
+            }
+        });
+        m.add(hint);
         bar.add(m);
 
+        JMenu replay = new JMenu("Replay");
+        JMenuItem open = new JMenuItem("Open Replay...");
+        open.addActionListener(new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                JFileChooser chooser = new JFileChooser();
+                if (chooser.showOpenDialog(GameFrame.this) == JFileChooser.APPROVE_OPTION)
+                    openReplay(chooser.getSelectedFile());
+            }
+        });
+        replay.add(open);
+
+        JMenuItem close = new JMenuItem("Close Replay");
+        close.addActionListener(new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                closeReplay();
+            }
+        });
+        replay.add(close);
+        bar.add(replay);
+
+        JMenu monitor = new JMenu("Monitor");
+        final JCheckBoxMenuItem overlay = new JCheckBoxMenuItem("EDT Overlay");
+        overlay.addActionListener(new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                showOverlay(overlay.isSelected());
+            }
+        });
+        monitor.add(overlay);
+        bar.add(monitor);
+
         setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
         setVisible(true);
 
@@ -200,17 +374,358 @@ public class GameFrame extends JFrame
         two rows of the Board.
      */
     private void postInit()
+    {
+        if (view == null)
+            map = createMap();
+
+        showRow(0);
+
+        showRow(1);
+        fields[1].setText(board.lastRowValue() + "");
+    }
+
+    /*
+        Creates the mapping of the board to card images, at the size
+        the cards are for this screen.
+     */
+    private GameBoard createMap()
     {
         double pWidth = getToolkit().getScreenSize().getWidth();
         double pHeight = getToolkit().getScreenSize().getHeight();
 
-        map = new GameBoard(board, (int) pWidth / WIDTH_COEFF, (int) pHeight / HEIGHT_COEFF);
+        return new GameBoard(board, (int) pWidth / WIDTH_COEFF, (int) pHeight / HEIGHT_COEFF);
+    }
 
+    /*
+        Displays a row of the board on whichever view is in use.
+     */
+    private void showRow(int row)
+    {
+        if (view != null)
+            view.showRow(board, row);
+        else
+            panel.addRow(map.mapRow(row));
+    }
 
-        panel.addRow(map.mapRow(0));
+    /*
+        Shows or hides the EDT monitor's numbers over the game,
+        installing the monitor if it isn't already.
+     */
+    private void showOverlay(boolean show)
+    {
+        if (!(getGlassPane() instanceof EdtOverlay))
+        {
+            if (!show)
+                return;
+            setGlassPane(new EdtOverlay(EdtMonitor.install()));
+        }
+        getGlassPane().setVisible(show);
+    }
 
-        panel.addRow(map.mapRow(1));
-        fields[1].setText(board.lastRowValue() + "");
+    /*
+        Displays the row the gate card was used on, and the used gate card.
+     */
+    private void showSave()
+    {
+        if (view != null)
+        {
+            view.flipGate();
+            view.showRow(board, rowPtr);
+        }
+        else
+        {
+            panel.flipGate();
+            panel.removeLastRow();
+            panel.addRow(map.mapRow(rowPtr));
+        }
+    }
+
+    /*
+        Opens a replay log and shows its first game.
+        Playing is turned off until the replay is closed.
+     */
+    private void openReplay(File file)
+    {
+        ReplayLog log;
+        try
+        {
+            log = new ReplayLog(file.toPath());
+        }
+        catch (IOException | RuntimeException e)
+        {
+            JOptionPane.showMessageDialog(this, "Could not open the replay:\n" + e.getMessage(),
+                    "Replay", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (log.size() == 0)
+        {
+            JOptionPane.showMessageDialog(this, "The replay has no games in it", "Replay",
+                    JOptionPane.ERROR_MESSAGE);
+            closeLog(log);
+            return;
+        }
+
+        if (replayLog != null)
+            closeLog(replayLog);
+        replayLog = log;
+        if (replayer == null)
+        {
+            replayer = new Replayer();
+            replayRecord = new ReplayRecord();
+            createReplayPanel();
+        }
+
+        drawButton.setEnabled(false);
+        cashOutButton.setEnabled(false);
+        reset.setEnabled(false);
+        clearHistory();
+        cp.add(replayPanel, BorderLayout.NORTH);
+        cp.revalidate();
+
+        showReplay(0, Board2D.LAST_LEVEL - 1);
+    }
+
+    /*
+        Closes the replay log and starts a new game.
+     */
+    private void closeReplay()
+    {
+        if (replayLog == null)
+            return;
+
+        closeLog(replayLog);
+        replayLog = null;
+        cp.remove(replayPanel);
+        cp.revalidate();
+        reset.setEnabled(true);
+        new ResetListener().actionPerformed(null);
+    }
+
+    private static void closeLog(ReplayLog log)
+    {
+        try
+        {
+            log.close();
+        }
+        catch (IOException e)
+        {
+            //nothing more can be read either way
+        }
+    }
+
+    /*
+        Builds the controls for moving through a replay.
+     */
+    private void createReplayPanel()
+    {
+        replayPanel = new JPanel();
+        replayPanel.setBackground(BACKGROUND);
+
+        gameField = new JTextField(10);
+        gameField.setFont(FONTZ);
+        gameField.setHorizontalAlignment(SwingConstants.RIGHT);
+        gameField.addActionListener(new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                try
+                {
+                    showReplay(Long.parseLong(gameField.getText().trim()) - 1, replayRow);
+                }
+                catch (NumberFormatException ex)
+                {
+                    gameField.setText("" + (replayGame + 1));
+                }
+            }
+        });
+
+        replayPanel.add(replayButton("<< Game", -1, 0));
+        replayPanel.add(replayButton("< Row", 0, -1));
+        JLabel game = new JLabel("Game:");
+        game.setFont(FONTZ);
+        replayPanel.add(game);
+        replayPanel.add(gameField);
+        replayPanel.add(replayButton("Row >", 0, 1));
+        replayPanel.add(replayButton("Game >>", 1, 0));
+
+        replayLabel = new JLabel();
+        replayLabel.setFont(FONTZ);
+        replayLabel.setForeground(Color.WHITE);
+        replayPanel.add(replayLabel);
+    }
+
+    /*
+        A button that moves through the replay by games and rows.
+     */
+    private JButton replayButton(String text, final int games, final int rows)
+    {
+        JButton button = new JButton(text);
+        button.setFont(FONTZ);
+        button.addActionListener(new ActionListener()
+        {
+            @Override
+            public void actionPerformed(ActionEvent e)
+            {
+                showReplay(replayGame + games, replayRow + rows);
+            }
+        });
+        return button;
+    }
+
+    /*
+        Shows a game of the replay, dealt up to a row.
+        Only the game is read from the log, and the board redrawn on the same frame.
+     */
+    private void showReplay(long game, int row)
+    {
+        replayGame = Math.max(0, Math.min(game, replayLog.size() - 1));
+        replayLog.read(replayGame, replayRecord);
+        board = replayer.dealTo(replayRecord, Math.max(1, Math.min(row, Board2D.LAST_LEVEL - 1)));
+        replayRow = board.getLastRow().length - 1;
+        showBoard(replayRow);
+
+        gameField.setText("" + (replayGame + 1));
+        StringBuilder b = new StringBuilder(" of " + replayLog.size() + ", row " + replayRow + ". ");
+        if (replayRecord.getCashOutRow() != 0)
+            b.append("Cashed out after row ").append(replayRecord.getCashOutRow()).append(", ");
+        b.append(replayRecord.isGateUsed() ? "gate used, " : "").append(replayRecord.getOutcome());
+        replayLabel.setText(b.toString());
+    }
+
+    /*
+        Redraws the whole board, dealt up to a row, and the values of its rows.
+     */
+    private void showBoard(int lastRow)
+    {
+        if (view != null)
+        {
+            view.clear();
+        }
+        else
+        {
+            panel.clear();
+            map = createMap();
+        }
+        for (int i = 0; i <= lastRow; i++)
+        {
+            showRow(i);
+            if (i > 0)
+                fields[i].setText("" + board.rowValue(i));
+        }
+        for (int i = lastRow + 1; i < fields.length; i++)
+            fields[i].setText("");
+
+        //the gate card is gone from the board once it has been used
+        if (board.getCardsInRow(0)[0] == null)
+        {
+            if (view != null)
+                view.flipGate();
+            else
+                panel.flipGate();
+        }
+    }
+
+    /*
+        Keeps the state of the game before a move, so the move can be undone.
+        Nothing is kept on a board that can't be snapshot.
+     */
+    private void record(boolean saving)
+    {
+        if (!(events.getBoard() instanceof PersistentBoard))
+            return;
+        undoStack.push(turn(saving));
+        redoStack.clear();
+        updateHistory();
+    }
+
+    /*
+        The state of the game now; saving is true if a save is the next move.
+     */
+    private Turn turn(boolean saving)
+    {
+        return new Turn(((PersistentBoard) events.getBoard()).snapshot(), rowPtr,
+                drawButton.isEnabled(), saving, playerPoints);
+    }
+
+    /*
+        Puts the game back to how it was before the last move.
+     */
+    private void undo()
+    {
+        if (undoStack.isEmpty())
+            return;
+        redoStack.push(turn(pendingSave));
+        restore(undoStack.pop());
+    }
+
+    /*
+        Makes the last move that was undone again.
+     */
+    private void redo()
+    {
+        if (redoStack.isEmpty())
+            return;
+        undoStack.push(turn(pendingSave));
+        restore(redoStack.pop());
+    }
+
+    /*
+        Puts a kept state back on the board and the frame, and redraws the tower.
+     */
+    private void restore(Turn turn)
+    {
+        ((PersistentBoard) events.getBoard()).restore(turn.snapshot);
+        events.refresh();
+        rowPtr = turn.rowPtr;
+        pendingSave = turn.saving;
+        playerPoints = turn.points;
+        pointLabel.setText("Points: " + playerPoints);
+        drawButton.setEnabled(turn.playing);
+        drawButton.setText(pendingSave ? "Use Gate Card" : "Deal Next Row");
+        cashOutButton.setEnabled(turn.playing && !pendingSave);
+        showBoard(rowPtr);
+        updateHistory();
+    }
+
+    /*
+        Forgets every kept move, once the game can't be gone back into.
+     */
+    private void clearHistory()
+    {
+        undoStack.clear();
+        redoStack.clear();
+        pendingSave = false;
+        drawButton.setText("Deal Next Row");
+        updateHistory();
+    }
+
+    private void updateHistory()
+    {
+        undoButton.setEnabled(!undoStack.isEmpty());
+        redoButton.setEnabled(!redoStack.isEmpty());
+    }
+
+    /*
+        The state of the game before a move: the board, and what the frame
+        keeps about the game that the board doesn't.
+     */
+    private static class Turn
+    {
+        private final PersistentBoard.Snapshot snapshot;
+        private final int rowPtr;
+        private final boolean playing;
+        private final boolean saving;
+        private final long points;
+
+        private Turn(PersistentBoard.Snapshot snapshot, int rowPtr, boolean playing, boolean saving, long points)
+        {
+            this.snapshot = snapshot;
+            this.rowPtr = rowPtr;
+            this.playing = playing;
+            this.saving = saving;
+            this.points = points;
+        }
     }
 
     /*
@@ -252,21 +767,23 @@ public class GameFrame extends JFrame
 
     /*
         Game Logic class to run the game of Fortunes Tower.
-        This action listener will draw a row of cards, display them,
-        and if a Misfortune occurs, try to correct it if one hasn't happened yet.
+        This action listener will draw a row of cards, or use the gate card
+        on a misfortune put back by an undo; the GameListener shows what happened.
+        The state before each deal and each save is kept, so either can be undone.
      */
     private class DealListener implements ActionListener
     {
-        private boolean trySave;
-
-        public DealListener()
-        {
-            trySave = false;
-        }
-
         @Override
         public void actionPerformed(ActionEvent e)
         {
+            //the misfortune was put back by an undo, and the save is what comes next
+            if (pendingSave)
+            {
+                pendingSave = false;
+                drawButton.setText("Deal Next Row");
+                save();
+                return;
+            }
 
             /*
                 See the file "fortunes tower algorithm" for the details
@@ -274,64 +791,78 @@ public class GameFrame extends JFrame
              */
             if (!board.isComplete())
             {
+                record(false);
                 board.nextRow();
-                rowPtr++;
-                panel.addRow(map.mapRow(rowPtr));
-                fields[rowPtr].setText("" + board.lastRowValue());
+            }
+        }
 
-                if (board.misFortune())
-                {
-                    if (!trySave)
+        /*
+            Uses the gate card on the misfortune.
+         */
+        private void save()
+        {
+            record(true);
+            board.trySave();
+        }
+    }
+
+    /*
+        Reacts to the events of the game's board.
+        Each row dealt is shown, a misfortune is saved with the gate card
+        if one is left, and the game is paid out once the tower is complete.
+     */
+    private class GameListener extends GameEventSubscriber
+    {
+        @Override
+        protected void onEvent(GameEvent event)
+        {
+            switch (event.getType())
+            {
+                case ROW_DEALT:
+                    EdtMonitor.mark("deal");
+                    rowPtr = event.getRow();
+                    showRow(rowPtr);
+                    fields[rowPtr].setText("" + event.getValue());
+                    EdtMonitor.mark("map");
+                    break;
+                case MISFORTUNE:
+                    if (event.isGateAvailable())
                     {
                         StringBuilder b = new StringBuilder("A Misfortune has Occurred!\n");
                         b.append("A save will now be attempted");
-                        trySave = true;
                         JOptionPane.showMessageDialog(null, b.toString(), "Misfortune",
                                 JOptionPane.INFORMATION_MESSAGE);
-                        board.trySave();
-                        panel.flipGate();
-                        panel.removeLastRow();
-                        panel.addRow(map.mapRow(rowPtr));
-                        fields[rowPtr].setText("" + board.lastRowValue());
-
-                        //panel.repaint();
-                        if (board.misFortune())
-                        {
-                            JOptionPane.showMessageDialog(null, "Misfortune. Game Over");
-                            //test.setEnabled(false);
-                            drawButton.setEnabled(false);
-                            cashOutButton.setEnabled(false);
-                        }
+                        EdtMonitor.mark("misfortune dialog");
+                        draw.save();
                     }
                     else
                     {
                         JOptionPane.showMessageDialog(null, "Misfortune. Game Over", "Misfortune",
                                 JOptionPane.INFORMATION_MESSAGE);
-                        //test.setEnabled(false);
                         drawButton.setEnabled(false);
                         cashOutButton.setEnabled(false);
                     }
-
-                }
-                if (board.isComplete() && !board.misFortune())
-                {
-                    if (board.hitJackpot())
-                    {
-                        int total = board.jackpotValue();
-                        JOptionPane.showMessageDialog(null, "Jackpot!\n" + total);
-                        playerPoints += total;
-                    }
-                    else
-                    {
-                        int total = board.rowValue(7);
-                        JOptionPane.showMessageDialog(null, "Winner\n" + total);
-                        playerPoints += total;
-                    }
-                    //test.setEnabled(false);
+                    break;
+                case GATE_SAVED:
+                    showSave();
+                    fields[rowPtr].setText("" + board.lastRowValue());
+                    EdtMonitor.mark("save");
+                    //a save that fails is followed by the misfortune it left
+                    cashOutButton.setEnabled(event.isSucceeded());
+                    break;
+                case JACKPOT:
+                    JOptionPane.showMessageDialog(null, "Jackpot!\n" + event.getValue());
+                    break;
+                case COMPLETE:
+                    if (!event.isJackpot())
+                        JOptionPane.showMessageDialog(null, "Winner\n" + event.getValue());
+                    playerPoints += event.getValue();
                     pointLabel.setText("Points: " + playerPoints);
                     drawButton.setEnabled(false);
                     cashOutButton.setEnabled(false);
-                }
+                    break;
+                default:
+                    break;
             }
         }
     }
@@ -340,7 +871,8 @@ public class GameFrame extends JFrame
         Allows the player to cash out.
         The player wins the current row's point value,
         and the game is continued, displaying the remainder of the rows,
-        but does not check for a misfortune
+        but does not check for a misfortune.
+        Nothing from before a cash out can be undone
      */
     private class CashOutListener implements ActionListener
     {
@@ -351,30 +883,45 @@ public class GameFrame extends JFrame
             if (drawButton.isEnabled())
             {
                 int total = board.rowValue(rowPtr);
+                EngineEvents.cashOut(rowPtr, total);
                 JOptionPane.showMessageDialog(null, "Cashed out and won:\n" + total);
                 cashOutButton.setEnabled(false);
                 drawButton.setEnabled(false);
                 playerPoints += total;
                 pointLabel.setText("Points: " + playerPoints);
+                //a cash out can't be taken back
+                clearHistory();
 
                 if (!board.isComplete())
                     JOptionPane.showMessageDialog(null, "The game will now continue and show the results\n",
                             "What if?", JOptionPane.PLAIN_MESSAGE);
-                while (!board.isComplete())
+                //dealt on the board itself, so nothing is published for the rows,
+                //and quietly, so they aren't counted as rows of the game
+                Board rest = events.getBoard();
+                EngineEvents.setQuiet(true);
+                try
                 {
-                    board.nextRow();
-                    rowPtr++;
-                    panel.addRow(map.mapRow(rowPtr));
-                    fields[rowPtr].setText("" + board.lastRowValue());
+                    while (!rest.isComplete())
+                    {
+                        rest.nextRow();
+                        rowPtr++;
+                        showRow(rowPtr);
+                        fields[rowPtr].setText("" + rest.lastRowValue());
+                    }
+                }
+                finally
+                {
+                    EngineEvents.setQuiet(false);
                 }
+                events.refresh();
             }
         }
     }
 
     /*
      * Resets the game to the initial state.
-     * Each game object is recreated and set to their initial states
-     * and the frame is reset to display the first two rows.
+     * The deck is put back together and the board taken down and dealt again,
+     * each other game object is set to its initial state and the frame is reset to display the first two rows.
      */
     private class ResetListener implements ActionListener
     {
@@ -382,23 +929,26 @@ public class GameFrame extends JFrame
         @Override
         public void actionPerformed(ActionEvent e)
         {
-            cp.remove(panel);
-            deck = new TestDeck(numCards);
-            panel = new GamePanel();
-            board = new Board2D(deck);
+            session.newGame();
+            events.refresh();
+            board = events;
             for (int i = 1; i < fields.length; i++)
                 fields[i].setText("");
             rowPtr = 1;
 
-            cp.add(panel, BorderLayout.CENTER);
-            panel.setBackgroundColor(FOREGROUND);
-            panel.setBackground(FOREGROUND);
+            if (view != null)
+            {
+                //the same view is kept, only its cards are taken off
+                view.clear();
+            }
+            else
+            {
+                panel.clear();
+            }
 
             drawButton.setEnabled(true);
-            drawButton.removeActionListener(draw);
-            draw = new DealListener();
-            drawButton.addActionListener(draw);
             cashOutButton.setEnabled(true);
+            clearHistory();
             postInit();
         }
     }
@@ -58,17 +58,14 @@ public class GamePanel extends JPanel
     /**
      * Flips the card at the first position on the panel.
      * This has nothing to do with placing the card in the row
-     * its used on; rather, it just sets that card to a flipped state
-     * and greys out the image that was at the top of the card tree.
+     * its used on; rather, it just greys out the image that was
+     * at the top of the card tree.
      * Also note that this will not re-flip the card.
      */
     public void flipGate()
     {
-        if(!panels[0].ref[0].isFaceUp())
-        {
-            panels[0].ref[0].flip();
+        if(panels[0].cards[0].isEnabled())
             panels[0].cards[0].setEnabled(false);
-        }
     }
 
     /**
@@ -98,13 +95,26 @@ public class GamePanel extends JPanel
         //revalidate();
     }
 
+    /**
+     * Takes every row off the panel, so the next row added
+     * goes on the first level again. The gate is no longer greyed out.
+     */
+    public void clear()
+    {
+        for(LevelPanel p : panels)
+            p.clear();
+        currPtr = 0;
+
+        revalidate();
+        repaint();
+    }
+
     /*
         Hidden, inner class that holds the images to be displayed.
      */
     private class LevelPanel extends JPanel
     {
         private JLabel []cards;
-        private ImageCard []ref;
 
         /*
             Constructs the panel to hold the number of cards.
@@ -128,8 +138,19 @@ public class GamePanel extends JPanel
                 add(cards[i]);
             }
            // revalidate();
+        }
 
-            ref = row;
+        /*
+            Removes the cards images from this panel
+         */
+        public void clear()
+        {
+            removeAll();
+            for(JLabel l : cards)
+            {
+                l.setIcon(null);
+                l.setEnabled(true);
+            }
         }
 
     }
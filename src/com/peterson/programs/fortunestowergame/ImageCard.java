@@ -1,34 +1,42 @@
 package com.peterson.programs.fortunestowergame;
 
 import com.peterson.programs.fortunestower.Card;
-import com.peterson.programs.fortunestower.Face;
 
 import javax.swing.*;
 
 /**
- * A Card that has an Image Icon associated with it.
- * This will allow a card to have a unique image on it.
+ * A Card with an Image Icon associated with it.
+ * The card is one of the shared Cards, and the icon is the
+ * picture it is shown with; like the cards, ImageCards are
+ * made once for each picture and shared.
  * @author Peterson, Ryan
  *         Created 7/26/2014
  */
-public class ImageCard extends Card
+public class ImageCard
 {
-    private ImageIcon image;
+    private final Card card;
+    private final ImageIcon image;
 
     /**
      * Creates a card with an ImageIcon.
-     * The values and face is set, and the
-     * icon passed in will be the card's face
-     * @param f the face of the card
-     * @param val the value of the card
+     * @param card the card being shown
      * @param icon the picture to be associated with the card
      */
-    public ImageCard(Face f, int val, ImageIcon icon)
+    public ImageCard(Card card, ImageIcon icon)
     {
-        super(val, f);
+        this.card = card;
         image = icon;
     }
 
+    /**
+     * Gets the Card being shown.
+     * @return the card, which is Card.BACK when the card is face down
+     */
+    public Card getCard()
+    {
+        return card;
+    }
+
     /**
      * Gets the Card's Face.
      * @return image the image of the Card's face
@@ -37,4 +45,9 @@ public class ImageCard extends Card
     {
         return image;
     }
+
+    public String toString()
+    {
+        return card.toString();
+    }
 }
@@ -1,5 +1,6 @@
 package com.peterson.programs.fortunestowergame;
 
+import com.peterson.programs.fortunestower.BoardType;
 import com.peterson.programs.fortunestower.Deck;
 
 import javax.swing.*;
@@ -7,6 +8,12 @@ import javax.swing.*;
 /**
  * Runner Class.
  * Runs the GameFrame, which in turn runs the game of Fortunes Tower.
+ * The name of a BoardType can be passed as the first argument
+ * to play on something other than a PersistentBoard, which is the only board
+ * moves can be undone on, and "painted" as the second
+ * argument shows the cards with a TowerView.
+ * An EdtMonitor watches the event dispatch thread from the start, logging
+ * slow events and stalls; see that class for the properties that tune it.
  * @author Peterson, Ryan
  *         Created 7/26/2014
  */
@@ -42,13 +49,16 @@ public class Main
 
     public static void main(String [] args)
     {
+        final BoardType type = args.length > 0 ? BoardType.valueOf(args[0].toUpperCase()) : BoardType.PERSISTENT;
+        final boolean painted = args.length > 1 && args[1].equalsIgnoreCase("painted");
+        EdtMonitor.install();
         SwingUtilities.invokeLater(new Runnable()
         {
             @Override
             public void run()
             {
                 int choice = getNumberCards();
-                new GameFrame(choice);
+                new GameFrame(choice, type, painted);
             }
         });
     }
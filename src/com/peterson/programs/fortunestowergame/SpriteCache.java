@@ -0,0 +1,362 @@
+package com.peterson.programs.fortunestowergame;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cache of card images that have already been scaled.
+ * Sprites are kept by the size they are drawn at and the scale of the display,
+ * so making a new board of the same size costs a map lookup.
+ * Each sprite is an image compatible with the default screen, which Java2D can keep in
+ * video memory and draw without converting it; without a display, a pre-multiplied ARGB image.
+ * On a display that is scaled up, each sprite also has a copy at the
+ * scaled size, so the cards are sharp on HiDPI screens.
+ * The sizes used least recently are dropped when the cache holds more than its limit.
+ * If the cache has a directory, every scaled size is saved there as a png
+ * the first time it is made, and read back on the next start instead of being scaled.
+ * The shared cache only has one if the fortunestower.sprites property names it,
+ * so nothing is written to disk unless asked for.
+ * A problem with the directory only means the images are scaled again.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public final class SpriteCache
+{
+    /**
+     * The default limit on the memory used by the images, in bytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 32L << 20;
+
+    /**
+     * The system property that sets the directory of the shared cache.
+     * The disk cache is off if it isn't set, or is set to an empty string.
+     */
+    public static final String DIRECTORY_PROPERTY = "fortunestower.sprites";
+
+    //bump this if the card file or the scaling changes, so old files are not used
+    private static final String VERSION = "1";
+
+    private static final int CARDS = CardLoader.CardSequence.values().length;
+
+    private final Map<Key, Image[]> sprites;
+    private final long maxBytes;
+    private final File directory;
+    private long bytes;
+
+    /*
+        The shared cache is only made the first time it is asked for.
+     */
+    private static class Holder
+    {
+        private static final SpriteCache INSTANCE = new SpriteCache(DEFAULT_MAX_BYTES, defaultDirectory());
+    }
+
+    /**
+     * Creates a sprite cache.
+     * @param maxBytes the most memory the images can use before sizes are dropped.
+     *                 The size used last is always kept.
+     * @param directory the directory to save scaled images in, or null to not use one
+     */
+    public SpriteCache(long maxBytes, File directory)
+    {
+        //access order, so the first entry is the one used least recently
+        sprites = new LinkedHashMap<>(16, 0.75f, true);
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the cache shared by the game.
+     * Its directory is set by the fortunestower.sprites property,
+     * and it keeps its images in memory only if the property isn't set.
+     * @return the shared cache
+     */
+    public static SpriteCache getInstance()
+    {
+        return Holder.INSTANCE;
+    }
+
+    private static File defaultDirectory()
+    {
+        String dir = System.getProperty(DIRECTORY_PROPERTY);
+        if (dir == null || dir.isEmpty())
+            return null;
+        return new File(dir);
+    }
+
+    /**
+     * Gets the scale of the default screen.
+     * @return how many pixels make up a unit of the display, 1 if there is no display
+     */
+    public static double displayScale()
+    {
+        if (GraphicsEnvironment.isHeadless())
+            return 1;
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().getDefaultTransform().getScaleX();
+    }
+
+    /**
+     * Gets the cards for the default screen at a size.
+     * @param width the width of a card
+     * @param height the height of a card
+     * @return icons of every card, in the order of CardLoader.CardSequence
+     */
+    public List<ImageIcon> getIcons(int width, int height)
+    {
+        Image[] images = getSprites(width, height, displayScale());
+        List<ImageIcon> icons = new ArrayList<>(images.length);
+        for (Image i : images)
+            icons.add(new ImageIcon(i));
+        return icons;
+    }
+
+    /**
+     * Gets the image of a card for the default screen at a size.
+     * @param card the card to get
+     * @param width the width of the card
+     * @param height the height of the card
+     * @return the shared image of the card
+     */
+    public Image getSprite(CardLoader.CardSequence card, int width, int height)
+    {
+        return getSprites(width, height, displayScale())[card.ordinal()];
+    }
+
+    /**
+     * Gets the images of every card at a size.
+     * The images are shared and must not be drawn on.
+     * @param width the width of a card
+     * @param height the height of a card
+     * @param scale the scale of the display. Above 1, each image
+     *              is a multi-resolution image with a copy at the scaled size.
+     * @return the images of every card, in the order of CardLoader.CardSequence
+     * @throws IllegalArgumentException if the size or scale isn't positive
+     */
+    public synchronized Image[] getSprites(int width, int height, double scale)
+    {
+        if (width <= 0 || height <= 0 || scale <= 0)
+            throw new IllegalArgumentException("Sprites need a positive size and scale");
+
+        Key key = new Key(width, height, scale);
+        Image[] images = sprites.get(key);
+        if (images != null)
+            return images.clone();
+
+        BufferedImage[] base = level(width, height);
+        if (!key.isScaled())
+        {
+            images = base;
+        }
+        else
+        {
+            BufferedImage[] scaled = level(key.scaledWidth(), key.scaledHeight());
+            images = new Image[CARDS];
+            for (int i = 0; i < CARDS; i++)
+                images[i] = new BaseMultiResolutionImage(base[i], scaled[i]);
+        }
+
+        sprites.put(key, images);
+        bytes += key.bytes();
+        evict();
+        return images.clone();
+    }
+
+    /**
+     * Gets the memory used by the cached images.
+     * @return the number of bytes of pixels held
+     */
+    public synchronized long getBytes()
+    {
+        return bytes;
+    }
+
+    /**
+     * Gets the number of sizes cached.
+     * @return the number of sizes in memory
+     */
+    public synchronized int size()
+    {
+        return sprites.size();
+    }
+
+    /**
+     * Drops every size from memory. Files in the directory are kept.
+     */
+    public synchronized void clear()
+    {
+        sprites.clear();
+        bytes = 0;
+    }
+
+    /*
+        Drops the sizes used least recently until the cache is under its limit.
+     */
+    private void evict()
+    {
+        Iterator<Map.Entry<Key, Image[]>> it = sprites.entrySet().iterator();
+        while (bytes > maxBytes && sprites.size() > 1)
+        {
+            Key eldest = it.next().getKey();
+            it.remove();
+            bytes -= eldest.bytes();
+        }
+    }
+
+    /*
+        Makes every card at a size in pixels, from the directory if it is there.
+     */
+    private BufferedImage[] level(int width, int height)
+    {
+        File file = null;
+        if (directory != null)
+        {
+            file = new File(directory, "cards-v" + VERSION + "-" + width + "x" + height + ".png");
+            BufferedImage[] images = read(file, width, height);
+            if (images != null)
+                return images;
+        }
+
+        CardAtlas atlas = CardAtlas.getInstance();
+        BufferedImage[] images = new BufferedImage[CARDS];
+        for (CardLoader.CardSequence card : CardLoader.CardSequence.values())
+            images[card.ordinal()] = ImageResizer.scale(atlas.getImage(card), width, height);
+
+        if (file != null)
+            write(file, images, width, height);
+        return images;
+    }
+
+    /*
+        Reads a strip of cards saved by write, or returns null if it can't.
+     */
+    private static BufferedImage[] read(File file, int width, int height)
+    {
+        if (!file.isFile())
+            return null;
+
+        BufferedImage strip;
+        try
+        {
+            strip = ImageIO.read(file);
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+        if (strip == null || strip.getWidth() != width * CARDS || strip.getHeight() != height)
+            return null;
+
+        BufferedImage[] images = new BufferedImage[CARDS];
+        for (int i = 0; i < CARDS; i++)
+        {
+            images[i] = ImageResizer.compatibleImage(width, height);
+            Graphics2D g = images[i].createGraphics();
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(strip, 0, 0, width, height, i * width, 0, (i + 1) * width, height, null);
+            g.dispose();
+        }
+        return images;
+    }
+
+    /*
+        Saves the cards side by side in one png. The cards are drawn into
+        the strip rather than read directly, so they stay accelerated.
+     */
+    private static void write(File file, BufferedImage[] images, int width, int height)
+    {
+        BufferedImage strip = new BufferedImage(width * CARDS, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = strip.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        for (int i = 0; i < CARDS; i++)
+            g.drawImage(images[i], i * width, 0, null);
+        g.dispose();
+
+        try
+        {
+            File dir = file.getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs())
+                return;
+
+            //written under another name first, so a half written file is never read
+            File temp = new File(dir, file.getName() + ".tmp");
+            if (ImageIO.write(strip, "png", temp) && !temp.renameTo(file))
+                temp.delete();
+        }
+        catch (IOException | SecurityException e)
+        {
+            //the cache is only a shortcut, so the images are just scaled again next time
+        }
+    }
+
+    /*
+        A cache key; the size of a card and the scale of the display.
+     */
+    private static class Key
+    {
+        private final int width;
+        private final int height;
+        private final double scale;
+
+        public Key(int width, int height, double scale)
+        {
+            this.width = width;
+            this.height = height;
+            this.scale = scale;
+        }
+
+        public int scaledWidth()
+        {
+            return (int) Math.round(width * scale);
+        }
+
+        public int scaledHeight()
+        {
+            return (int) Math.round(height * scale);
+        }
+
+        /*
+            Determines if the sprites need a second, scaled copy.
+         */
+        public boolean isScaled()
+        {
+            return scaledWidth() != width || scaledHeight() != height;
+        }
+
+        /*
+            Bytes of pixels held by the sprites of this key, 4 per pixel.
+         */
+        public long bytes()
+        {
+            long size = 4L * width * height * CARDS;
+            if (isScaled())
+                size += 4L * scaledWidth() * scaledHeight() * CARDS;
+            return size;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return width == other.width && height == other.height && scale == other.scale;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return (width * 31 + height) * 31 + Double.hashCode(scale);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.peterson.programs.fortunestowergame;
+
+import com.peterson.programs.fortunestower.Board;
+import com.peterson.programs.fortunestower.Board2D;
+import com.peterson.programs.fortunestower.Card;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * A single component that paints the whole tower of cards.
+ * This is an alternative to GamePanel; instead of a label for every card,
+ * it keeps the code of each card in a grid and paints the cards itself,
+ * straight from the sprites in SpriteCache.
+ * Showing a row only compares the row against the grid and repaints
+ * the cards that changed, so dealing allocates nothing and never lays
+ * anything out.
+ * Slots are numbered row by row from the gate card, the same as PackedBoard.
+ * @author Peterson, Ryan
+ *         Created 10/18/2026
+ */
+public class TowerView extends JComponent
+{
+    private static final int ROWS = Board2D.LAST_LEVEL;
+    private static final int SLOTS = ROWS * (ROWS + 1) / 2;
+
+    //the space between cards, in pixels
+    private static final int GAP = 6;
+
+    //how see-through the used gate card is
+    private static final float USED_ALPHA = 0.4f;
+
+    private static final int KNIGHT_SPRITE = CardLoader.CardSequence.KNIGHT.ordinal();
+    private static final int BACK_SPRITE = CardLoader.CardSequence.BACK.ordinal();
+
+    private final Image[] sprites;
+    private final int cardWidth;
+    private final int cardHeight;
+
+    //the sprite shown in each slot, as an index into sprites
+    private final int[] shown;
+    private long dealt;
+    private boolean gateUsed;
+
+    /**
+     * Creates an empty tower view.
+     * @param cardWidth the width of a card
+     * @param cardHeight the height of a card
+     */
+    public TowerView(int cardWidth, int cardHeight)
+    {
+        this.cardWidth = cardWidth;
+        this.cardHeight = cardHeight;
+        sprites = SpriteCache.getInstance().getSprites(cardWidth, cardHeight, SpriteCache.displayScale());
+        shown = new int[SLOTS];
+
+        setOpaque(true);
+        setPreferredSize(new Dimension(ROWS * (cardWidth + GAP), ROWS * (cardHeight + GAP)));
+    }
+
+    private static int slot(int row, int col)
+    {
+        return row * (row + 1) / 2 + col;
+    }
+
+    /**
+     * Shows a row of the board.
+     * Only the cards that are different from the ones already shown are repainted.
+     * @param board the board being played
+     * @param row the row to show
+     */
+    public void showRow(Board board, int row)
+    {
+        Card[] cards = board.getCardsInRow(row);
+        for (int col = 0; col < cards.length; col++)
+        {
+            Card c = cards[col];
+            //a used gate card is gone from the board, but stays on the view
+            if (c == null)
+                continue;
+
+            int sprite = BACK_SPRITE;
+            if (board.isFaceUp(row, col))
+                sprite = c.isKnight() ? KNIGHT_SPRITE : c.getValue();
+
+            int s = slot(row, col);
+            long bit = 1L << s;
+            if ((dealt & bit) == 0 || shown[s] != sprite)
+            {
+                dealt |= bit;
+                shown[s] = sprite;
+                repaintSlot(row, col);
+            }
+        }
+    }
+
+    /**
+     * Greys out the gate card, to show it has been used.
+     */
+    public void flipGate()
+    {
+        if (!gateUsed)
+        {
+            gateUsed = true;
+            repaintSlot(0, 0);
+        }
+    }
+
+    /**
+     * Takes every card off the view, ready for a new game.
+     */
+    public void clear()
+    {
+        dealt = 0;
+        gateUsed = false;
+        repaint();
+    }
+
+    private int x(int row, int col)
+    {
+        int rowWidth = (row + 1) * (cardWidth + GAP) - GAP;
+        return (getWidth() - rowWidth) / 2 + col * (cardWidth + GAP);
+    }
+
+    private int y(int row)
+    {
+        return GAP / 2 + row * (cardHeight + GAP);
+    }
+
+    private void repaintSlot(int row, int col)
+    {
+        repaint(x(row, col), y(row), cardWidth, cardHeight);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g)
+    {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null)
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        for (int row = 0; row < ROWS; row++)
+        {
+            int y = y(row);
+            //rows outside the dirty region are skipped without looking at their cards
+            if (y >= clip.y + clip.height || y + cardHeight <= clip.y)
+                continue;
+
+            for (int col = 0; col <= row; col++)
+            {
+                int s = slot(row, col);
+                if ((dealt & (1L << s)) == 0)
+                    continue;
+
+                int x = x(row, col);
+                if (x >= clip.x + clip.width || x + cardWidth <= clip.x)
+                    continue;
+
+                if (s == 0 && gateUsed)
+                {
+                    Graphics2D g2 = (Graphics2D) g;
+                    Composite old = g2.getComposite();
+                    g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, USED_ALPHA));
+                    g2.drawImage(sprites[shown[s]], x, y, null);
+                    g2.setComposite(old);
+                }
+                else
+                {
+                    g.drawImage(sprites[shown[s]], x, y, null);
+                }
+            }
+        }
+    }
+}